@@ -25,8 +25,12 @@
 package net.runelite.cache;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.util.KeyProvider;
+import net.runelite.cache.util.XteaKeyManager;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -45,6 +49,8 @@ public class Cache
 		options.addOption(null, "npcs", true, "directory to dump npcs to");
 		options.addOption(null, "objects", true, "directory to dump objects to");
 		options.addOption(null, "sprites", true, "directory to dump sprites to");
+		options.addOption(null, "collision", true, "file to write the collision map to");
+		options.addOption(null, "xteas", true, "xtea keys file, required to read map locations");
 
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd;
@@ -115,6 +121,32 @@ public class Cache
 			System.out.println("Dumping sprites to " + spritedir);
 			dumpSprites(store, new File(spritedir));
 		}
+		else if (cmd.hasOption("collision"))
+		{
+			String collisionFile = cmd.getOptionValue("collision");
+
+			if (collisionFile == null)
+			{
+				System.err.println("Collision map file must be specified");
+				return;
+			}
+
+			XteaKeyManager keyManager = new XteaKeyManager();
+			if (cmd.hasOption("xteas"))
+			{
+				try (InputStream in = new FileInputStream(cmd.getOptionValue("xteas")))
+				{
+					keyManager.loadKeys(in);
+				}
+			}
+			else
+			{
+				System.err.println("No xtea keys given, only floor collision will be dumped");
+			}
+
+			System.out.println("Dumping collision map to " + collisionFile);
+			dumpCollisionMap(store, keyManager, new File(collisionFile));
+		}
 		else
 		{
 			System.err.println("Nothing to do");
@@ -158,4 +190,11 @@ public class Cache
 		dumper.load();
 		dumper.export(spritedir);
 	}
+
+	private static void dumpCollisionMap(Store store, KeyProvider keyProvider, File file) throws IOException
+	{
+		CollisionMapDumper dumper = new CollisionMapDumper(store);
+		dumper.load(keyProvider);
+		dumper.dump(file, Runtime.getRuntime().availableProcessors());
+	}
 }
@@ -0,0 +1,415 @@
+package net.runelite.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import net.runelite.cache.definitions.ObjectDefinition;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.region.Location;
+import net.runelite.cache.region.Position;
+import net.runelite.cache.region.Region;
+import net.runelite.cache.region.RegionLoader;
+import net.runelite.cache.util.GZip;
+import net.runelite.cache.util.KeyProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds the global collision map used by the walker's pathfinder from the map squares in the cache.
+ * <p>
+ * The output is a gzipped sequence of {@code [short regionId][4096 byte bitset]} entries, where bit
+ * {@code ((z * 64 + y) * 64 + x) * 2} is set when the tile can be left to the north and the next bit
+ * when it can be left to the east.
+ */
+public class CollisionMapDumper
+{
+	private static final Logger logger = LoggerFactory.getLogger(CollisionMapDumper.class);
+
+	private static final int BLOCK_MOVEMENT_NORTH_WEST = 0x1;
+	private static final int BLOCK_MOVEMENT_NORTH = 0x2;
+	private static final int BLOCK_MOVEMENT_NORTH_EAST = 0x4;
+	private static final int BLOCK_MOVEMENT_EAST = 0x8;
+	private static final int BLOCK_MOVEMENT_SOUTH_EAST = 0x10;
+	private static final int BLOCK_MOVEMENT_SOUTH = 0x20;
+	private static final int BLOCK_MOVEMENT_SOUTH_WEST = 0x40;
+	private static final int BLOCK_MOVEMENT_WEST = 0x80;
+	private static final int BLOCK_MOVEMENT_OBJECT = 0x100;
+	private static final int BLOCK_MOVEMENT_FLOOR_DECORATION = 0x40000;
+	private static final int BLOCK_MOVEMENT_FLOOR = 0x200000;
+	private static final int BLOCK_MOVEMENT_FULL = BLOCK_MOVEMENT_OBJECT | BLOCK_MOVEMENT_FLOOR_DECORATION | BLOCK_MOVEMENT_FLOOR;
+
+	private static final int REGION_TILES = Region.X * Region.Y * Region.Z;
+	private static final int REGION_BYTES = REGION_TILES * 2 / 8;
+
+	private final Store store;
+	private Collection<Region> regions;
+	private IntFunction<ObjectDefinition> objects;
+
+	public CollisionMapDumper(Store store)
+	{
+		this.store = store;
+	}
+
+	CollisionMapDumper(Collection<Region> regions, IntFunction<ObjectDefinition> objects)
+	{
+		this.store = null;
+		this.regions = regions;
+		this.objects = objects;
+	}
+
+	public void load(KeyProvider keyProvider) throws IOException
+	{
+		RegionLoader regionLoader = new RegionLoader(store, keyProvider);
+		regionLoader.loadRegions();
+		regions = regionLoader.getRegions();
+
+		ObjectManager objectManager = new ObjectManager(store);
+		objectManager.load();
+		objects = objectManager::getObject;
+	}
+
+	/**
+	 * Decodes every loaded region in parallel and returns the uncompressed collision map, ordered by region id.
+	 */
+	public byte[] build(int parallelism) throws IOException
+	{
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+		try
+		{
+			List<RegionFlags> decoded = pool.submit(() -> regions.parallelStream()
+				.map(this::decode)
+				.collect(Collectors.toList()))
+				.join();
+
+			Map<Integer, int[]> flags = new HashMap<>(decoded.size() * 2);
+			for (RegionFlags region : decoded)
+			{
+				flags.put(region.id, region.flags);
+			}
+
+			// walls and large objects on a region edge also block tiles of the neighbouring region
+			int spilled = 0;
+			for (RegionFlags region : decoded)
+			{
+				for (long spill : region.spills)
+				{
+					int position = (int) (spill >>> 32);
+					int[] target = flags.get(regionId(position));
+					if (target != null)
+					{
+						target[tileIndex(position)] |= (int) spill;
+						spilled++;
+					}
+				}
+			}
+
+			List<byte[]> passability = pool.submit(() -> decoded.parallelStream()
+				.sorted((a, b) -> Integer.compare(a.id, b.id))
+				.map(region -> passability(region, flags))
+				.collect(Collectors.toList()))
+				.join();
+
+			logger.info("Built collision map for {} regions, {} flags crossed region borders", decoded.size(), spilled);
+
+			ByteArrayOutputStream bout = new ByteArrayOutputStream(passability.size() * (2 + REGION_BYTES));
+			try (DataOutputStream out = new DataOutputStream(bout))
+			{
+				for (byte[] region : passability)
+				{
+					out.write(region);
+				}
+			}
+
+			return bout.toByteArray();
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	public void dump(File file, int parallelism) throws IOException
+	{
+		byte[] data = GZip.compress(build(parallelism));
+		Files.write(file.toPath(), data);
+		logger.info("Wrote collision map to {} ({} bytes)", file, data.length);
+	}
+
+	private RegionFlags decode(Region region)
+	{
+		RegionFlags result = new RegionFlags(region);
+
+		for (int z = 0; z < Region.Z; ++z)
+		{
+			for (int x = 0; x < Region.X; ++x)
+			{
+				for (int y = 0; y < Region.Y; ++y)
+				{
+					if ((region.getTileSetting(z, x, y) & 1) == 0)
+					{
+						continue;
+					}
+
+					int plane = plane(region, z, x, y);
+					if (plane >= 0)
+					{
+						result.add(region.getBaseX() + x, region.getBaseY() + y, plane, BLOCK_MOVEMENT_FLOOR);
+					}
+				}
+			}
+		}
+
+		for (Location location : region.getLocations())
+		{
+			ObjectDefinition object = objects.apply(location.getId());
+			if (object == null || object.getInteractType() == 0)
+			{
+				continue;
+			}
+
+			Position position = location.getPosition();
+			int plane = plane(region, position.getZ(), position.getX() - region.getBaseX(), position.getY() - region.getBaseY());
+			if (plane < 0)
+			{
+				continue;
+			}
+
+			int type = location.getType();
+			if (type >= 0 && type <= 3)
+			{
+				addWall(result, position.getX(), position.getY(), plane, type, location.getOrientation());
+			}
+			else if (type >= 9 && type <= 21)
+			{
+				int sizeX = object.getSizeX();
+				int sizeY = object.getSizeY();
+				if (location.getOrientation() == 1 || location.getOrientation() == 3)
+				{
+					sizeX = object.getSizeY();
+					sizeY = object.getSizeX();
+				}
+
+				for (int dx = 0; dx < sizeX; ++dx)
+				{
+					for (int dy = 0; dy < sizeY; ++dy)
+					{
+						result.add(position.getX() + dx, position.getY() + dy, plane, BLOCK_MOVEMENT_OBJECT);
+					}
+				}
+			}
+			else if (type == 22 && object.getInteractType() == 1)
+			{
+				result.add(position.getX(), position.getY(), plane, BLOCK_MOVEMENT_FLOOR_DECORATION);
+			}
+		}
+
+		return result;
+	}
+
+	private static void addWall(RegionFlags flags, int x, int y, int z, int type, int orientation)
+	{
+		if (type == 0)
+		{
+			switch (orientation)
+			{
+				case 0:
+					flags.add(x, y, z, BLOCK_MOVEMENT_WEST);
+					flags.add(x - 1, y, z, BLOCK_MOVEMENT_EAST);
+					break;
+				case 1:
+					flags.add(x, y, z, BLOCK_MOVEMENT_NORTH);
+					flags.add(x, y + 1, z, BLOCK_MOVEMENT_SOUTH);
+					break;
+				case 2:
+					flags.add(x, y, z, BLOCK_MOVEMENT_EAST);
+					flags.add(x + 1, y, z, BLOCK_MOVEMENT_WEST);
+					break;
+				case 3:
+					flags.add(x, y, z, BLOCK_MOVEMENT_SOUTH);
+					flags.add(x, y - 1, z, BLOCK_MOVEMENT_NORTH);
+					break;
+			}
+		}
+		else if (type == 1 || type == 3)
+		{
+			switch (orientation)
+			{
+				case 0:
+					flags.add(x, y, z, BLOCK_MOVEMENT_NORTH_WEST);
+					flags.add(x - 1, y + 1, z, BLOCK_MOVEMENT_SOUTH_EAST);
+					break;
+				case 1:
+					flags.add(x, y, z, BLOCK_MOVEMENT_NORTH_EAST);
+					flags.add(x + 1, y + 1, z, BLOCK_MOVEMENT_SOUTH_WEST);
+					break;
+				case 2:
+					flags.add(x, y, z, BLOCK_MOVEMENT_SOUTH_EAST);
+					flags.add(x + 1, y - 1, z, BLOCK_MOVEMENT_NORTH_WEST);
+					break;
+				case 3:
+					flags.add(x, y, z, BLOCK_MOVEMENT_SOUTH_WEST);
+					flags.add(x - 1, y - 1, z, BLOCK_MOVEMENT_NORTH_EAST);
+					break;
+			}
+		}
+		else if (type == 2)
+		{
+			switch (orientation)
+			{
+				case 0:
+					flags.add(x, y, z, BLOCK_MOVEMENT_NORTH | BLOCK_MOVEMENT_WEST);
+					flags.add(x - 1, y, z, BLOCK_MOVEMENT_EAST);
+					flags.add(x, y + 1, z, BLOCK_MOVEMENT_SOUTH);
+					break;
+				case 1:
+					flags.add(x, y, z, BLOCK_MOVEMENT_NORTH | BLOCK_MOVEMENT_EAST);
+					flags.add(x, y + 1, z, BLOCK_MOVEMENT_SOUTH);
+					flags.add(x + 1, y, z, BLOCK_MOVEMENT_WEST);
+					break;
+				case 2:
+					flags.add(x, y, z, BLOCK_MOVEMENT_EAST | BLOCK_MOVEMENT_SOUTH);
+					flags.add(x + 1, y, z, BLOCK_MOVEMENT_WEST);
+					flags.add(x, y - 1, z, BLOCK_MOVEMENT_NORTH);
+					break;
+				case 3:
+					flags.add(x, y, z, BLOCK_MOVEMENT_SOUTH | BLOCK_MOVEMENT_WEST);
+					flags.add(x, y - 1, z, BLOCK_MOVEMENT_NORTH);
+					flags.add(x - 1, y, z, BLOCK_MOVEMENT_EAST);
+					break;
+			}
+		}
+	}
+
+	private static byte[] passability(RegionFlags region, Map<Integer, int[]> flags)
+	{
+		BitSet bits = new BitSet(REGION_TILES * 2);
+		int baseX = region.baseX;
+		int baseY = region.baseY;
+
+		for (int z = 0; z < Region.Z; ++z)
+		{
+			for (int y = 0; y < Region.Y; ++y)
+			{
+				for (int x = 0; x < Region.X; ++x)
+				{
+					int tile = region.flags[(z * Region.Y + y) * Region.X + x];
+					if ((tile & BLOCK_MOVEMENT_FULL) != 0)
+					{
+						continue;
+					}
+
+					int index = ((z * Region.Y + y) * Region.X + x) * 2;
+
+					int north = flag(flags, baseX + x, baseY + y + 1, z);
+					if ((tile & BLOCK_MOVEMENT_NORTH) == 0 && (north & (BLOCK_MOVEMENT_SOUTH | BLOCK_MOVEMENT_FULL)) == 0)
+					{
+						bits.set(index);
+					}
+
+					int east = flag(flags, baseX + x + 1, baseY + y, z);
+					if ((tile & BLOCK_MOVEMENT_EAST) == 0 && (east & (BLOCK_MOVEMENT_WEST | BLOCK_MOVEMENT_FULL)) == 0)
+					{
+						bits.set(index + 1);
+					}
+				}
+			}
+		}
+
+		byte[] out = new byte[2 + REGION_BYTES];
+		out[0] = (byte) (region.id >> 8);
+		out[1] = (byte) region.id;
+
+		byte[] packed = bits.toByteArray();
+		System.arraycopy(packed, 0, out, 2, packed.length);
+		return out;
+	}
+
+	/**
+	 * Tiles of missing map squares are treated as fully blocked.
+	 */
+	private static int flag(Map<Integer, int[]> flags, int x, int y, int z)
+	{
+		int position = pack(x, y, z);
+		int[] region = flags.get(regionId(position));
+		return region == null ? BLOCK_MOVEMENT_FULL : region[tileIndex(position)];
+	}
+
+	/**
+	 * Objects on bridges are stored one plane above the plane they block.
+	 */
+	private static int plane(Region region, int z, int x, int y)
+	{
+		if ((region.getTileSetting(1, x, y) & 2) == 2)
+		{
+			return z - 1;
+		}
+
+		return z;
+	}
+
+	private static int pack(int x, int y, int z)
+	{
+		return z << 28 | x << 14 | y;
+	}
+
+	private static int regionId(int position)
+	{
+		int x = position >>> 14 & 0x3fff;
+		int y = position & 0x3fff;
+		return (x >> 6) << 8 | y >> 6;
+	}
+
+	private static int tileIndex(int position)
+	{
+		int z = position >>> 28;
+		int x = position >>> 14 & 0x3f;
+		int y = position & 0x3f;
+		return (z * Region.Y + y) * Region.X + x;
+	}
+
+	private static class RegionFlags
+	{
+		private final int id;
+		private final int baseX;
+		private final int baseY;
+		private final int[] flags = new int[REGION_TILES];
+		private final List<Long> spills = new ArrayList<>();
+
+		private RegionFlags(Region region)
+		{
+			this.id = region.getRegionID();
+			this.baseX = region.getBaseX();
+			this.baseY = region.getBaseY();
+		}
+
+		private void add(int x, int y, int z, int flag)
+		{
+			if (x < 0 || y < 0)
+			{
+				return;
+			}
+
+			int position = pack(x, y, z);
+			if (x - baseX >= 0 && x - baseX < Region.X && y - baseY >= 0 && y - baseY < Region.Y)
+			{
+				flags[tileIndex(position)] |= flag;
+			}
+			else
+			{
+				spills.add((long) position << 32 | flag & 0xffffffffL);
+			}
+		}
+	}
+}
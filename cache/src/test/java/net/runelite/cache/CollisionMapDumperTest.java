@@ -0,0 +1,168 @@
+package net.runelite.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import net.runelite.cache.definitions.MapDefinition;
+import net.runelite.cache.definitions.ObjectDefinition;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.region.Location;
+import net.runelite.cache.region.Position;
+import net.runelite.cache.region.Region;
+import net.runelite.cache.util.XteaKeyManager;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class CollisionMapDumperTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(CollisionMapDumperTest.class);
+
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	private static final int REGION_X = 50;
+	private static final int REGION_Y = 50;
+	private static final int BASE_X = REGION_X << 6;
+	private static final int BASE_Y = REGION_Y << 6;
+	private static final int WALL = 1;
+	private static final int BOULDER = 2;
+
+	@Test
+	@Ignore
+	public void dump() throws IOException
+	{
+		File base = StoreLocation.LOCATION,
+			outDir = folder.newFolder();
+
+		try (Store store = new Store(base))
+		{
+			store.load();
+
+			XteaKeyManager keyManager = new XteaKeyManager();
+			keyManager.loadKeys(null);
+
+			CollisionMapDumper dumper = new CollisionMapDumper(store);
+			dumper.load(keyManager);
+
+			File outFile = new File(outDir, "collision-map");
+			dumper.dump(outFile, Runtime.getRuntime().availableProcessors());
+			logger.info("Wrote collision map {}", outFile);
+		}
+	}
+
+	@Test
+	public void testOpenTile() throws IOException
+	{
+		BitSet bits = build(new Region(REGION_X, REGION_Y), new byte[Region.Z][Region.X][Region.Y]);
+
+		assertTrue(north(bits, 10, 10, 0));
+		assertTrue(east(bits, 10, 10, 0));
+		// missing neighbouring regions are blocked
+		assertFalse(north(bits, 10, Region.Y - 1, 0));
+		assertFalse(east(bits, Region.X - 1, 10, 0));
+	}
+
+	@Test
+	public void testBlockedFloor() throws IOException
+	{
+		byte[][][] settings = new byte[Region.Z][Region.X][Region.Y];
+		settings[0][20][20] = 1;
+		BitSet bits = build(new Region(REGION_X, REGION_Y), settings);
+
+		assertFalse(north(bits, 20, 20, 0));
+		assertFalse(east(bits, 20, 20, 0));
+		assertFalse(north(bits, 20, 19, 0));
+		assertFalse(east(bits, 19, 20, 0));
+		assertTrue(north(bits, 20, 21, 0));
+		assertTrue(east(bits, 21, 20, 0));
+	}
+
+	@Test
+	public void testWall() throws IOException
+	{
+		Region region = new Region(REGION_X, REGION_Y);
+		// straight walls on the north side of one tile and the east side of another
+		region.getLocations().add(new Location(WALL, 0, 1, new Position(BASE_X + 30, BASE_Y + 30, 0)));
+		region.getLocations().add(new Location(WALL, 0, 2, new Position(BASE_X + 40, BASE_Y + 40, 0)));
+		BitSet bits = build(region, new byte[Region.Z][Region.X][Region.Y]);
+
+		assertFalse(north(bits, 30, 30, 0));
+		assertTrue(east(bits, 30, 30, 0));
+		assertTrue(north(bits, 30, 31, 0));
+
+		assertTrue(north(bits, 40, 40, 0));
+		assertFalse(east(bits, 40, 40, 0));
+		assertTrue(east(bits, 39, 40, 0));
+	}
+
+	@Test
+	public void testBridge() throws IOException
+	{
+		Region region = new Region(REGION_X, REGION_Y);
+		byte[][][] settings = new byte[Region.Z][Region.X][Region.Y];
+		settings[1][5][5] = 2;
+		// on the bridge the object blocks the plane below, elsewhere its own plane
+		region.getLocations().add(new Location(BOULDER, 10, 0, new Position(BASE_X + 5, BASE_Y + 5, 1)));
+		region.getLocations().add(new Location(BOULDER, 10, 0, new Position(BASE_X + 8, BASE_Y + 8, 1)));
+		BitSet bits = build(region, settings);
+
+		assertFalse(north(bits, 5, 5, 0));
+		assertFalse(east(bits, 5, 5, 0));
+		assertTrue(north(bits, 5, 5, 1));
+
+		assertTrue(north(bits, 8, 8, 0));
+		assertFalse(north(bits, 8, 8, 1));
+		assertFalse(east(bits, 8, 8, 1));
+	}
+
+	private static BitSet build(Region region, byte[][][] settings) throws IOException
+	{
+		MapDefinition map = new MapDefinition();
+		for (int z = 0; z < Region.Z; ++z)
+		{
+			for (int x = 0; x < Region.X; ++x)
+			{
+				for (int y = 0; y < Region.Y; ++y)
+				{
+					MapDefinition.Tile tile = new MapDefinition.Tile();
+					tile.height = 0;
+					tile.settings = settings[z][x][y];
+					map.getTiles()[z][x][y] = tile;
+				}
+			}
+		}
+
+		region.loadTerrain(map);
+
+		ObjectDefinition wall = new ObjectDefinition();
+		wall.setId(WALL);
+		ObjectDefinition boulder = new ObjectDefinition();
+		boulder.setId(BOULDER);
+		Map<Integer, ObjectDefinition> objects = Map.of(WALL, wall, BOULDER, boulder);
+
+		byte[] data = new CollisionMapDumper(List.of(region), objects::get).build(1);
+		assertEquals(2 + Region.X * Region.Y * Region.Z * 2 / 8, data.length);
+		assertEquals(region.getRegionID(), (data[0] & 0xff) << 8 | data[1] & 0xff);
+		return BitSet.valueOf(Arrays.copyOfRange(data, 2, data.length));
+	}
+
+	private static boolean north(BitSet bits, int x, int y, int z)
+	{
+		return bits.get(((z * Region.Y + y) * Region.X + x) * 2);
+	}
+
+	private static boolean east(BitSet bits, int x, int y, int z)
+	{
+		return bits.get(((z * Region.Y + y) * Region.X + x) * 2 + 1);
+	}
+}
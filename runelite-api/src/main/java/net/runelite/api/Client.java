@@ -32,6 +32,7 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -100,6 +101,24 @@ public interface Client extends OAuthApi, GameEngine
 	 */
 	List<NPC> getNpcs();
 
+	/**
+	 * Calls the consumer for every valid player in the player cache, reading the client's index array directly
+	 * instead of copying the players into a list like {@link #getPlayers()}. The arrays are only stable on the
+	 * client thread.
+	 *
+	 * @param consumer the consumer to call for each player
+	 */
+	void forEachPlayer(Consumer<? super Player> consumer);
+
+	/**
+	 * Calls the consumer for every valid NPC in the NPC cache, reading the client's index array directly
+	 * instead of copying the NPCs into a list like {@link #getNpcs()}. The arrays are only stable on the
+	 * client thread.
+	 *
+	 * @param consumer the consumer to call for each NPC
+	 */
+	void forEachNpc(Consumer<? super NPC> consumer);
+
 	/**
 	 * Gets an array of all cached NPCs.
 	 *
@@ -40,9 +40,19 @@ public class MenuEntryAdded
 {
 	// Here for RuneLite compatibility (different parameter order)
 	public MenuEntryAdded(MenuEntry menuEntry)
+	{
+		reset(menuEntry);
+	}
+
+	/**
+	 * Points the event at another menu entry, so the client can post one instance for every entry it adds.
+	 * Subscribers must not keep a reference to the event after handling it.
+	 */
+	public void reset(MenuEntry menuEntry)
 	{
 		this.menuEntry = menuEntry;
 
+		this.modified = false;
 		this.option = menuEntry.getOption();
 		this.target = menuEntry.getTarget();
 		this.identifier = menuEntry.getIdentifier();
@@ -53,7 +63,7 @@ public class MenuEntryAdded
 	}
 
 	@Getter
-	private final MenuEntry menuEntry;
+	private MenuEntry menuEntry;
 
 	@Getter
 	@Setter
@@ -44,4 +44,20 @@ public class VarbitChanged
 	 * For varplayer, this is the varplayer id.
 	 */
 	private int index = -1;
+
+	/**
+	 * The value of the varp before the change, or of the varbit on the events delivered to varbit keyed subscribers.
+	 */
+	private int previousValue;
+
+	/**
+	 * The value of the varp after the change, or of the varbit on the events delivered to varbit keyed subscribers.
+	 */
+	private int value;
+
+	/**
+	 * The varbit which changed, set on the events delivered to varbit keyed subscribers.
+	 * -1 on the events posted for every varp change.
+	 */
+	private int varbitId = -1;
 }
\ No newline at end of file
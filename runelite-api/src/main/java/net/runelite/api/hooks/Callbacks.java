@@ -53,6 +53,14 @@ public interface Callbacks
 	 */
 	void postDeferred(Object event);
 
+	/**
+	 * Checks if anything subscribed to the event class, so the client can skip building events nobody listens to.
+	 *
+	 * @param eventClass the event class
+	 * @return true if the event has subscribers
+	 */
+	boolean isSubscribed(Class<?> eventClass);
+
 	/**
 	 * Called each tick
 	 */
@@ -261,9 +261,9 @@ public class RuneLiteModule extends AbstractModule
 
 	@Provides
 	@Singleton
-	GlobalCollisionMap provideGlobalCollisionMap(@Named("unethicalite.api.url") String apiUrl) throws IOException
+	GlobalCollisionMap provideGlobalCollisionMap() throws IOException
 	{
-		return GlobalCollisionMap.fetchFromUrl(apiUrl + "/regions");
+		return GlobalCollisionMap.load(new File(RuneLite.CACHE_DIR, "collision-map"));
 	}
 
 	@Provides
@@ -27,11 +27,21 @@ package net.runelite.client.callback;
 import com.google.inject.Inject;
 import io.reactivex.rxjava3.plugins.RxJavaPlugins;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
 import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import org.jetbrains.annotations.NotNull;
@@ -40,7 +50,50 @@ import org.jetbrains.annotations.NotNull;
 @Slf4j
 public class ClientThread implements Executor
 {
-	private final ConcurrentLinkedQueue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
+	/**
+	 * The order tasks run in within a cycle. Low priority tasks only run while the cycle is within its time budget,
+	 * the rest are deferred to the next cycle. At least one low priority task runs every cycle, and a task deferred
+	 * by the budget too many times is promoted to normal priority.
+	 * <p>
+	 * A low priority task which keeps returning false is retried less and less often, tasks of the other
+	 * priorities are retried every cycle.
+	 */
+	public enum Priority
+	{
+		HIGH,
+		NORMAL,
+		LOW
+	}
+
+	private static final long LOW_PRIORITY_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+	// the amount of cycles a low priority task can be deferred by the budget before it is promoted
+	private static final int PROMOTION_THRESHOLD = 16;
+	// low priority tasks which keep returning false are retried every cycle at first, then less and less often
+	private static final int BACKOFF_THRESHOLD = 8;
+	private static final int MAX_BACKOFF_SHIFT = 4;
+
+	private final Map<Priority, Queue<Task>> invokes = new EnumMap<>(Priority.class);
+	private final Map<String, TaskStats> taskStats = new ConcurrentHashMap<>();
+	private final ClassValue<TaskStats> taskStatsByClass = new ClassValue<>()
+	{
+		@Override
+		protected TaskStats computeValue(Class<?> type)
+		{
+			// lambdas are grouped under the class which declared them
+			String name = type.getName();
+			int lambda = name.indexOf("$$Lambda");
+			return taskStats.computeIfAbsent(lambda == -1 ? name : name.substring(0, lambda), TaskStats::new);
+		}
+	};
+	private final AtomicInteger queueSize = new AtomicInteger();
+
+	/**
+	 * The amount of cycles in which low priority tasks were deferred because the budget ran out
+	 */
+	@Getter
+	private volatile long budgetDeferrals;
+
+	private int cycle;
 
 	private final Client client;
 
@@ -48,7 +101,12 @@ public class ClientThread implements Executor
 	private ClientThread(Client client)
 	{
 		this.client = client;
-		
+
+		for (Priority priority : Priority.values())
+		{
+			invokes.put(priority, new ConcurrentLinkedQueue<>());
+		}
+
 		RxJavaPlugins.setSingleSchedulerHandler(old -> Schedulers.from(this));
 	}
 
@@ -60,11 +118,16 @@ public class ClientThread implements Executor
 
 	public void invoke(Runnable r)
 	{
-		invoke(() ->
+		invoke(r, Priority.NORMAL);
+	}
+
+	public void invoke(Runnable r, Priority priority)
+	{
+		submit(r, () ->
 		{
 			r.run();
 			return true;
-		});
+		}, priority, true);
 	}
 
 	/**
@@ -73,16 +136,12 @@ public class ClientThread implements Executor
 	 */
 	public void invoke(BooleanSupplier r)
 	{
-		if (client.isClientThread())
-		{
-			if (!r.getAsBoolean())
-			{
-				invokes.add(r);
-			}
-			return;
-		}
+		invoke(r, Priority.NORMAL);
+	}
 
-		invokeLater(r);
+	public void invoke(BooleanSupplier r, Priority priority)
+	{
+		submit(r, r, priority, true);
 	}
 
 	/**
@@ -91,45 +150,182 @@ public class ClientThread implements Executor
 	 */
 	public void invokeLater(Runnable r)
 	{
-		invokeLater(() ->
+		invokeLater(r, Priority.NORMAL);
+	}
+
+	public void invokeLater(Runnable r, Priority priority)
+	{
+		submit(r, () ->
 		{
 			r.run();
 			return true;
-		});
+		}, priority, false);
 	}
 
 	public void invokeLater(BooleanSupplier r)
 	{
-		invokes.add(r);
+		invokeLater(r, Priority.NORMAL);
+	}
+
+	public void invokeLater(BooleanSupplier r, Priority priority)
+	{
+		submit(r, r, priority, false);
+	}
+
+	private void submit(Object source, BooleanSupplier r, Priority priority, boolean now)
+	{
+		Task task = new Task(r, taskStatsByClass.get(source.getClass()), priority == Priority.LOW);
+		if (now && client.isClientThread() && run(task))
+		{
+			return;
+		}
+
+		queueSize.incrementAndGet();
+		invokes.get(priority).add(task);
 	}
 
 	public void invoke()
 	{
 		assert client.isClientThread();
-		Iterator<BooleanSupplier> ir = invokes.iterator();
-		while (ir.hasNext())
+		long start = System.nanoTime();
+		int cycle = ++this.cycle;
+		boolean ranLow = false;
+		for (Priority priority : Priority.values())
 		{
-			BooleanSupplier r = ir.next();
-			boolean remove = true;
-			try
+			Iterator<Task> ir = invokes.get(priority).iterator();
+			while (ir.hasNext())
 			{
-				remove = r.getAsBoolean();
+				if (priority == Priority.LOW && ranLow && System.nanoTime() - start > LOW_PRIORITY_BUDGET_NANOS)
+				{
+					budgetDeferrals++;
+					log.trace("Deferring low priority tasks to the next cycle");
+					promoteStarved(ir);
+					break;
+				}
+
+				Task task = ir.next();
+				if (task.resumeCycle - cycle > 0)
+				{
+					continue;
+				}
+
+				ranLow |= priority == Priority.LOW;
+				task.budgetDeferrals = 0;
+				if (run(task))
+				{
+					ir.remove();
+					queueSize.decrementAndGet();
+				}
 			}
-			catch (ThreadDeath d)
+		}
+	}
+
+	/**
+	 * Counts a budget deferral for the low priority tasks which did not get to run this cycle, and moves the ones
+	 * which were deferred too often to the normal priority queue
+	 */
+	private void promoteStarved(Iterator<Task> ir)
+	{
+		Queue<Task> normal = invokes.get(Priority.NORMAL);
+		while (ir.hasNext())
+		{
+			Task task = ir.next();
+			// tasks backing off were not due to run anyway
+			if (task.resumeCycle - cycle > 0)
 			{
-				throw d;
+				continue;
 			}
-			catch (Throwable e)
+
+			if (++task.budgetDeferrals >= PROMOTION_THRESHOLD)
 			{
-				log.error("Exception in invoke", e);
+				log.trace("Promoting task {} after {} budget deferrals", task.supplier, task.budgetDeferrals);
+				ir.remove();
+				task.budgetDeferrals = 0;
+				normal.add(task);
 			}
-			if (remove)
+		}
+	}
+
+	/**
+	 * @return true if the task is done
+	 */
+	private boolean run(Task task)
+	{
+		boolean remove = true;
+		long start = System.nanoTime();
+		try
+		{
+			remove = task.supplier.getAsBoolean();
+		}
+		catch (ThreadDeath d)
+		{
+			throw d;
+		}
+		catch (Throwable e)
+		{
+			log.error("Exception in invoke", e);
+		}
+
+		task.stats.record(System.nanoTime() - start, !remove);
+		if (!remove)
+		{
+			log.trace("Deferring task {}", task.supplier);
+			int deferrals = ++task.deferrals;
+			if (task.backoff && deferrals >= BACKOFF_THRESHOLD)
 			{
-				ir.remove();
+				task.resumeCycle = cycle + (1 << Math.min(deferrals - BACKOFF_THRESHOLD, MAX_BACKOFF_SHIFT));
 			}
-			else
+		}
+
+		return remove;
+	}
+
+	/**
+	 * @return the amount of tasks waiting to run
+	 */
+	public int getQueueSize()
+	{
+		return queueSize.get();
+	}
+
+	/**
+	 * @return the run time and deferrals of the tasks, grouped by the class which submitted them
+	 */
+	public Collection<TaskStats> getTaskStats()
+	{
+		return Collections.unmodifiableCollection(taskStats.values());
+	}
+
+	@RequiredArgsConstructor
+	private static class Task
+	{
+		private final BooleanSupplier supplier;
+		private final TaskStats stats;
+		private final boolean backoff;
+		private int deferrals;
+		private int budgetDeferrals;
+		private int resumeCycle;
+	}
+
+	@Getter
+	@RequiredArgsConstructor
+	public static class TaskStats
+	{
+		private final String name;
+		private volatile long runs;
+		private volatile long deferrals;
+		private volatile long totalNanos;
+		private volatile long maxNanos;
+
+		// only called from the client thread
+		private void record(long nanos, boolean deferred)
+		{
+			runs++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+			if (deferred)
 			{
-				log.trace("Deferring task {}", r);
+				deferrals++;
 			}
 		}
 	}
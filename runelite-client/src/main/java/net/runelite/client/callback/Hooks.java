@@ -180,6 +180,12 @@ public class Hooks implements Callbacks
 		eventBus.post(event);
 	}
 
+	@Override
+	public boolean isSubscribed(Class<?> eventClass)
+	{
+		return eventBus.isSubscribed(eventClass);
+	}
+
 	@Override
 	public void postDeferred(Object event)
 	{
@@ -0,0 +1,145 @@
+package net.runelite.client.eventbus;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * The bounded queue of events for the asynchronous subscribers of one registered object. Events are handled in the
+ * order they were posted, one at a time, on a worker thread.
+ */
+@Slf4j
+class AsyncChannel
+{
+	private static final Marker DEDUPLICATE = MarkerFactory.getMarker("DEDUPLICATE");
+
+	private final String name;
+	private final int capacity;
+	private final Executor executor;
+	private final Dispatcher dispatcher;
+	private final Consumer<Throwable> exceptionHandler;
+
+	// guarded by this
+	private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+	private boolean scheduled;
+	private boolean closed;
+	private long dropped;
+
+	/**
+	 * @param dispatcher calls the subscriber of a queued event on the worker thread
+	 */
+	AsyncChannel(String name, int capacity, Executor executor, Dispatcher dispatcher, Consumer<Throwable> exceptionHandler)
+	{
+		this.name = name;
+		this.capacity = capacity;
+		this.executor = executor;
+		this.dispatcher = dispatcher;
+		this.exceptionHandler = exceptionHandler;
+	}
+
+	synchronized void offer(EventBus.Subscriber target, Object event, AsyncPolicy policy)
+	{
+		if (closed)
+		{
+			return;
+		}
+
+		if (policy == AsyncPolicy.COALESCE)
+		{
+			for (Pending pending : queue)
+			{
+				if (pending.target == target)
+				{
+					pending.event = event;
+					return;
+				}
+			}
+		}
+
+		if (queue.size() >= capacity)
+		{
+			if (++dropped % capacity == 1)
+			{
+				log.warn(DEDUPLICATE, "Event queue of {} is full, {} events dropped so far", name, dropped);
+			}
+
+			if (policy == AsyncPolicy.DROP_NEWEST)
+			{
+				return;
+			}
+
+			queue.poll();
+		}
+
+		queue.add(new Pending(target, event));
+		if (!scheduled)
+		{
+			scheduled = true;
+			executor.execute(this::drain);
+		}
+	}
+
+	private void drain()
+	{
+		while (true)
+		{
+			final Pending pending;
+			synchronized (this)
+			{
+				pending = queue.poll();
+				if (pending == null)
+				{
+					scheduled = false;
+					return;
+				}
+			}
+
+			try
+			{
+				dispatcher.dispatch(pending.target, pending.event);
+			}
+			catch (Throwable e)
+			{
+				exceptionHandler.accept(e);
+			}
+		}
+	}
+
+	/**
+	 * Discards the queued events of one subscriber, the event being handled finishes
+	 */
+	synchronized void discard(EventBus.Subscriber target)
+	{
+		queue.removeIf(pending -> pending.target == target);
+	}
+
+	/**
+	 * Discards the queued events, the event being handled finishes
+	 */
+	synchronized void close()
+	{
+		closed = true;
+		queue.clear();
+	}
+
+	@FunctionalInterface
+	interface Dispatcher
+	{
+		void dispatch(EventBus.Subscriber subscriber, Object event) throws Exception;
+	}
+
+	private static class Pending
+	{
+		private final EventBus.Subscriber target;
+		private Object event;
+
+		private Pending(EventBus.Subscriber target, Object event)
+		{
+			this.target = target;
+			this.event = event;
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package net.runelite.client.eventbus;
+
+/**
+ * What an asynchronous subscriber's queue does with a new event when it is full.
+ */
+public enum AsyncPolicy
+{
+	/**
+	 * Discard the new event
+	 */
+	DROP_NEWEST,
+	/**
+	 * Discard the oldest queued event to make room for the new one
+	 */
+	DROP_OLDEST,
+	/**
+	 * Replace the event still queued for the same subscriber method with the new one, so only the latest is
+	 * handled. Falls back to dropping the oldest event when the queue is full.
+	 */
+	COALESCE
+}
@@ -26,8 +26,6 @@
 package net.runelite.client.eventbus;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Iterables;
 import java.lang.invoke.CallSite;
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
@@ -35,14 +33,27 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.MenuEntryAdded;
+import net.runelite.api.events.ScriptCallbackEvent;
+import net.runelite.api.events.VarbitChanged;
 import net.runelite.client.util.ReflectUtil;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
@@ -53,6 +64,33 @@ import org.slf4j.MarkerFactory;
 public class EventBus
 {
 	private static final Marker DEDUPLICATE = MarkerFactory.getMarker("DEDUPLICATE");
+	private static final Subscriber[] EMPTY = new Subscriber[0];
+	private static final Comparator<Subscriber> ORDER = Comparator.comparingDouble(Subscriber::getPriority).reversed()
+		.thenComparing(s -> s.object.getClass().getName());
+	private static final int ASYNC_QUEUE_CAPACITY = 256;
+	// the client posts the same instance of these every time, refilled for each post
+	private static final Set<Class<?>> REUSED_EVENTS = Set.of(
+		AnimationChanged.class,
+		VarbitChanged.class,
+		MenuEntryAdded.class,
+		ScriptCallbackEvent.class);
+	private static final ExecutorService ASYNC_EXECUTOR = Executors.newCachedThreadPool(r ->
+	{
+		Thread thread = new Thread(r, "EventBus-async");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// generated lambda factories, shared by every instance of the subscriber's class. Stored on the class itself so
+	// they don't keep the classes of unloaded external plugins alive
+	private static final ClassValue<Map<Method, MethodHandle>> LAMBDA_FACTORIES = new ClassValue<>()
+	{
+		@Override
+		protected Map<Method, MethodHandle> computeValue(Class<?> type)
+		{
+			return new ConcurrentHashMap<>();
+		}
+	};
 
 	@Value
 	public static class Subscriber
@@ -76,10 +114,52 @@ public class EventBus
 		}
 	}
 
+	/**
+	 * A subscriber and the key it is registered under, an event class or a varbit id
+	 */
+	@Value
+	private static class Registration
+	{
+		private final Map<Object, Subscriber[]> registry;
+		private final Object key;
+		private final Subscriber subscriber;
+	}
+
+	/**
+	 * Queues the events of an asynchronous subscriber on the channel of its object
+	 */
+	private static class AsyncDelivery implements Consumer<Object>
+	{
+		private final AsyncChannel channel;
+		private final Subscriber target;
+		private final AsyncPolicy policy;
+
+		private AsyncDelivery(AsyncChannel channel, Subscriber target, AsyncPolicy policy)
+		{
+			this.channel = channel;
+			this.target = target;
+			this.policy = policy;
+		}
+
+		@Override
+		public void accept(Object event)
+		{
+			channel.offer(target, event, policy);
+		}
+	}
+
 	private final Consumer<Throwable> exceptionHandler;
 
-	@Nonnull
-	private ImmutableMultimap<Class<?>, Subscriber> subscribers = ImmutableMultimap.of();
+	// copy on write, registering or unregistering only replaces the arrays of the affected keys
+	private final Map<Object, Subscriber[]> subscribers = new ConcurrentHashMap<>();
+	private final Map<Object, Subscriber[]> varbitSubscribers = new ConcurrentHashMap<>();
+	// guarded by this
+	private final Map<Object, List<Registration>> registrations = new IdentityHashMap<>();
+	// guarded by this
+	private final Map<Object, AsyncChannel> asyncChannels = new IdentityHashMap<>();
+
+	@Nullable
+	private volatile EventBusProfiler profiler;
 
 	/**
 	 * Instantiates EventBus with default exception handler
@@ -98,10 +178,8 @@ public class EventBus
 	 */
 	public synchronized void register(@Nonnull final Object object)
 	{
-		final ImmutableMultimap.Builder<Class<?>, Subscriber> builder = ImmutableMultimap.builder();
-		builder.putAll(subscribers);
-		builder.orderValuesBy(Comparator.comparingDouble(Subscriber::getPriority).reversed()
-			.thenComparing(s -> s.object.getClass().getName()));
+		final List<Registration> added = new ArrayList<>();
+		AsyncChannel channel = asyncChannels.get(object);
 
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
@@ -122,6 +200,9 @@ public class EventBus
 
 				Preconditions.checkArgument(!parameterClazz.isPrimitive(), "@Subscribed method \"" + method + "\" cannot subscribe to primitives");
 				Preconditions.checkArgument((parameterClazz.getModifiers() & (Modifier.ABSTRACT | Modifier.INTERFACE)) == 0, "@Subscribed method \"" + method + "\" cannot subscribe to polymorphic classes");
+				Preconditions.checkArgument(sub.varbit() == -1 || parameterClazz == VarbitChanged.class, "@Subscribed method \"" + method + "\" must take VarbitChanged to subscribe to a varbit");
+				// the events posted to varbit subscribers are allocated for every post
+				Preconditions.checkArgument(!sub.async() || sub.varbit() != -1 || !isReused(parameterClazz), "@Subscribed method \"" + method + "\" cannot be async, the client reuses " + parameterClazz.getSimpleName());
 
 				for (Class<?> psc = parameterClazz.getSuperclass(); psc != null; psc = psc.getSuperclass())
 				{
@@ -136,18 +217,7 @@ public class EventBus
 
 				try
 				{
-					final MethodHandles.Lookup caller = ReflectUtil.privateLookupIn(clazz);
-					final MethodType subscription = MethodType.methodType(void.class, parameterClazz);
-					final MethodHandle target = caller.findVirtual(clazz, method.getName(), subscription);
-					final CallSite site = LambdaMetafactory.metafactory(
-						caller,
-						"accept",
-						MethodType.methodType(Consumer.class, clazz),
-						subscription.changeParameterType(0, Object.class),
-						target,
-						subscription);
-
-					final MethodHandle factory = site.getTarget();
+					final MethodHandle factory = LAMBDA_FACTORIES.get(clazz).computeIfAbsent(method, m -> lambdaFactory(m, parameterClazz));
 					lambda = (Consumer<Object>) factory.bindTo(object).invokeExact();
 				}
 				catch (Throwable e)
@@ -155,27 +225,80 @@ public class EventBus
 					log.warn("Unable to create lambda for method {}", method, e);
 				}
 
-				final Subscriber subscriber = new Subscriber(object, method, sub.priority(), lambda);
-				builder.put(parameterClazz, subscriber);
+				Subscriber subscriber = new Subscriber(object, method, sub.priority(), lambda);
+				if (sub.async())
+				{
+					if (channel == null)
+					{
+						channel = new AsyncChannel(object.getClass().getSimpleName(), ASYNC_QUEUE_CAPACITY, ASYNC_EXECUTOR, this::dispatch, exceptionHandler);
+					}
+
+					// the posting thread only queues the event, the worker calls the real subscriber
+					subscriber = new Subscriber(object, method, sub.priority(), new AsyncDelivery(channel, subscriber, sub.asyncPolicy()));
+				}
+
+				if (sub.varbit() != -1)
+				{
+					added.add(new Registration(varbitSubscribers, sub.varbit(), subscriber));
+					log.debug("Registering varbit {} - {}", sub.varbit(), subscriber);
+					continue;
+				}
+
+				added.add(new Registration(subscribers, parameterClazz, subscriber));
 				log.debug("Registering {} - {}", parameterClazz, subscriber);
 			}
 		}
 
-		subscribers = builder.build();
+		if (channel != null)
+		{
+			asyncChannels.put(object, channel);
+		}
+
+		for (Registration registration : added)
+		{
+			add(registration);
+		}
 	}
 
-	public synchronized <T> Subscriber register(Class<T> clazz, Consumer<T> subFn, float priority)
+	private static MethodHandle lambdaFactory(Method method, Class<?> parameterClazz)
 	{
-		final ImmutableMultimap.Builder<Class<?>, Subscriber> builder = ImmutableMultimap.builder();
-		builder.putAll(subscribers);
-		builder.orderValuesBy(Comparator.comparingDouble(Subscriber::getPriority).reversed()
-			.thenComparing(s -> s.object.getClass().getName()));
+		try
+		{
+			final Class<?> clazz = method.getDeclaringClass();
+			final MethodHandles.Lookup caller = ReflectUtil.privateLookupIn(clazz);
+			final MethodType subscription = MethodType.methodType(void.class, parameterClazz);
+			final MethodHandle target = caller.findVirtual(clazz, method.getName(), subscription);
+			final CallSite site = LambdaMetafactory.metafactory(
+				caller,
+				"accept",
+				MethodType.methodType(Consumer.class, clazz),
+				subscription.changeParameterType(0, Object.class),
+				target,
+				subscription);
 
-		Subscriber sub = new Subscriber(subFn, null, priority, (Consumer<Object>) subFn);
-		builder.put(clazz, sub);
+			return site.getTarget();
+		}
+		catch (Throwable e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
 
-		subscribers = builder.build();
+	public synchronized <T> Subscriber register(Class<T> clazz, Consumer<T> subFn, float priority)
+	{
+		Subscriber sub = new Subscriber(subFn, null, priority, (Consumer<Object>) subFn);
+		add(new Registration(subscribers, clazz, sub));
+		return sub;
+	}
 
+	/**
+	 * Registers a subscriber which only receives the events posted for the given varbit through
+	 * {@link #postVarbit(int, Object)}.
+	 */
+	public synchronized <T> Subscriber registerVarbit(int varbit, Consumer<T> subFn, float priority)
+	{
+		Subscriber sub = new Subscriber(subFn, null, priority, (Consumer<Object>) subFn);
+		add(new Registration(varbitSubscribers, varbit, sub));
 		return sub;
 	}
 
@@ -186,10 +309,22 @@ public class EventBus
 	 */
 	public synchronized void unregister(@Nonnull final Object object)
 	{
-		subscribers = ImmutableMultimap.copyOf(Iterables.filter(
-			subscribers.entries(),
-			e -> e.getValue().getObject() != object
-		));
+		final AsyncChannel channel = asyncChannels.remove(object);
+		if (channel != null)
+		{
+			channel.close();
+		}
+
+		final List<Registration> removed = registrations.remove(object);
+		if (removed == null)
+		{
+			return;
+		}
+
+		for (Registration registration : removed)
+		{
+			remove(registration);
+		}
 	}
 
 	public synchronized void unregister(Subscriber sub)
@@ -199,25 +334,191 @@ public class EventBus
 			return;
 		}
 
-		subscribers = ImmutableMultimap.copyOf(Iterables.filter(
-			subscribers.entries(),
-			e -> sub != e.getValue()
-		));
+		final List<Registration> registered = registrations.get(sub.getObject());
+		if (registered == null)
+		{
+			return;
+		}
+
+		registered.removeIf(registration ->
+		{
+			if (registration.getSubscriber() != sub)
+			{
+				return false;
+			}
+
+			remove(registration);
+			return true;
+		});
+
+		if (registered.isEmpty())
+		{
+			registrations.remove(sub.getObject());
+		}
+
+		if (sub.getLambda() instanceof AsyncDelivery)
+		{
+			final AsyncDelivery delivery = (AsyncDelivery) sub.getLambda();
+			if (registered.stream().anyMatch(registration -> registration.getSubscriber().getLambda() instanceof AsyncDelivery))
+			{
+				delivery.channel.discard(delivery.target);
+			}
+			else if (asyncChannels.remove(sub.getObject()) != null)
+			{
+				delivery.channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Inserts the subscriber into a copy of the array of its key, after the subscribers with the same order.
+	 */
+	private void add(Registration registration)
+	{
+		final Subscriber subscriber = registration.getSubscriber();
+		final Subscriber[] current = registration.getRegistry().getOrDefault(registration.getKey(), EMPTY);
+
+		int index = current.length;
+		while (index > 0 && ORDER.compare(current[index - 1], subscriber) > 0)
+		{
+			index--;
+		}
+
+		final Subscriber[] updated = new Subscriber[current.length + 1];
+		System.arraycopy(current, 0, updated, 0, index);
+		updated[index] = subscriber;
+		System.arraycopy(current, index, updated, index + 1, current.length - index);
+		registration.getRegistry().put(registration.getKey(), updated);
+
+		registrations.computeIfAbsent(subscriber.getObject(), k -> new ArrayList<>()).add(registration);
+	}
+
+	private void remove(Registration registration)
+	{
+		final EventBusProfiler profiler = this.profiler;
+		if (profiler != null)
+		{
+			profiler.remove(registration.getSubscriber());
+		}
+
+		final Map<Object, Subscriber[]> registry = registration.getRegistry();
+		final Subscriber[] current = registry.get(registration.getKey());
+		if (current == null)
+		{
+			return;
+		}
+
+		for (int i = 0; i < current.length; i++)
+		{
+			if (current[i] != registration.getSubscriber())
+			{
+				continue;
+			}
+
+			if (current.length == 1)
+			{
+				registry.remove(registration.getKey());
+				return;
+			}
+
+			final Subscriber[] updated = new Subscriber[current.length - 1];
+			System.arraycopy(current, 0, updated, 0, i);
+			System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+			registry.put(registration.getKey(), updated);
+			return;
+		}
 	}
 
 	/**
 	 * Posts provided event to all registered subscribers. Subscriber calls are invoked immediately,
-	 * ordered by priority then their declaring class' name.
+	 * ordered by priority then their declaring class' name. Asynchronous subscribers only have the event
+	 * queued, see {@link Subscribe#async()}.
 	 *
 	 * @param event event to post
 	 */
 	public void post(@Nonnull final Object event)
 	{
-		for (final Subscriber subscriber : subscribers.get(event.getClass()))
+		final Subscriber[] subscribers = this.subscribers.get(event.getClass());
+		if (subscribers == null)
+		{
+			return;
+		}
+
+		invoke(subscribers, event);
+	}
+
+	/**
+	 * @return true if the client posts the same instance of the event class every time, so the event must not be
+	 * kept or handed to another thread after the subscriber returns
+	 */
+	public static boolean isReused(@Nonnull final Class<?> eventClass)
+	{
+		return REUSED_EVENTS.contains(eventClass);
+	}
+
+	/**
+	 * @return true if anything subscribed to the event class
+	 */
+	public boolean isSubscribed(@Nonnull final Class<?> eventClass)
+	{
+		return subscribers.containsKey(eventClass);
+	}
+
+	/**
+	 * @return true if anything subscribed to the given varbit
+	 */
+	public boolean isVarbitSubscribed(int varbit)
+	{
+		return varbitSubscribers.containsKey(varbit);
+	}
+
+	/**
+	 * Posts provided event to the subscribers of the given varbit only.
+	 *
+	 * @param varbit the varbit which changed
+	 * @param event event to post
+	 */
+	public void postVarbit(int varbit, @Nonnull final Object event)
+	{
+		final Subscriber[] subscribers = varbitSubscribers.get(varbit);
+		if (subscribers == null)
+		{
+			return;
+		}
+
+		invoke(subscribers, event);
+	}
+
+	/**
+	 * Installs a profiler which times every subscriber call, or removes it when null.
+	 */
+	public void setProfiler(@Nullable EventBusProfiler profiler)
+	{
+		this.profiler = profiler;
+	}
+
+	@Nullable
+	public EventBusProfiler getProfiler()
+	{
+		return profiler;
+	}
+
+	private void invoke(Subscriber[] subscribers, Object event)
+	{
+		final EventBusProfiler profiler = this.profiler;
+		for (final Subscriber subscriber : subscribers)
 		{
 			try
 			{
-				subscriber.invoke(event);
+				// asynchronous subscribers are timed when the worker handles the event, not when it is queued
+				if (profiler == null || subscriber.getLambda() instanceof AsyncDelivery)
+				{
+					subscriber.invoke(event);
+				}
+				else
+				{
+					profiler.invoke(subscriber, event);
+				}
 			}
 			catch (Throwable e)
 			{
@@ -227,4 +528,20 @@ public class EventBus
 			}
 		}
 	}
+
+	/**
+	 * Calls an asynchronous subscriber on the worker thread, timed by the profiler if one is installed
+	 */
+	private void dispatch(Subscriber subscriber, Object event) throws Exception
+	{
+		final EventBusProfiler profiler = this.profiler;
+		if (profiler == null)
+		{
+			subscriber.invoke(event);
+		}
+		else
+		{
+			profiler.invoke(subscriber, event);
+		}
+	}
 }
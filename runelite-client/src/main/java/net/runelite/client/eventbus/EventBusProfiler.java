@@ -0,0 +1,178 @@
+package net.runelite.client.eventbus;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the call count and latency of every (event class, subscriber) pair and flags the calls which take longer
+ * than the budget of their event. Installed with {@link EventBus#setProfiler(EventBusProfiler)}, the event bus
+ * doesn't time anything while no profiler is installed.
+ */
+@Slf4j
+public class EventBusProfiler
+{
+	/**
+	 * Latency histogram buckets, bucket n holds the calls which took less than 2^n microseconds.
+	 * The last bucket holds everything slower.
+	 */
+	public static final int BUCKETS = 21;
+
+	private static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final Map<EventBus.Subscriber, HandlerStats> stats = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Long> budgets = new ConcurrentHashMap<>();
+
+	/**
+	 * Sets how long a subscriber may take to handle the event class before its call is flagged as slow.
+	 */
+	public void setBudget(Class<?> eventClass, long time, TimeUnit unit)
+	{
+		budgets.put(eventClass, unit.toNanos(time));
+	}
+
+	public Collection<HandlerStats> getStats()
+	{
+		return Collections.unmodifiableCollection(stats.values());
+	}
+
+	public void reset()
+	{
+		stats.clear();
+	}
+
+	/**
+	 * Drops the stats of an unregistered subscriber, which would otherwise keep its object alive.
+	 */
+	void remove(EventBus.Subscriber subscriber)
+	{
+		stats.remove(subscriber);
+	}
+
+	void invoke(EventBus.Subscriber subscriber, Object event) throws Exception
+	{
+		SubscriberEvent jfrEvent = new SubscriberEvent();
+		jfrEvent.begin();
+		long start = System.nanoTime();
+		try
+		{
+			subscriber.invoke(event);
+		}
+		finally
+		{
+			long nanos = System.nanoTime() - start;
+			jfrEvent.end();
+			if (jfrEvent.shouldCommit())
+			{
+				jfrEvent.event = event.getClass().getName();
+				jfrEvent.subscriber = name(subscriber);
+				jfrEvent.commit();
+			}
+
+			record(subscriber, event.getClass(), nanos);
+		}
+	}
+
+	private void record(EventBus.Subscriber subscriber, Class<?> eventClass, long nanos)
+	{
+		HandlerStats handler = stats.computeIfAbsent(subscriber, s -> new HandlerStats(eventClass.getSimpleName(), name(s)));
+		handler.record(nanos);
+
+		if (nanos > budgets.getOrDefault(eventClass, DEFAULT_BUDGET_NANOS))
+		{
+			handler.slowCalls.incrementAndGet();
+			log.debug("{} took {}us to handle {}", handler.subscriber, TimeUnit.NANOSECONDS.toMicros(nanos), handler.event);
+		}
+	}
+
+	private static String name(EventBus.Subscriber subscriber)
+	{
+		if (subscriber.getMethod() == null)
+		{
+			return subscriber.getObject().getClass().getName();
+		}
+
+		return subscriber.getMethod().getDeclaringClass().getSimpleName() + "." + subscriber.getMethod().getName();
+	}
+
+	public static class HandlerStats
+	{
+		@Getter
+		private final String event;
+		@Getter
+		private final String subscriber;
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLong slowCalls = new AtomicLong();
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		HandlerStats(String event, String subscriber)
+		{
+			this.event = event;
+			this.subscriber = subscriber;
+		}
+
+		private void record(long nanos)
+		{
+			calls.incrementAndGet();
+			totalNanos.addAndGet(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+
+			long micros = nanos / 1000;
+			int bucket = micros == 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+			histogram.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+		}
+
+		public long getCalls()
+		{
+			return calls.get();
+		}
+
+		public long getMaxNanos()
+		{
+			return maxNanos.get();
+		}
+
+		public long getSlowCalls()
+		{
+			return slowCalls.get();
+		}
+
+		public long getAverageNanos()
+		{
+			long calls = this.calls.get();
+			return calls == 0 ? 0 : totalNanos.get() / calls;
+		}
+
+		public long getBucket(int bucket)
+		{
+			return histogram.get(bucket);
+		}
+
+		/**
+		 * @return the upper bound in nanoseconds of the histogram bucket holding the given percentile of the calls
+		 */
+		public long getPercentileNanos(double percentile)
+		{
+			long target = (long) Math.ceil(calls.get() * percentile);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++)
+			{
+				seen += histogram.get(i);
+				if (seen >= target)
+				{
+					return (1L << i) * 1000;
+				}
+			}
+
+			return maxNanos.get();
+		}
+	}
+}
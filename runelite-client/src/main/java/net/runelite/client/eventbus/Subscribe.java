@@ -43,4 +43,30 @@ public @interface Subscribe
 	 * @return
 	 */
 	float priority() default 0;
+
+	/**
+	 * Varbit to subscribe to. Subscribers with a varbit only receive the {@code VarbitChanged} events of that
+	 * varbit, and only when its value actually changed. The method must take a {@code VarbitChanged}, whose values
+	 * are those of the varbit rather than of its varp.
+	 * @return
+	 */
+	int varbit() default -1;
+
+	/**
+	 * Handle the event on a worker thread instead of the thread which posted it, for subscribers doing disk, network
+	 * or other slow work which doesn't need the game state. The events of each registered object are queued in a
+	 * bounded queue and handled in order, one at a time.
+	 * <p>
+	 * Registration fails for events the client reuses between posts, such as {@code AnimationChanged},
+	 * {@code VarbitChanged}, {@code MenuEntryAdded} and {@code ScriptCallbackEvent}, except for {@link #varbit()}
+	 * subscribers, which get a new event for every change.
+	 * @return
+	 */
+	boolean async() default false;
+
+	/**
+	 * What to do with new events when the queue of an asynchronous subscriber is full.
+	 * @return
+	 */
+	AsyncPolicy asyncPolicy() default AsyncPolicy.DROP_OLDEST;
 }
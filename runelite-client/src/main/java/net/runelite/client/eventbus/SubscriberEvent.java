@@ -0,0 +1,27 @@
+package net.runelite.client.eventbus;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event recorded around a subscriber call while the {@link EventBusProfiler} is enabled. Only calls longer than
+ * the threshold are recorded, which can be changed in the recording settings.
+ */
+@Name("net.runelite.SubscriberCall")
+@Label("Event Subscriber Call")
+@Category({"RuneLite", "Event Bus"})
+@Description("A call into an event subscriber")
+@Threshold("1 ms")
+@StackTrace(false)
+class SubscriberEvent extends jdk.jfr.Event
+{
+	@Label("Event")
+	String event;
+
+	@Label("Subscriber")
+	String subscriber;
+}
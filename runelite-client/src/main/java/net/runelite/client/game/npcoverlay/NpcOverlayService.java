@@ -80,17 +80,7 @@ public class NpcOverlayService
 	)
 	private void onNpcSpawned(NpcSpawned npcSpawned)
 	{
-		final NPC npc = npcSpawned.getNpc();
-
-		for (Function<NPC, HighlightedNpc> f : highlightFunctions)
-		{
-			HighlightedNpc highlightedNpc = f.apply(npc);
-			if (highlightedNpc != null)
-			{
-				highlightedNpcs.put(npc, highlightedNpc);
-				return;
-			}
-		}
+		highlight(npcSpawned.getNpc());
 	}
 
 	@Subscribe(
@@ -110,16 +100,7 @@ public class NpcOverlayService
 		final NPC npc = event.getNpc();
 
 		highlightedNpcs.remove(npc);
-
-		for (Function<NPC, HighlightedNpc> f : highlightFunctions)
-		{
-			HighlightedNpc highlightedNpc = f.apply(npc);
-			if (highlightedNpc != null)
-			{
-				highlightedNpcs.put(npc, highlightedNpc);
-				return;
-			}
-		}
+		highlight(npc);
 	}
 
 	public void rebuild()
@@ -127,21 +108,21 @@ public class NpcOverlayService
 		clientThread.invoke(() ->
 		{
 			highlightedNpcs.clear();
+			client.forEachNpc(this::highlight);
+		});
+	}
 
-			outer:
-			for (NPC npc : client.getNpcs())
+	private void highlight(NPC npc)
+	{
+		for (Function<NPC, HighlightedNpc> f : highlightFunctions)
+		{
+			HighlightedNpc highlightedNpc = f.apply(npc);
+			if (highlightedNpc != null)
 			{
-				for (Function<NPC, HighlightedNpc> f : highlightFunctions)
-				{
-					HighlightedNpc highlightedNpc = f.apply(npc);
-					if (highlightedNpc != null)
-					{
-						highlightedNpcs.put(npc, highlightedNpc);
-						continue outer;
-					}
-				}
+				highlightedNpcs.put(npc, highlightedNpc);
+				return;
 			}
-		});
+		}
 	}
 
 	public void registerHighlighter(Function<NPC, HighlightedNpc> p)
@@ -34,7 +34,6 @@ import java.awt.Polygon;
 import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.geom.Rectangle2D;
-import java.util.List;
 import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -46,7 +45,6 @@ import net.runelite.api.DynamicObject;
 import net.runelite.api.GameObject;
 import net.runelite.api.GraphicsObject;
 import net.runelite.api.ItemLayer;
-import net.runelite.api.NPC;
 import net.runelite.api.NPCComposition;
 import net.runelite.api.Node;
 import net.runelite.api.Perspective;
@@ -182,17 +180,16 @@ class DevToolsOverlay extends Overlay
 
 	private void renderPlayers(Graphics2D graphics)
 	{
-		List<Player> players = client.getPlayers();
 		Player local = client.getLocalPlayer();
 
-		for (Player p : players)
+		client.forEachPlayer(p ->
 		{
 			if (p != local)
 			{
 				String text = p.getName() + " (A: " + p.getAnimation() + ") (P: " + p.getPoseAnimation() + ") (G: " + p.getGraphic() + ")";
 				OverlayUtil.renderActorOverlay(graphics, p, text, BLUE);
 			}
-		}
+		});
 
 		String text = local.getName() + " (A: " + local.getAnimation() + ") (P: " + local.getPoseAnimation() + ") (G: " + local.getGraphic() + ")";
 		OverlayUtil.renderActorOverlay(graphics, local, text, CYAN);
@@ -200,8 +197,7 @@ class DevToolsOverlay extends Overlay
 
 	private void renderNpcs(Graphics2D graphics)
 	{
-		List<NPC> npcs = client.getNpcs();
-		for (NPC npc : npcs)
+		client.forEachNpc(npc ->
 		{
 			NPCComposition composition = npc.getComposition();
 			Color color = composition.getCombatLevel() > 1 ? YELLOW : ORANGE;
@@ -221,7 +217,7 @@ class DevToolsOverlay extends Overlay
 			String text = composition.getName() + " (ID:" + composition.getId() + ")" +
 				" (A: " + npc.getAnimation() + ") (P: " + npc.getPoseAnimation() + ") (G: " + npc.getGraphic() + ")";
 			OverlayUtil.renderActorOverlay(graphics, npc, text, color);
-		}
+		});
 	}
 
 	private void renderTileObjects(Graphics2D graphics)
@@ -0,0 +1,137 @@
+package net.runelite.client.plugins.devtools;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.swing.JButton;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.EventBusProfiler;
+import net.runelite.client.eventbus.EventBusProfiler.HandlerStats;
+
+/**
+ * Shows how long every event subscriber takes, slowest first. The event bus is only profiled while this is open.
+ */
+@Singleton
+class EventBusInspector extends DevToolsFrame
+{
+	private static final int REFRESH_INTERVAL = 1000;
+
+	private final EventBus eventBus;
+	private final EventBusProfiler profiler = new EventBusProfiler();
+	private final StatsTableModel model = new StatsTableModel();
+	private final Timer refreshTimer = new Timer(REFRESH_INTERVAL, e -> model.refresh());
+
+	@Inject
+	EventBusInspector(EventBus eventBus)
+	{
+		this.eventBus = eventBus;
+
+		setTitle("OpenOSRS Event Bus Inspector");
+		setLayout(new BorderLayout());
+
+		final JTable table = new JTable(model);
+		table.setAutoCreateRowSorter(true);
+		final JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setPreferredSize(new Dimension(800, 400));
+		add(scrollPane, BorderLayout.CENTER);
+
+		final JButton resetBtn = new JButton("Reset");
+		resetBtn.setFocusable(false);
+		resetBtn.addActionListener(e ->
+		{
+			profiler.reset();
+			model.refresh();
+		});
+		add(resetBtn, BorderLayout.SOUTH);
+
+		pack();
+	}
+
+	@Override
+	public void open()
+	{
+		eventBus.setProfiler(profiler);
+		refreshTimer.start();
+		super.open();
+	}
+
+	@Override
+	public void close()
+	{
+		refreshTimer.stop();
+		eventBus.setProfiler(null);
+		// the stats hold the subscribers, which may be unregistered while nothing is profiled
+		profiler.reset();
+		model.refresh();
+		super.close();
+	}
+
+	private class StatsTableModel extends AbstractTableModel
+	{
+		private final String[] columns = {"Event", "Subscriber", "Calls", "Avg (us)", "p99 (us)", "Max (us)", "Slow"};
+		private List<HandlerStats> rows = new ArrayList<>();
+
+		void refresh()
+		{
+			List<HandlerStats> rows = new ArrayList<>(profiler.getStats());
+			rows.sort(Comparator.comparingLong(HandlerStats::getMaxNanos).reversed());
+			this.rows = rows;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return rows.size();
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return columns.length;
+		}
+
+		@Override
+		public String getColumnName(int column)
+		{
+			return columns[column];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column)
+		{
+			return column < 2 ? String.class : Long.class;
+		}
+
+		@Override
+		public Object getValueAt(int row, int column)
+		{
+			HandlerStats stats = rows.get(row);
+			switch (column)
+			{
+				case 0:
+					return stats.getEvent();
+				case 1:
+					return stats.getSubscriber();
+				case 2:
+					return stats.getCalls();
+				case 3:
+					return stats.getAverageNanos() / 1000;
+				case 4:
+					return stats.getPercentileNanos(0.99) / 1000;
+				case 5:
+					return stats.getMaxNanos() / 1000;
+				default:
+					return stats.getSlowCalls();
+			}
+		}
+	}
+}
@@ -5,6 +5,8 @@ import net.runelite.api.GameState;
 import net.runelite.api.InventoryID;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.VarbitChanged;
 import net.runelite.api.events.WidgetLoaded;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.config.Config;
@@ -12,7 +14,7 @@ import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.unethicalite.regions.RegionHandler;
-import net.unethicalite.api.movement.pathfinder.TransportLoader;
+import net.unethicalite.api.movement.pathfinder.TransportIndex;
 import net.unethicalite.api.plugins.SettingsPlugin;
 import net.unethicalite.client.config.UnethicaliteConfig;
 
@@ -94,7 +96,7 @@ public class UnethicalitePlugin extends SettingsPlugin
 	{
 		if (REFRESH_WIDGET_IDS.contains(event.getGroupId()))
 		{
-			TransportLoader.refreshStaticTransports();
+			TransportIndex.invalidate();
 		}
 	}
 
@@ -104,12 +106,12 @@ public class UnethicalitePlugin extends SettingsPlugin
 		if (event.getContainerId() == InventoryID.INVENTORY.getId())
 		{
 			INVENTORY_LOADED = true;
-			TransportLoader.refreshStaticTransports();
+			TransportIndex.invalidate();
 		}
 		if (event.getContainerId() == InventoryID.EQUIPMENT.getId())
 		{
 			EQUIPMENT_LOADED = true;
-			TransportLoader.refreshStaticTransports();
+			TransportIndex.invalidate();
 		}
 	}
 
@@ -121,9 +123,22 @@ public class UnethicalitePlugin extends SettingsPlugin
 			log.info("Resetting pathfinder loaded state");
 			EQUIPMENT_LOADED = false;
 			INVENTORY_LOADED = false;
+			TransportIndex.invalidate();
 		}
 	}
 
+	@Subscribe
+	public void onVarbitChanged(VarbitChanged event)
+	{
+		TransportIndex.onVarpChanged(event.getIndex());
+	}
+
+	@Subscribe
+	public void onStatChanged(StatChanged event)
+	{
+		TransportIndex.onStatChanged(event);
+	}
+
 	public static boolean isPathfinderReady()
 	{
 		return INVENTORY_LOADED && EQUIPMENT_LOADED;
@@ -60,6 +60,12 @@ public class DeferredEventBus extends EventBus
 		pendingEvents.add(object);
 	}
 
+	@Override
+	public boolean isSubscribed(Class<?> eventClass)
+	{
+		return eventBus.isSubscribed(eventClass);
+	}
+
 	public void replay()
 	{
 		int size = pendingEvents.size();
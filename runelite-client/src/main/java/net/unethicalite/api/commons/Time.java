@@ -1,18 +1,28 @@
 package net.unethicalite.api.commons;
 
+import net.runelite.api.events.GameTick;
 import net.unethicalite.api.game.Game;
 import net.runelite.api.GameState;
+import net.runelite.client.eventbus.EventBus;
 import net.unethicalite.client.Static;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class Time
 {
 	private static final Logger logger = LoggerFactory.getLogger(Time.class);
 	private static final int DEFAULT_POLLING_RATE = 10;
+	// gives up on waiting for ticks which don't come, e.g. after a disconnect
+	private static final int TICK_TIMEOUT = 5000;
 
 	public static boolean sleep(long ms)
 	{
@@ -83,25 +93,14 @@ public class Time
 			return false;
 		}
 
-		for (int i = 0; i < ticks; i++)
+		if (ticks <= 0)
 		{
-			long start = Static.getClient().getTickCount();
-
-			while (Static.getClient().getTickCount() == start)
-			{
-				try
-				{
-					Thread.sleep(DEFAULT_POLLING_RATE);
-				}
-				catch (InterruptedException e)
-				{
-					logger.debug("Sleep interrupted");
-					return false;
-				}
-			}
+			return true;
 		}
 
-		return true;
+		// only evaluated on the client thread
+		int[] remaining = {ticks};
+		return await(GameTick.class, tick -> --remaining[0] <= 0, ticks * TICK_TIMEOUT) != null;
 	}
 
 	public static boolean sleepTick()
@@ -138,6 +137,89 @@ public class Time
 		return false;
 	}
 
+	/**
+	 * Waits until the condition holds, checking it on the client thread after every game tick instead of polling it.
+	 * Meant for conditions which only change on a game tick, such as positions, animations and varbits.
+	 */
+	public static boolean awaitTick(BooleanSupplier condition, int timeOut)
+	{
+		if (Static.getClient().isClientThread())
+		{
+			logger.debug("Tried to sleep on client thread!");
+			return false;
+		}
+
+		return condition.getAsBoolean() || await(GameTick.class, tick -> condition.getAsBoolean(), timeOut) != null;
+	}
+
+	/**
+	 * Waits for an event of the given type which matches the predicate, the predicate is tested on the client thread.
+	 *
+	 * @return the event, or null if none was posted before the timeout
+	 * @throws IllegalArgumentException if the client reuses the instances of the event class, such as
+	 * {@code AnimationChanged} and {@code VarbitChanged}, use {@link #awaitEvent(Class, Predicate, Function, int)}
+	 */
+	public static <T> T awaitEvent(Class<T> event, Predicate<? super T> predicate, int timeOut)
+	{
+		if (EventBus.isReused(event))
+		{
+			throw new IllegalArgumentException(event.getSimpleName() + " is reused by the client, map it to the values you need");
+		}
+
+		return awaitEvent(event, predicate, Function.identity(), timeOut);
+	}
+
+	/**
+	 * Waits for an event of the given type which matches the predicate. The predicate and the mapper run on the client
+	 * thread, so the mapper can copy what the caller needs out of events the client reuses.
+	 *
+	 * @return the mapped event, or null if none was posted before the timeout
+	 */
+	public static <T, R> R awaitEvent(Class<T> event, Predicate<? super T> predicate, Function<? super T, ? extends R> mapper,
+		int timeOut)
+	{
+		if (Static.getClient().isClientThread())
+		{
+			logger.debug("Tried to sleep on client thread!");
+			return null;
+		}
+
+		return await(event, predicate, mapper, timeOut);
+	}
+
+	private static <T> T await(Class<T> event, Predicate<? super T> predicate, int timeOut)
+	{
+		return await(event, predicate, Function.identity(), timeOut);
+	}
+
+	private static <T, R> R await(Class<T> event, Predicate<? super T> predicate, Function<? super T, ? extends R> mapper,
+		int timeOut)
+	{
+		CompletableFuture<R> future = Static.getWaitManager().await(event, predicate, mapper);
+		try
+		{
+			return future.get(timeOut, TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e)
+		{
+			return null;
+		}
+		catch (ExecutionException e)
+		{
+			logger.debug("Wait condition failed", e.getCause());
+			return null;
+		}
+		catch (InterruptedException e)
+		{
+			logger.debug("Sleep interrupted");
+			return null;
+		}
+		finally
+		{
+			future.cancel(false);
+		}
+	}
+
 	public static String format(Duration duration)
 	{
 		long secs = Math.abs(duration.getSeconds());
@@ -10,7 +10,6 @@ import net.unethicalite.client.Static;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -30,9 +29,43 @@ public abstract class Entities<T extends SceneEntity>
 
 	protected T nearest(WorldPoint to, Predicate<? super T> filter)
 	{
-		return all(x -> x.getId() != -1 && filter.test(x)).stream()
-				.min(Comparator.comparingDouble(t -> t.getWorldLocation().distanceToHypotenuse(to)))
-				.orElse(null);
+		return nearest(to, all(x -> x.getId() != -1 && filter.test(x)));
+	}
+
+	/**
+	 * @return the first of the candidates with the shortest straight-line distance, compared by squared distance.
+	 * Query results rank by tile distance instead, see {@link net.unethicalite.api.query.results.SceneEntityQueryResults}
+	 */
+	protected static <E extends SceneEntity> E nearest(WorldPoint to, List<E> candidates)
+	{
+		E nearest = null;
+		long nearestDistance = Long.MAX_VALUE;
+		for (E candidate : candidates)
+		{
+			long distance = squaredDistance(to, candidate.getWorldLocation());
+			if (nearest == null || distance < nearestDistance)
+			{
+				nearest = candidate;
+				nearestDistance = distance;
+			}
+		}
+
+		return nearest;
+	}
+
+	/**
+	 * @return the squared straight-line distance, or {@link Long#MAX_VALUE} if the points are on different planes
+	 */
+	protected static long squaredDistance(WorldPoint a, WorldPoint b)
+	{
+		if (a.getPlane() != b.getPlane())
+		{
+			return Long.MAX_VALUE;
+		}
+
+		long dx = a.getX() - b.getX();
+		long dy = a.getY() - b.getY();
+		return dx * dx + dy * dy;
 	}
 
 	protected T nearest(WorldPoint to, String... names)
@@ -2,11 +2,13 @@ package net.unethicalite.api.entities;
 
 import net.unethicalite.api.query.entities.NPCQuery;
 import net.unethicalite.client.Static;
+import net.runelite.api.Client;
 import net.runelite.api.NPC;
 import net.runelite.api.coords.WorldPoint;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -22,13 +24,23 @@ public class NPCs extends Entities<NPC>
 	protected List<NPC> all(Predicate<? super NPC> filter)
 	{
 		List<NPC> out = new ArrayList<>();
-		List<NPC> npcs = Static.getClient().getNpcs();
-		for (NPC npc : npcs)
+		Consumer<NPC> collector = npc ->
 		{
-			if (filter.test(npc))
+			if (npc != null && filter.test(npc))
 			{
 				out.add(npc);
 			}
+		};
+
+		// the index arrays are only stable on the client thread, other threads filter a copy
+		Client client = Static.getClient();
+		if (client.isClientThread())
+		{
+			client.forEachNpc(collector);
+		}
+		else
+		{
+			client.getNpcs().forEach(collector);
 		}
 
 		return out;
@@ -2,13 +2,15 @@ package net.unethicalite.api.entities;
 
 import net.unethicalite.api.query.entities.PlayerQuery;
 import net.unethicalite.client.Static;
+import net.runelite.api.Client;
 import net.runelite.api.Player;
 import net.runelite.api.coords.WorldPoint;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 public class Players extends Entities<Player>
 {
@@ -21,10 +23,27 @@ public class Players extends Entities<Player>
 	@Override
 	protected List<Player> all(Predicate<? super Player> filter)
 	{
-		return Static.getClient().getPlayers()
-				.stream()
-				.filter(filter)
-				.collect(Collectors.toList());
+		List<Player> out = new ArrayList<>();
+		Consumer<Player> collector = player ->
+		{
+			if (player != null && filter.test(player))
+			{
+				out.add(player);
+			}
+		};
+
+		// the index arrays are only stable on the client thread, other threads filter a copy
+		Client client = Static.getClient();
+		if (client.isClientThread())
+		{
+			client.forEachPlayer(collector);
+		}
+		else
+		{
+			client.getPlayers().forEach(collector);
+		}
+
+		return out;
 	}
 
 	public static PlayerQuery query()
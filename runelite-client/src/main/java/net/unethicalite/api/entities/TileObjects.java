@@ -2,6 +2,7 @@ package net.unethicalite.api.entities;
 
 import net.unethicalite.api.query.entities.TileObjectQuery;
 import net.unethicalite.api.scene.Tiles;
+import net.runelite.api.Constants;
 import net.runelite.api.DecorativeObject;
 import net.runelite.api.GameObject;
 import net.runelite.api.GroundObject;
@@ -29,7 +30,7 @@ public class TileObjects extends TileEntities<TileObject>
 
 	public static TileObjectQuery query()
 	{
-		return query(TileObjects::getAll);
+		return new TileObjectQuery(TileObjects::getAll, TileObjects::getAll);
 	}
 
 	public static TileObjectQuery query(Supplier<List<TileObject>> supplier)
@@ -335,17 +336,35 @@ public class TileObjects extends TileEntities<TileObject>
 	@Override
 	protected List<TileObject> all(Predicate<? super TileObject> filter)
 	{
-		List<TileObject> out = new ArrayList<>();
-		for (Tile tile : Tiles.getAll())
-		{
-			out.addAll(getTileObjects(tile));
-		}
-
-		return out.stream()
+		return Static.getTileObjectManager().getAll(Static.getClient().getPlane()).stream()
 				.filter(filter)
 				.collect(Collectors.toList());
 	}
 
+	@Override
+	protected List<TileObject> all(int... ids)
+	{
+		return Static.getTileObjectManager().getByIds(Static.getClient().getPlane(), ids);
+	}
+
+	@Override
+	protected List<TileObject> all(String... names)
+	{
+		return Static.getTileObjectManager().getByNames(Static.getClient().getPlane(), names);
+	}
+
+	@Override
+	protected TileObject nearest(WorldPoint to, int... ids)
+	{
+		return nearest(to, all(ids));
+	}
+
+	@Override
+	protected TileObject nearest(WorldPoint to, String... names)
+	{
+		return nearest(to, all(names));
+	}
+
 	@Override
 	protected List<TileObject> at(Tile tile, Predicate<? super TileObject> pred)
 	{
@@ -353,4 +372,28 @@ public class TileObjects extends TileEntities<TileObject>
 				.filter(pred)
 				.collect(Collectors.toList());
 	}
+
+	@Override
+	protected List<TileObject> surrounding(int worldX, int worldY, int plane, int radius, Predicate<? super TileObject> filter)
+	{
+		// scene coordinates are accepted as well, like Tiles.getAt
+		int sceneX = worldX < Constants.SCENE_SIZE ? worldX : worldX - Static.getClient().getBaseX();
+		int sceneY = worldY < Constants.SCENE_SIZE ? worldY : worldY - Static.getClient().getBaseY();
+		return within(plane, sceneX - radius, sceneY - radius, sceneX + radius, sceneY + radius, filter);
+	}
+
+	@Override
+	protected List<TileObject> in(WorldArea area, Predicate<? super TileObject> filter)
+	{
+		int sceneX = area.getX() - Static.getClient().getBaseX();
+		int sceneY = area.getY() - Static.getClient().getBaseY();
+		return within(area.getPlane(), sceneX, sceneY, sceneX + area.getWidth() - 1, sceneY + area.getHeight() - 1, filter);
+	}
+
+	private static List<TileObject> within(int plane, int minX, int minY, int maxX, int maxY, Predicate<? super TileObject> filter)
+	{
+		return Static.getTileObjectManager().getWithin(plane, minX, minY, maxX, maxY).stream()
+				.filter(filter)
+				.collect(Collectors.toList());
+	}
 }
@@ -3,17 +3,27 @@ package net.unethicalite.api.game;
 import net.unethicalite.client.Static;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 public class GameThread
 {
 	private static final long TIMEOUT = 1000;
 
+	private static final AtomicInteger PENDING = new AtomicInteger();
+	private static final AtomicLong INVOKES = new AtomicLong();
+	private static final AtomicLong TOTAL_WAIT_NANOS = new AtomicLong();
+	private static final AtomicLong MAX_WAIT_NANOS = new AtomicLong();
+
 	public static void invoke(Runnable runnable)
 	{
 		if (Static.getClient().isClientThread())
@@ -40,17 +50,121 @@ public class GameThread
 			}
 		}
 
+		CompletableFuture<T> future = invokeAsync(callable);
 		try
 		{
-			FutureTask<T> futureTask = new FutureTask<>(callable);
-			Static.getClientThread().invokeLater(futureTask);
-			return futureTask.get(TIMEOUT, TimeUnit.MILLISECONDS);
+			return future.get(TIMEOUT, TimeUnit.MILLISECONDS);
 		}
 		catch (ExecutionException | InterruptedException | TimeoutException e)
 		{
+			// the queued task skips the callable once the future is done, so it doesn't run for a caller that left
+			future.cancel(false);
 			e.printStackTrace();
 			throw new RuntimeException("Client thread invoke timed out after " + TIMEOUT + " ms");
 		}
 	}
-}
 
+	/**
+	 * Runs the callable on the client thread without blocking the caller. The callable runs immediately if this is
+	 * called from the client thread.
+	 */
+	public static <T> CompletableFuture<T> invokeAsync(Callable<T> callable)
+	{
+		return submit(callable);
+	}
+
+	/**
+	 * Runs the callables in order as a single client thread task, so reading several values costs one trip to the
+	 * client thread instead of one per value. The future fails with the first exception thrown by a callable.
+	 */
+	public static <T> CompletableFuture<List<T>> batch(List<? extends Callable<? extends T>> callables)
+	{
+		return submit(() ->
+		{
+			List<T> results = new ArrayList<>(callables.size());
+			for (Callable<? extends T> callable : callables)
+			{
+				results.add(callable.call());
+			}
+
+			return results;
+		});
+	}
+
+	@SafeVarargs
+	public static <T> CompletableFuture<List<T>> batch(Callable<? extends T>... callables)
+	{
+		return batch(Arrays.asList(callables));
+	}
+
+	/**
+	 * @return the amount of tasks submitted through this class which are waiting for the client thread
+	 */
+	public static int getPending()
+	{
+		return PENDING.get();
+	}
+
+	/**
+	 * @return the amount of tasks which ran on the client thread after being queued
+	 */
+	public static long getInvokes()
+	{
+		return INVOKES.get();
+	}
+
+	/**
+	 * @return the average time a task waited in the client thread queue
+	 */
+	public static long getAverageWaitNanos()
+	{
+		long invokes = INVOKES.get();
+		return invokes == 0 ? 0 : TOTAL_WAIT_NANOS.get() / invokes;
+	}
+
+	public static long getMaxWaitNanos()
+	{
+		return MAX_WAIT_NANOS.get();
+	}
+
+	private static <T> CompletableFuture<T> submit(Callable<T> task)
+	{
+		CompletableFuture<T> future = new CompletableFuture<>();
+		if (Static.getClient().isClientThread())
+		{
+			complete(future, task);
+			return future;
+		}
+
+		long queued = System.nanoTime();
+		PENDING.incrementAndGet();
+		Static.getClientThread().invokeLater(() ->
+		{
+			long wait = System.nanoTime() - queued;
+			PENDING.decrementAndGet();
+			INVOKES.incrementAndGet();
+			TOTAL_WAIT_NANOS.addAndGet(wait);
+			MAX_WAIT_NANOS.accumulateAndGet(wait, Math::max);
+
+			// the caller may have timed out and given up on the result
+			if (!future.isDone())
+			{
+				complete(future, task);
+			}
+		});
+
+		return future;
+	}
+
+	private static <T> void complete(CompletableFuture<T> future, Callable<T> task)
+	{
+		try
+		{
+			future.complete(task.call());
+		}
+		catch (Throwable e)
+		{
+			future.completeExceptionally(e);
+		}
+	}
+}
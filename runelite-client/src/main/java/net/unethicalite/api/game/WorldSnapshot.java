@@ -0,0 +1,95 @@
+package net.unethicalite.api.game;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Value;
+import net.runelite.api.Item;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.Skill;
+import net.runelite.api.TileItem;
+import net.runelite.api.TileObject;
+import net.runelite.api.coords.WorldPoint;
+import net.unethicalite.client.Static;
+import net.unethicalite.client.managers.DefinitionManager;
+
+import java.util.List;
+
+/**
+ * The state of the world as it was at the start of a game tick, built on the client thread and shared by
+ * script threads, which can read it without hopping to the client thread.
+ * <p>
+ * The lists and values are fixed for the tick. The entities in the lists are the client's own objects,
+ * so their getters still read live state.
+ */
+@Value
+@Builder
+public class WorldSnapshot
+{
+	int tick;
+	int plane;
+	int baseX;
+	int baseY;
+	Player localPlayer;
+	WorldPoint localPosition;
+	List<NPC> npcs;
+	List<Player> players;
+	List<TileItem> tileItems;
+	List<TileObject> tileObjects;
+	List<Item> inventory;
+	List<Item> equipment;
+	@Getter(AccessLevel.NONE)
+	int[] varps;
+	@Getter(AccessLevel.NONE)
+	int[] varbits;
+	@Getter(AccessLevel.NONE)
+	int[] realLevels;
+	@Getter(AccessLevel.NONE)
+	int[] boostedLevels;
+	@Getter(AccessLevel.NONE)
+	int[] experience;
+
+	/**
+	 * @return the snapshot of the last game tick, or null if none was taken since logging in
+	 */
+	public static WorldSnapshot get()
+	{
+		return Static.getWorldSnapshotManager().getSnapshot();
+	}
+
+	public int getVarp(int id)
+	{
+		return varps[id];
+	}
+
+	/**
+	 * Reads the varbit from the snapshot's varps, using the varbit bit ranges captured with the snapshot.
+	 */
+	public int getVarbit(int id)
+	{
+		// a varbit that exists is at least one bit wide
+		int bits = id >= 0 && id < varbits.length ? varbits[id] : 0;
+		if (bits == 0)
+		{
+			throw new IndexOutOfBoundsException("Varbit " + id + " does not exist");
+		}
+
+		return DefinitionManager.getVarbitValue(bits, varps[DefinitionManager.getVarbitVarp(bits)]);
+	}
+
+	public int getLevel(Skill skill)
+	{
+		return realLevels[skill.ordinal()];
+	}
+
+	public int getBoostedLevel(Skill skill)
+	{
+		return boostedLevels[skill.ordinal()];
+	}
+
+	public int getExperience(Skill skill)
+	{
+		return experience[skill.ordinal()];
+	}
+}
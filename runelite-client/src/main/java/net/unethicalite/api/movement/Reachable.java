@@ -2,6 +2,7 @@ package net.unethicalite.api.movement;
 
 import net.unethicalite.api.Positionable;
 import net.unethicalite.api.scene.Tiles;
+import net.runelite.api.Client;
 import net.runelite.api.CollisionData;
 import net.runelite.api.GameObject;
 import net.runelite.api.Locatable;
@@ -15,13 +16,11 @@ import net.unethicalite.client.Static;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class Reachable
 {
-	private static final int MAX_ATTEMPTED_TILES = 64 * 64;
+	private static volatile SceneDistanceField distanceField;
 
 	public static boolean check(int flag, int checkFlag)
 	{
@@ -213,44 +212,29 @@ public class Reachable
 		return out;
 	}
 
+	/**
+	 * @return the tiles reachable from the player in the order they are visited, followed by the destination
+	 * if it can be interacted with from one of them
+	 */
 	public static List<WorldPoint> getVisitedTiles(Positionable destination)
 	{
-		Player local = Static.getClient().getLocalPlayer();
 		WorldPoint dest = destination instanceof WorldPoint ? (WorldPoint) destination : destination.getWorldLocation();
-		if (local == null || !dest.isInScene(Static.getClient()))
+		SceneDistanceField field = getDistanceField();
+		if (field == null || !dest.isInScene(Static.getClient()))
 		{
 			return Collections.emptyList();
 		}
 
-		List<WorldPoint> visitedTiles = new ArrayList<>();
-		LinkedList<WorldPoint> queue = new LinkedList<>();
-
-		if (local.getWorldLocation().getPlane() != dest.getPlane())
+		List<WorldPoint> visitedTiles = new ArrayList<>(field.getReachedCount() + 1);
+		for (int i = 0; i < field.getReachedCount(); i++)
 		{
-			return visitedTiles;
+			visitedTiles.add(field.getReached(i));
 		}
 
-		queue.add(local.getWorldLocation());
-
-		while (!queue.isEmpty())
+		if (field.distance(dest) == SceneDistanceField.UNREACHABLE && destination instanceof Locatable
+				&& isInteractable((Locatable) destination))
 		{
-			if (visitedTiles.size() > MAX_ATTEMPTED_TILES)
-			{
-				return visitedTiles;
-			}
-
-			WorldPoint current = queue.pop();
-			visitedTiles.add(current);
-
-			if (current.equals(dest))
-			{
-				return visitedTiles;
-			}
-
-			List<WorldPoint> neighbours = getNeighbours(destination, current)
-					.stream().filter(x -> !visitedTiles.contains(x) && !queue.contains(x))
-					.collect(Collectors.toList());
-			queue.addAll(neighbours);
+			visitedTiles.add(dest);
 		}
 
 		return visitedTiles;
@@ -274,11 +258,64 @@ public class Reachable
 
 	public static boolean isInteractable(Locatable locatable)
 	{
-		return getVisitedTiles(locatable).contains(locatable.getWorldLocation());
+		SceneDistanceField field = getDistanceField();
+		if (field == null)
+		{
+			return false;
+		}
+
+		boolean wall = locatable instanceof WallObject;
+		if (locatable instanceof GameObject)
+		{
+			for (WorldPoint point : ((GameObject) locatable).getWorldArea().toWorldPointList())
+			{
+				if (field.canReachEdge(point, wall))
+				{
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		return field.canReachEdge(locatable.getWorldLocation(), wall);
 	}
 
 	public static boolean isWalkable(WorldPoint worldPoint)
 	{
-		return getVisitedTiles(worldPoint).contains(worldPoint);
+		return getDistance(worldPoint) != SceneDistanceField.UNREACHABLE;
+	}
+
+	/**
+	 * @return the number of steps the player needs to walk to the tile, or -1 if it can't be reached
+	 */
+	public static int getDistance(WorldPoint worldPoint)
+	{
+		SceneDistanceField field = getDistanceField();
+		return field == null ? SceneDistanceField.UNREACHABLE : field.distance(worldPoint);
+	}
+
+	/**
+	 * The distances are computed once per tick and player position, so any number of reachability checks
+	 * in the same tick are lookups.
+	 */
+	private static SceneDistanceField getDistanceField()
+	{
+		Client client = Static.getClient();
+		Player local = client.getLocalPlayer();
+		if (local == null)
+		{
+			return null;
+		}
+
+		WorldPoint position = local.getWorldLocation();
+		SceneDistanceField field = distanceField;
+		if (field == null || !field.isCurrent(client, position))
+		{
+			field = SceneDistanceField.compute(client, position);
+			distanceField = field;
+		}
+
+		return field;
 	}
 }
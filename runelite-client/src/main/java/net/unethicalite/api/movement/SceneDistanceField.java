@@ -0,0 +1,184 @@
+package net.unethicalite.api.movement;
+
+import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.Constants;
+import net.runelite.api.coords.Direction;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Arrays;
+
+/**
+ * Walking distances from the player to every tile of the scene, computed with a single breadth-first search
+ * over the collision flags of the current plane. Tiles are indexed by {@code sceneX * SCENE_SIZE + sceneY}.
+ */
+final class SceneDistanceField
+{
+	static final int UNREACHABLE = -1;
+
+	private static final int SIZE = Constants.SCENE_SIZE;
+	private static final Direction[] DIRECTIONS = {Direction.NORTH, Direction.SOUTH, Direction.WEST, Direction.EAST};
+	private static final int[] DX = {0, 0, -1, 1};
+	private static final int[] DY = {1, -1, 0, 0};
+
+	private final int tick;
+	private final int baseX;
+	private final int baseY;
+	private final int plane;
+	private final int origin;
+	private final int[][] flags;
+	private final int[] distances = new int[SIZE * SIZE];
+	/**
+	 * Reached tiles in the order they were visited, also used as the search queue.
+	 */
+	private final int[] order = new int[SIZE * SIZE];
+	private int reached;
+
+	private SceneDistanceField(int tick, int baseX, int baseY, int plane, int origin, int[][] flags)
+	{
+		this.tick = tick;
+		this.baseX = baseX;
+		this.baseY = baseY;
+		this.plane = plane;
+		this.origin = origin;
+		this.flags = flags;
+	}
+
+	/**
+	 * @return the field, or null if the player or collision data isn't loaded
+	 */
+	static SceneDistanceField compute(Client client, WorldPoint start)
+	{
+		CollisionData[] collisionMaps = client.getCollisionMaps();
+		if (collisionMaps == null || collisionMaps[client.getPlane()] == null)
+		{
+			return null;
+		}
+
+		int sceneX = start.getX() - client.getBaseX();
+		int sceneY = start.getY() - client.getBaseY();
+		if (sceneX < 0 || sceneY < 0 || sceneX >= SIZE || sceneY >= SIZE)
+		{
+			return null;
+		}
+
+		SceneDistanceField field = new SceneDistanceField(client.getTickCount(), client.getBaseX(), client.getBaseY(),
+				start.getPlane(), sceneX * SIZE + sceneY, collisionMaps[client.getPlane()].getFlags());
+		field.search();
+		return field;
+	}
+
+	boolean isCurrent(Client client, WorldPoint start)
+	{
+		return tick == client.getTickCount()
+				&& baseX == client.getBaseX()
+				&& baseY == client.getBaseY()
+				&& plane == start.getPlane()
+				&& origin == (start.getX() - baseX) * SIZE + start.getY() - baseY;
+	}
+
+	private void search()
+	{
+		Arrays.fill(distances, UNREACHABLE);
+		distances[origin] = 0;
+		order[0] = origin;
+		reached = 1;
+
+		for (int head = 0; head < reached; head++)
+		{
+			int tile = order[head];
+			int x = tile / SIZE;
+			int y = tile % SIZE;
+			int startFlag = flags[x][y];
+
+			for (int i = 0; i < DIRECTIONS.length; i++)
+			{
+				int nx = x + DX[i];
+				int ny = y + DY[i];
+				if (nx < 0 || ny < 0 || nx >= SIZE || ny >= SIZE)
+				{
+					continue;
+				}
+
+				int neighbour = nx * SIZE + ny;
+				if (distances[neighbour] != UNREACHABLE || !Reachable.canWalk(DIRECTIONS[i], startFlag, flags[nx][ny]))
+				{
+					continue;
+				}
+
+				distances[neighbour] = distances[tile] + 1;
+				order[reached++] = neighbour;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of steps to the tile, or {@link #UNREACHABLE}
+	 */
+	int distance(WorldPoint point)
+	{
+		int tile = index(point);
+		return tile == -1 ? UNREACHABLE : distances[tile];
+	}
+
+	/**
+	 * @return whether a reached tile borders the target tile without a wall in between, so an object on it
+	 * can be interacted with. Walls are ignored for wall objects, which are interacted with through the wall.
+	 */
+	boolean canReachEdge(WorldPoint target, boolean ignoreWalls)
+	{
+		int tile = index(target);
+		if (tile == -1)
+		{
+			return false;
+		}
+
+		if (distances[tile] != UNREACHABLE)
+		{
+			return true;
+		}
+
+		int x = tile / SIZE;
+		int y = tile % SIZE;
+		for (int i = 0; i < DIRECTIONS.length; i++)
+		{
+			// the tile stepping towards the target in direction i
+			int sx = x - DX[i];
+			int sy = y - DY[i];
+			if (sx < 0 || sy < 0 || sx >= SIZE || sy >= SIZE || distances[sx * SIZE + sy] == UNREACHABLE)
+			{
+				continue;
+			}
+
+			if (ignoreWalls || !Reachable.isWalled(DIRECTIONS[i], flags[sx][sy]))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	int getReachedCount()
+	{
+		return reached;
+	}
+
+	WorldPoint getReached(int i)
+	{
+		int tile = order[i];
+		return new WorldPoint(baseX + tile / SIZE, baseY + tile % SIZE, plane);
+	}
+
+	private int index(WorldPoint point)
+	{
+		int x = point.getX() - baseX;
+		int y = point.getY() - baseY;
+		if (point.getPlane() != plane || x < 0 || y < 0 || x >= SIZE || y >= SIZE)
+		{
+			return -1;
+		}
+
+		return x * SIZE + y;
+	}
+}
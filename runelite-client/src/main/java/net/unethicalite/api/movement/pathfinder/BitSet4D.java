@@ -1,6 +1,7 @@
 package net.unethicalite.api.movement.pathfinder;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.BitSet;
 
 public class BitSet4D
@@ -9,7 +10,10 @@ public class BitSet4D
 	private final int sizeY;
 	private final int sizeZ;
 	private final int sizeW;
-	private final BitSet bits;
+	private BitSet bits;
+	// Little endian view of the encoded bits, read word by word until the first write decodes them
+	private volatile ByteBuffer words;
+	private final int wordOffset;
 
 	public BitSet4D(int sizeX, int sizeY, int sizeZ, int sizeW)
 	{
@@ -17,6 +21,7 @@ public class BitSet4D
 		this.sizeY = sizeY;
 		this.sizeZ = sizeZ;
 		this.sizeW = sizeW;
+		this.wordOffset = 0;
 		bits = new BitSet(sizeX * sizeY * sizeZ * sizeW);
 	}
 
@@ -26,6 +31,7 @@ public class BitSet4D
 		this.sizeY = sizeY;
 		this.sizeZ = sizeZ;
 		this.sizeW = sizeW;
+		this.wordOffset = 0;
 
 		int bufferSize = buffer.limit();
 		int regionSize = buffer.position() + (sizeX * sizeY * sizeZ * sizeW + 7) / 8;
@@ -37,31 +43,83 @@ public class BitSet4D
 		buffer.limit(bufferSize);
 	}
 
+	private BitSet4D(ByteBuffer words, int wordOffset, int sizeX, int sizeY, int sizeZ, int sizeW)
+	{
+		this.sizeX = sizeX;
+		this.sizeY = sizeY;
+		this.sizeZ = sizeZ;
+		this.sizeW = sizeW;
+		this.words = words;
+		this.wordOffset = wordOffset;
+	}
+
+	/**
+	 * Reads the bits in place from a buffer, such as a memory mapped file, without copying them.
+	 */
+	public static BitSet4D view(ByteBuffer buffer, int offset, int sizeX, int sizeY, int sizeZ, int sizeW)
+	{
+		return new BitSet4D(buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN), offset, sizeX, sizeY, sizeZ, sizeW);
+	}
+
 	public void write(ByteBuffer buffer)
 	{
 		var startPos = buffer.position();
-		buffer.put(bits.toByteArray());
-		buffer.position(startPos + (sizeX * sizeY * sizeZ * sizeW + 7) / 8);
+		var view = words;
+		if (view != null)
+		{
+			buffer.put(view.duplicate().position(wordOffset).limit(wordOffset + byteSize()));
+		}
+		else
+		{
+			buffer.put(bits.toByteArray());
+		}
+
+		buffer.position(startPos + byteSize());
 	}
 
 	public boolean get(int index)
 	{
+		var view = words;
+		if (view != null)
+		{
+			return (view.getLong(wordOffset + (index >>> 6 << 3)) & 1L << index) != 0;
+		}
+
 		return bits.get(index);
 	}
 
 	public boolean get(int x, int y, int z, int w)
 	{
-		return bits.get(getIndex(x, y, z, w));
+		return get(getIndex(x, y, z, w));
 	}
 
 	public void set(int x, int y, int z, int flag, boolean value)
 	{
+		decode();
 		bits.set(getIndex(x, y, z, flag), value);
 	}
 
 	public void setAll(boolean value)
 	{
-		bits.set(0, bits.size(), value);
+		decode();
+		bits.set(0, sizeX * sizeY * sizeZ * sizeW, value);
+	}
+
+	private synchronized void decode()
+	{
+		var view = words;
+		if (view == null)
+		{
+			return;
+		}
+
+		bits = BitSet.valueOf(view.duplicate().position(wordOffset).limit(wordOffset + byteSize()));
+		words = null;
+	}
+
+	private int byteSize()
+	{
+		return (sizeX * sizeY * sizeZ * sizeW + 7) / 8;
 	}
 
 	public int getIndex(int x, int y, int z, int w)
@@ -1,25 +1,58 @@
 package net.unethicalite.api.movement.pathfinder;
 
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLiteProperties;
+
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
-import java.util.Objects;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
+@Slf4j
 public class GlobalCollisionMap implements CollisionMap
 {
+	/*
+	 * Mapped file layout: a header page, a page aligned table holding the block number of every region
+	 * (0 if the region is missing), then one 4096 byte page per region holding its bits in BitSet order.
+	 */
+	private static final int MAPPED_MAGIC = 0x55434d31;
+	private static final int MAPPED_VERSION = 1;
+	private static final int PAGE_SIZE = 4096;
+	private static final int REGION_BYTES = 64 * 64 * 4 * 2 / 8;
+	private static final int INDEX_OFFSET = PAGE_SIZE;
+	private static final int DATA_OFFSET = INDEX_OFFSET + 256 * 256 * 4;
+
 	public final BitSet4D[] regions = new BitSet4D[256 * 256];
+	private volatile ByteBuffer mapped;
+	private volatile RegionGraph regionGraph;
+	private final Set<Integer> changedRegions = ConcurrentHashMap.newKeySet();
 
 	public GlobalCollisionMap()
 	{
 	}
 
+	private GlobalCollisionMap(ByteBuffer mapped)
+	{
+		this.mapped = mapped;
+	}
+
 	public GlobalCollisionMap(byte[] data)
 	{
 		var buffer = ByteBuffer.wrap(data);
@@ -67,24 +100,67 @@ public class GlobalCollisionMap implements CollisionMap
 
 	public byte[] toBytes()
 	{
-		var regionCount = (int) Arrays.stream(regions).filter(Objects::nonNull).count();
-		var buffer = ByteBuffer.allocate(regionCount * (2 + 64 * 64 * 4 * 2 / 8));
+		var regionCount = getRegionCount();
+		var buffer = ByteBuffer.allocate(regionCount * (2 + REGION_BYTES));
 
 		for (var i = 0; i < regions.length; i++)
 		{
-			if (regions[i] != null)
+			var region = getRegion(i);
+			if (region != null)
 			{
 				buffer.putShort((short) i);
-				regions[i].write(buffer);
+				region.write(buffer);
 			}
 		}
 
 		return buffer.array();
 	}
 
+	/**
+	 * Writes the map in the uncompressed, page aligned format read by {@link #load(File)}.
+	 */
+	public void writeMapped(File file, long sourceIdentity) throws IOException
+	{
+		var regionCount = getRegionCount();
+		var buffer = ByteBuffer.allocate(DATA_OFFSET + regionCount * REGION_BYTES);
+		buffer.putInt(MAPPED_MAGIC);
+		buffer.putInt(MAPPED_VERSION);
+		buffer.putLong(sourceIdentity);
+		buffer.putInt(regionCount);
+
+		var block = 0;
+		for (var i = 0; i < regions.length; i++)
+		{
+			var region = getRegion(i);
+			if (region != null)
+			{
+				buffer.putInt(INDEX_OFFSET + i * 4, ++block);
+				buffer.position(DATA_OFFSET + (block - 1) * REGION_BYTES);
+				region.write(buffer);
+			}
+		}
+
+		Files.write(file.toPath(), buffer.array());
+	}
+
+	public int getRegionCount()
+	{
+		var count = 0;
+		for (var i = 0; i < regions.length; i++)
+		{
+			if (getRegion(i) != null)
+			{
+				count++;
+			}
+		}
+
+		return count;
+	}
+
 	public void set(int x, int y, int z, int w, boolean value)
 	{
-		var region = regions[x / 64 * 256 + y / 64];
+		var regionId = x / 64 * 256 + y / 64;
+		var region = getRegion(regionId);
 
 		if (region == null)
 		{
@@ -92,18 +168,42 @@ public class GlobalCollisionMap implements CollisionMap
 		}
 
 		region.set(x % 64, y % 64, z, w, value);
+		changedRegions.add(regionId);
 	}
 
 	public BitSet4D getRegion(int x, int y)
 	{
-		int regionId = x / 64 * 256 + y / 64;
-		return regions[regionId];
+		return getRegion(x / 64 * 256 + y / 64);
+	}
+
+	/**
+	 * Regions of a mapped file are wrapped on first access and read straight from the mapping until modified.
+	 */
+	public BitSet4D getRegion(int regionId)
+	{
+		var region = regions[regionId];
+		var buffer = mapped;
+		if (region != null || buffer == null)
+		{
+			return region;
+		}
+
+		var block = buffer.getInt(INDEX_OFFSET + regionId * 4);
+		if (block == 0)
+		{
+			return null;
+		}
+
+		region = BitSet4D.view(buffer, DATA_OFFSET + (block - 1) * REGION_BYTES, 64, 64, 4, 2);
+		regions[regionId] = region;
+		return region;
 	}
 
 	public void createRegion(int region)
 	{
 		regions[region] = new BitSet4D(64, 64, 4, 2);
 		regions[region].setAll(true);
+		changedRegions.add(region);
 	}
 
 	public boolean get(int x, int y, int z, int w)
@@ -124,6 +224,40 @@ public class GlobalCollisionMap implements CollisionMap
 	public void overwrite(GlobalCollisionMap globalCollisionMap)
 	{
 		System.arraycopy(globalCollisionMap.regions, 0, regions, 0, regions.length);
+		mapped = globalCollisionMap.mapped;
+		regionGraph = null;
+	}
+
+	/**
+	 * Builds the region graph on first use, and again after the collision data was overwritten.
+	 * Regions changed since the last call are relabelled on their own.
+	 */
+	public RegionGraph getRegionGraph()
+	{
+		RegionGraph graph = regionGraph;
+		if (graph == null || !changedRegions.isEmpty())
+		{
+			synchronized (this)
+			{
+				graph = regionGraph;
+				if (graph == null)
+				{
+					// changes made while building are picked up by the build or the next update
+					changedRegions.clear();
+					graph = RegionGraph.build(this, TransportLoader.getAllStaticTransports());
+					regionGraph = graph;
+				}
+				else if (!changedRegions.isEmpty())
+				{
+					List<Integer> changed = new ArrayList<>(changedRegions);
+					changedRegions.removeAll(changed);
+					graph = graph.update(this, changed.stream().mapToInt(Integer::intValue).toArray());
+					regionGraph = graph;
+				}
+			}
+		}
+
+		return graph;
 	}
 
 	@Override
@@ -152,5 +286,90 @@ public class GlobalCollisionMap implements CollisionMap
 			);
 		}
 	}
-}
 
+	/**
+	 * Memory maps the collision map from the cache file, so that clients on the same host share a single
+	 * read-only copy and regions are only decoded when touched. The file is (re)built from the bundled
+	 * resource when it is missing or was built from a different resource, which is told apart by
+	 * {@link #resourceIdentity(URLConnection)} without reading the resource.
+	 */
+	public static GlobalCollisionMap load(File cacheFile) throws IOException
+	{
+		URL url = Walker.class.getResource("/regions");
+		if (url == null)
+		{
+			return new GlobalCollisionMap();
+		}
+
+		URLConnection connection = url.openConnection();
+		try (InputStream is = connection.getInputStream())
+		{
+			var identity = resourceIdentity(connection);
+			byte[] resource = null;
+
+			try
+			{
+				var map = map(cacheFile, identity);
+				if (map != null)
+				{
+					return map;
+				}
+
+				resource = is.readAllBytes();
+				var decoded = new GlobalCollisionMap(new GZIPInputStream(new ByteArrayInputStream(resource)).readAllBytes());
+				var directory = cacheFile.getAbsoluteFile().getParentFile();
+				directory.mkdirs();
+				var tmp = File.createTempFile("collision-map", ".tmp", directory);
+				decoded.writeMapped(tmp, identity);
+				Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+				map = map(cacheFile, identity);
+				return map != null ? map : decoded;
+			}
+			catch (IOException e)
+			{
+				log.warn("Failed to memory map collision data, loading it on heap instead", e);
+				if (resource == null)
+				{
+					resource = is.readAllBytes();
+				}
+
+				return new GlobalCollisionMap(new GZIPInputStream(new ByteArrayInputStream(resource)).readAllBytes());
+			}
+		}
+	}
+
+	/**
+	 * Identifies the bundled resource by the client commit it was built with, its size and its modification time.
+	 * Unlike a checksum of its content, none of these need the resource to be read.
+	 */
+	private static long resourceIdentity(URLConnection connection)
+	{
+		var crc = new CRC32();
+		crc.update((RuneLiteProperties.getCommit() + ":" + connection.getContentLengthLong() + ":" + connection.getLastModified())
+				.getBytes(StandardCharsets.UTF_8));
+		return crc.getValue();
+	}
+
+	private static GlobalCollisionMap map(File file, long identity) throws IOException
+	{
+		if (!file.isFile() || file.length() < DATA_OFFSET)
+		{
+			return null;
+		}
+
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt(0) != MAPPED_MAGIC
+					|| buffer.getInt(4) != MAPPED_VERSION
+					|| buffer.getLong(8) != identity
+					|| channel.size() != DATA_OFFSET + (long) buffer.getInt(16) * REGION_BYTES)
+			{
+				return null;
+			}
+
+			return new GlobalCollisionMap(buffer);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import java.util.Arrays;
+
+/**
+ * One-to-many links between non-negative int keys, such as transports keyed by packed source position.
+ */
+class LinkTable
+{
+	static final int[] NO_LINKS = new int[0];
+
+	private final PackedPointMap index = new PackedPointMap(64);
+	private int[][] destinations = new int[64][];
+	private int size;
+
+	void add(int from, int to)
+	{
+		int slot = index.get(from);
+		if (slot == PackedPointMap.MISSING)
+		{
+			if (size == destinations.length)
+			{
+				destinations = Arrays.copyOf(destinations, size * 2);
+			}
+
+			slot = size++;
+			destinations[slot] = NO_LINKS;
+			index.put(from, slot);
+		}
+
+		int[] current = destinations[slot];
+		int[] next = Arrays.copyOf(current, current.length + 1);
+		next[current.length] = to;
+		destinations[slot] = next;
+	}
+
+	int[] get(int from)
+	{
+		int slot = index.get(from);
+		return slot == PackedPointMap.MISSING ? NO_LINKS : destinations[slot];
+	}
+}
@@ -0,0 +1,56 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Packs a world coordinate into a single non-negative int: 2 bits plane, 14 bits x, 14 bits y.
+ */
+public final class PackedPoint
+{
+	private PackedPoint()
+	{
+	}
+
+	public static int pack(int x, int y, int plane)
+	{
+		return (plane & 0x3) << 28 | (x & 0x3fff) << 14 | y & 0x3fff;
+	}
+
+	public static int pack(WorldPoint worldPoint)
+	{
+		return pack(worldPoint.getX(), worldPoint.getY(), worldPoint.getPlane());
+	}
+
+	public static int x(int packed)
+	{
+		return packed >>> 14 & 0x3fff;
+	}
+
+	public static int y(int packed)
+	{
+		return packed & 0x3fff;
+	}
+
+	public static int plane(int packed)
+	{
+		return packed >>> 28 & 0x3;
+	}
+
+	public static WorldPoint unpack(int packed)
+	{
+		return new WorldPoint(x(packed), y(packed), plane(packed));
+	}
+
+	/**
+	 * Same semantics as {@link WorldPoint#distanceTo(WorldPoint)}.
+	 */
+	public static int distance(int a, int b)
+	{
+		if (plane(a) != plane(b))
+		{
+			return Integer.MAX_VALUE;
+		}
+
+		return Math.max(Math.abs(x(a) - x(b)), Math.abs(y(a) - y(b)));
+	}
+}
@@ -0,0 +1,135 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from {@link PackedPoint} keys to int values, without boxing.
+ */
+public class PackedPointMap
+{
+	public static final int MISSING = -1;
+
+	private static final int EMPTY = -1;
+
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+
+	public PackedPointMap(int expectedSize)
+	{
+		allocate(tableSize(expectedSize));
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	int capacity()
+	{
+		return keys.length;
+	}
+
+	public int get(int key)
+	{
+		int slot = indexOf(key);
+		return keys[slot] == key ? values[slot] : MISSING;
+	}
+
+	public boolean containsKey(int key)
+	{
+		return keys[indexOf(key)] == key;
+	}
+
+	public void put(int key, int value)
+	{
+		int slot = indexOf(key);
+		if (keys[slot] == key)
+		{
+			values[slot] = value;
+			return;
+		}
+
+		insert(slot, key, value);
+	}
+
+	/**
+	 * @return the value already mapped to the key, or {@link #MISSING} if the new value was inserted
+	 */
+	public int putIfAbsent(int key, int value)
+	{
+		int slot = indexOf(key);
+		if (keys[slot] == key)
+		{
+			return values[slot];
+		}
+
+		insert(slot, key, value);
+		return MISSING;
+	}
+
+	public void clear()
+	{
+		if (size > 0)
+		{
+			Arrays.fill(keys, EMPTY);
+			size = 0;
+		}
+	}
+
+	private void insert(int slot, int key, int value)
+	{
+		keys[slot] = key;
+		values[slot] = value;
+
+		if (++size * 2 > keys.length)
+		{
+			rehash();
+		}
+	}
+
+	private int indexOf(int key)
+	{
+		int hash = key * 0x9E3779B9;
+		int slot = (hash ^ hash >>> 16) & mask;
+
+		while (keys[slot] != key && keys[slot] != EMPTY)
+		{
+			slot = slot + 1 & mask;
+		}
+
+		return slot;
+	}
+
+	private void rehash()
+	{
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(oldKeys.length * 2);
+
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldKeys[i] != EMPTY)
+			{
+				int slot = indexOf(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		Arrays.fill(keys, EMPTY);
+	}
+
+	private static int tableSize(int expectedSize)
+	{
+		int size = Math.max(expectedSize, 4) * 2;
+		return Integer.highestOneBit(size - 1) << 1;
+	}
+}
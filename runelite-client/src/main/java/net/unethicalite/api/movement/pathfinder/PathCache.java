@@ -0,0 +1,92 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Value;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recently found paths, keyed by the region they were searched from, the destination, the teleports that were
+ * available and the {@link TransportIndex} version. A path searched from an earlier position is reused from
+ * wherever the player now stands on it, so walking a known route doesn't search again every step.
+ */
+class PathCache
+{
+	private static final int MAX_PATHS = 32;
+	private static final int MAX_START_DISTANCE = 5;
+
+	private final Cache<Key, List<WorldPoint>> paths = CacheBuilder.newBuilder()
+			.maximumSize(MAX_PATHS)
+			.build();
+
+	/**
+	 * @return the cached path from the player's position, or null if it has to be searched
+	 */
+	List<WorldPoint> get(Key key, WorldPoint position)
+	{
+		List<WorldPoint> path = paths.getIfPresent(key);
+		if (path != null)
+		{
+			if (key.teleports.contains(path.get(0)) || isNear(path, position))
+			{
+				return path;
+			}
+
+			paths.invalidate(key);
+		}
+
+		for (Map.Entry<Key, List<WorldPoint>> entry : paths.asMap().entrySet())
+		{
+			Key other = entry.getKey();
+			if (other.transportVersion != key.transportVersion || !other.destination.equals(key.destination))
+			{
+				continue;
+			}
+
+			List<WorldPoint> otherPath = entry.getValue();
+			int index = otherPath.indexOf(position);
+			if (index != -1)
+			{
+				List<WorldPoint> suffix = List.copyOf(otherPath.subList(index, otherPath.size()));
+				paths.put(key, suffix);
+				return suffix;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @param path a non-empty path, failed searches must not be cached
+	 */
+	void put(Key key, List<WorldPoint> path)
+	{
+		paths.put(key, List.copyOf(path));
+	}
+
+	private static boolean isNear(List<WorldPoint> path, WorldPoint position)
+	{
+		for (WorldPoint point : path)
+		{
+			if (point.distanceTo(position) <= MAX_START_DISTANCE)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Value
+	static class Key
+	{
+		int startRegion;
+		WorldPoint destination;
+		int transportVersion;
+		Set<WorldPoint> teleports;
+	}
+}
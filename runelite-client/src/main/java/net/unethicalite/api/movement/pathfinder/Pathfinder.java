@@ -1,97 +1,147 @@
 package net.unethicalite.api.movement.pathfinder;
 
 import lombok.Data;
-import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.coords.WorldPoint;
 import net.unethicalite.api.movement.pathfinder.model.Transport;
 
 import java.util.*;
 import java.util.concurrent.Callable;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 @Data
 @Slf4j
 public class Pathfinder implements Callable<List<WorldPoint>>
 {
+    static final int STEP_COST = 10;
+    static final int DIAGONAL_COST = 14;
+    static final int TRANSPORT_COST = 40;
+    static final int TELEPORT_COST = 150;
+    private static final int NONE = SearchSpace.NONE;
+
+    private static final ThreadLocal<SearchSpace[]> SEARCH_SPACES = ThreadLocal.withInitial(
+            () -> new SearchSpace[]{new SearchSpace(), new SearchSpace()}
+    );
+
     final CollisionMap map;
     final Map<WorldPoint, List<Transport>> transports;
-    private List<Node> start;
+    private final TransportIndex transportIndex;
+    final PathfinderAlgorithm algorithm;
+    private List<WorldPoint> start;
     private WorldPoint target;
-    private final List<Node> boundary = new LinkedList<>();
-    private final Set<WorldPoint> visited = new HashSet<>();
-    private Node nearest;
+    private Set<WorldPoint> teleports = Set.of();
+    private int expanded;
 
     public Pathfinder(CollisionMap collisionMap, Map<WorldPoint, List<Transport>> transports, List<WorldPoint> start, WorldPoint target)
+    {
+        this(collisionMap, transports, start, target, PathfinderAlgorithm.BFS);
+    }
+
+    public Pathfinder(CollisionMap collisionMap, Map<WorldPoint, List<Transport>> transports, List<WorldPoint> start, WorldPoint target,
+                      PathfinderAlgorithm algorithm)
+    {
+        this(collisionMap, transports, null, start, target, algorithm);
+    }
+
+    /**
+     * Uses the prebuilt links of the index instead of linking the transports for every search.
+     */
+    public Pathfinder(CollisionMap collisionMap, TransportIndex transports, List<WorldPoint> start, WorldPoint target,
+                      PathfinderAlgorithm algorithm)
+    {
+        this(collisionMap, transports.getLinks(), transports, start, target, algorithm);
+    }
+
+    private Pathfinder(CollisionMap collisionMap, Map<WorldPoint, List<Transport>> transports, TransportIndex transportIndex,
+                       List<WorldPoint> start, WorldPoint target, PathfinderAlgorithm algorithm)
     {
         this.map = collisionMap;
         this.transports = transports;
+        this.transportIndex = transportIndex;
+        this.algorithm = algorithm;
         this.target = target;
-        this.start = new ArrayList<>();
-        this.start.addAll(start.stream().map(point -> new Node(point, null)).collect(Collectors.toList()));
-        this.nearest = null;
+        this.start = new ArrayList<>(start);
     }
 
-    private void addNeighbors(Node node)
+    private int gridNeighbors(int position, int[] out)
     {
-        int x = node.position.getX();
-        int y = node.position.getY();
-        int plane = node.position.getPlane();
+        int x = PackedPoint.x(position);
+        int y = PackedPoint.y(position);
+        int plane = PackedPoint.plane(position);
+        int count = 0;
 
         if (map.w(x, y, plane))
         {
-            addNeighbor(node, new WorldPoint(x - 1, y, plane));
+            out[count++] = PackedPoint.pack(x - 1, y, plane);
         }
 
         if (map.e(x, y, plane))
         {
-            addNeighbor(node, new WorldPoint(x + 1, y, plane));
+            out[count++] = PackedPoint.pack(x + 1, y, plane);
         }
 
         if (map.s(x, y, plane))
         {
-            addNeighbor(node, new WorldPoint(x, y - 1, plane));
+            out[count++] = PackedPoint.pack(x, y - 1, plane);
         }
 
         if (map.n(x, y, plane))
         {
-            addNeighbor(node, new WorldPoint(x, y + 1, plane));
+            out[count++] = PackedPoint.pack(x, y + 1, plane);
         }
 
         if (map.sw(x, y, plane))
         {
-            addNeighbor(node, new WorldPoint(x - 1, y - 1, plane));
+            out[count++] = PackedPoint.pack(x - 1, y - 1, plane);
         }
 
         if (map.se(x, y, plane))
         {
-            addNeighbor(node, new WorldPoint(x + 1, y - 1, plane));
+            out[count++] = PackedPoint.pack(x + 1, y - 1, plane);
         }
 
         if (map.nw(x, y, plane))
         {
-            addNeighbor(node, new WorldPoint(x - 1, y + 1, plane));
+            out[count++] = PackedPoint.pack(x - 1, y + 1, plane);
         }
 
         if (map.ne(x, y, plane))
         {
-            addNeighbor(node, new WorldPoint(x + 1, y + 1, plane));
+            out[count++] = PackedPoint.pack(x + 1, y + 1, plane);
         }
 
-        for (Transport transport : transports.getOrDefault(node.position, new ArrayList<>()))
-        {
-            addNeighbor(node, transport.getDestination());
-        }
+        return count;
     }
 
-    private void addNeighbor(Node node, WorldPoint neighbor)
+    private LinkTable buildLinks(boolean reverse)
     {
-        if (!visited.add(neighbor))
+        if (transportIndex != null)
         {
-            return;
+            return reverse ? transportIndex.backward : transportIndex.forward;
         }
 
-        boundary.add(new Node(neighbor, node));
+        LinkTable links = new LinkTable();
+        for (List<Transport> sourceTransports : transports.values())
+        {
+            for (Transport transport : sourceTransports)
+            {
+                int source = PackedPoint.pack(transport.getSource());
+                int destination = PackedPoint.pack(transport.getDestination());
+
+                if (reverse)
+                {
+                    links.add(destination, source);
+                }
+                else
+                {
+                    links.add(source, destination);
+                }
+            }
+        }
+
+        return links;
     }
 
     public List<WorldPoint> find()
@@ -101,74 +151,554 @@ public class Pathfinder implements Callable<List<WorldPoint>>
 
     public List<WorldPoint> find(int maxSearch)
     {
-        boundary.addAll(start);
+        SearchSpace[] spaces = SEARCH_SPACES.get();
+
+        try
+        {
+            switch (algorithm)
+            {
+                case A_STAR:
+                    return findAStar(spaces[0], maxSearch, null);
+                case HIERARCHICAL:
+                    return findHierarchical(spaces[0], spaces[1], maxSearch);
+                case BIDIRECTIONAL:
+                    return findBidirectional(spaces[0], spaces[1], maxSearch);
+                default:
+                    return findBreadthFirst(spaces[0], maxSearch);
+            }
+        }
+        finally
+        {
+            spaces[0].trim();
+            spaces[1].trim();
+        }
+    }
+
+    /**
+     * Nodes are appended in the order they are discovered, so the node storage doubles as the queue.
+     */
+    private List<WorldPoint> findBreadthFirst(SearchSpace space, int maxSearch)
+    {
+        space.clear();
+        LinkTable links = buildLinks(false);
+        int goal = PackedPoint.pack(target);
+        int[] neighbors = new int[8];
 
+        for (WorldPoint point : start)
+        {
+            space.addIfAbsent(PackedPoint.pack(point), NONE, 0);
+        }
+
+        int nearest = NONE;
         int bestDistance = Integer.MAX_VALUE;
 
-        while (!boundary.isEmpty())
+        for (int node = 0; node < space.size(); node++)
         {
             if (Thread.interrupted())
             {
                 return List.of();
             }
 
-            if (visited.size() >= maxSearch)
+            if (space.size() >= maxSearch)
             {
-                return nearest.path();
+                return space.path(nearest);
             }
 
-            Node node = boundary.remove(0);
+            expanded++;
+            int position = space.position(node);
 
-            if (node.position.equals(target))
+            if (position == goal)
             {
-                return node.path();
+                return space.path(node);
             }
 
-            int distance = node.position.distanceTo(target);
-            if (nearest == null || distance < bestDistance)
+            int distance = PackedPoint.distance(position, goal);
+            if (nearest == NONE || distance < bestDistance)
             {
                 nearest = node;
                 bestDistance = distance;
             }
 
-            addNeighbors(node);
+            int count = gridNeighbors(position, neighbors);
+            for (int i = 0; i < count; i++)
+            {
+                space.addIfAbsent(neighbors[i], node, 0);
+            }
+
+            for (int destination : links.get(position))
+            {
+                space.addIfAbsent(destination, node, 0);
+            }
         }
 
-        if (nearest != null)
+        return space.path(nearest);
+    }
+
+    /**
+     * Transports and teleports can jump further than the heuristic assumes, so paths using them
+     * are not guaranteed to be optimal, only short.
+     */
+    private List<WorldPoint> findAStar(SearchSpace space, int maxSearch, PackedPointMap regions)
+    {
+        space.clear();
+        LinkTable links = buildLinks(false);
+        int goal = PackedPoint.pack(target);
+        int[] neighbors = new int[8];
+
+        for (WorldPoint point : start)
         {
-            return nearest.path();
+            relax(space, NONE, PackedPoint.pack(point), startCost(point), goal);
         }
-        return List.of();
+
+        int nearest = NONE;
+        int bestDistance = Integer.MAX_VALUE;
+
+        while (space.hasQueued())
+        {
+            if (Thread.interrupted())
+            {
+                return List.of();
+            }
+
+            long entry = space.pop();
+            int node = SearchSpace.node(entry);
+            int position = space.position(node);
+            int cost = space.cost(node);
+
+            // Superseded by a cheaper entry for the same node
+            if (SearchSpace.priority(entry) > cost + heuristic(position, goal))
+            {
+                continue;
+            }
+
+            if (expanded >= maxSearch)
+            {
+                break;
+            }
+
+            expanded++;
+
+            if (position == goal)
+            {
+                return space.path(node);
+            }
+
+            int distance = PackedPoint.distance(position, goal);
+            if (nearest == NONE || distance < bestDistance)
+            {
+                nearest = node;
+                bestDistance = distance;
+            }
+
+            int x = PackedPoint.x(position);
+            int y = PackedPoint.y(position);
+            int count = gridNeighbors(position, neighbors);
+            for (int i = 0; i < count; i++)
+            {
+                int neighbor = neighbors[i];
+                if (regions != null && !regions.containsKey(RegionGraph.regionId(neighbor)))
+                {
+                    continue;
+                }
+
+                int step = PackedPoint.x(neighbor) != x && PackedPoint.y(neighbor) != y ? DIAGONAL_COST : STEP_COST;
+                relax(space, node, neighbor, cost + step, goal);
+            }
+
+            for (int destination : links.get(position))
+            {
+                if (regions != null && !regions.containsKey(RegionGraph.regionId(destination)))
+                {
+                    continue;
+                }
+
+                relax(space, node, destination, cost + TRANSPORT_COST, goal);
+            }
+        }
+
+        return space.path(nearest);
     }
 
-    @Override
-    public List<WorldPoint> call() throws Exception
+    /**
+     * Searches the region graph first and then runs A* limited to the regions along the coarse path.
+     * Falls back to a plain A* search for collision maps without a region graph or blocked targets.
+     */
+    private List<WorldPoint> findHierarchical(SearchSpace space, SearchSpace coarseSpace, int maxSearch)
     {
-        long startTime = System.currentTimeMillis();
-        List<WorldPoint> path = find();
-        log.debug("Path calculation took {} ms", System.currentTimeMillis() - startTime);
-        return path;
+        RegionGraph graph = map instanceof GlobalCollisionMap ? ((GlobalCollisionMap) map).getRegionGraph() : null;
+        if (graph == null)
+        {
+            return findAStar(space, maxSearch, null);
+        }
+
+        int[] starts = new int[start.size()];
+        int[] startCosts = new int[start.size()];
+        for (int i = 0; i < starts.length; i++)
+        {
+            starts[i] = PackedPoint.pack(start.get(i));
+            startCosts[i] = startCost(start.get(i));
+        }
+
+        PackedPointMap regions = graph.corridor(coarseSpace, starts, startCosts, PackedPoint.pack(target), transports);
+        return findAStar(space, maxSearch, regions);
+    }
+
+    /**
+     * Searches once from the start points until any of the targets is reached. No heuristic is used,
+     * so the first target reached is the cheapest one.
+     *
+     * @return the path to the cheapest reachable target, or an empty list if none can be reached
+     */
+    public List<WorldPoint> findNearest(Collection<WorldPoint> targets)
+    {
+        return findNearest(targets, 5_000_000);
+    }
+
+    public List<WorldPoint> findNearest(Collection<WorldPoint> targets, int maxSearch)
+    {
+        SearchSpace space = SEARCH_SPACES.get()[0];
+
+        try
+        {
+            int[] reached = new int[1];
+            if (findTargets(space, goals(targets), maxSearch, reached) == 0)
+            {
+                return List.of();
+            }
+
+            return space.path(reached[0]);
+        }
+        finally
+        {
+            space.trim();
+        }
+    }
+
+    /**
+     * Searches once from the start points until all targets are reached or the search is exhausted.
+     *
+     * @return the number of moves along the cheapest path to each reachable target
+     */
+    public Map<WorldPoint, Integer> distances(Collection<WorldPoint> targets, int maxSearch)
+    {
+        SearchSpace space = SEARCH_SPACES.get()[0];
+
+        try
+        {
+            PackedPointMap goals = goals(targets);
+            int[] reached = new int[goals.size()];
+            int count = findTargets(space, goals, maxSearch, reached);
+
+            Map<WorldPoint, Integer> distances = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++)
+            {
+                int moves = 0;
+                for (int node = reached[i]; space.parent(node) != NONE; node = space.parent(node))
+                {
+                    moves++;
+                }
+
+                distances.put(PackedPoint.unpack(space.position(reached[i])), moves);
+            }
+
+            return distances;
+        }
+        finally
+        {
+            space.trim();
+        }
     }
 
-    @Value
-    private static class Node
+    /**
+     * Splits the targets by direction from the first start point and searches each group on the pool.
+     * Every group still searches outwards from the start points, so this only pays off for many targets
+     * spread in different directions.
+     *
+     * @return the number of moves along the cheapest path to each reachable target, only the groups finished
+     * so far if the calling thread is interrupted
+     * @throws RuntimeException the failure of a group, whose targets would otherwise look unreachable
+     */
+    public Map<WorldPoint, Integer> distances(Collection<WorldPoint> targets, int maxSearch, ForkJoinPool pool, int groups)
     {
-        WorldPoint position;
-        Node previous;
+        WorldPoint origin = start.get(0);
+        List<WorldPoint> sorted = new ArrayList<>(targets);
+        sorted.sort(Comparator.comparingDouble(t -> Math.atan2(t.getY() - origin.getY(), t.getX() - origin.getX())));
 
+        int groupSize = Math.max(1, (sorted.size() + groups - 1) / groups);
+        List<Callable<Map<WorldPoint, Integer>>> tasks = new ArrayList<>();
+        for (int from = 0; from < sorted.size(); from += groupSize)
+        {
+            List<WorldPoint> group = sorted.subList(from, Math.min(from + groupSize, sorted.size()));
+            Pathfinder copy = new Pathfinder(map, transports, transportIndex, start, target, algorithm);
+            copy.setTeleports(teleports);
+            tasks.add(() -> copy.distances(group, maxSearch));
+        }
 
-        public List<WorldPoint> path()
+        Map<WorldPoint, Integer> distances = new HashMap<>();
+        for (Future<Map<WorldPoint, Integer>> result : pool.invokeAll(tasks))
         {
-            List<WorldPoint> path = new LinkedList<>();
-            Node node = this;
+            try
+            {
+                distances.putAll(result.get());
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch (ExecutionException e)
+            {
+                if (e.getCause() instanceof RuntimeException)
+                {
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        return distances;
+    }
+
+    /**
+     * Dijkstra search from the start points, stopping once the reached array is full.
+     *
+     * @return the number of target nodes written to reached
+     */
+    private int findTargets(SearchSpace space, PackedPointMap goals, int maxSearch, int[] reached)
+    {
+        space.clear();
+        LinkTable links = buildLinks(false);
+        int[] neighbors = new int[8];
+        int count = 0;
+
+        for (WorldPoint point : start)
+        {
+            relax(space, NONE, PackedPoint.pack(point), startCost(point), NONE);
+        }
+
+        while (space.hasQueued() && count < reached.length && expanded < maxSearch)
+        {
+            if (Thread.interrupted())
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            long entry = space.pop();
+            int node = SearchSpace.node(entry);
+            int position = space.position(node);
+            int cost = space.cost(node);
+
+            // Superseded by a cheaper entry for the same node
+            if (SearchSpace.priority(entry) > cost)
+            {
+                continue;
+            }
+
+            expanded++;
+
+            if (goals.containsKey(position))
+            {
+                reached[count++] = node;
+            }
 
-            while (node != null)
+            int x = PackedPoint.x(position);
+            int y = PackedPoint.y(position);
+            int neighborCount = gridNeighbors(position, neighbors);
+            for (int i = 0; i < neighborCount; i++)
             {
-                path.add(0, node.position);
-                node = node.previous;
+                int neighbor = neighbors[i];
+                int step = PackedPoint.x(neighbor) != x && PackedPoint.y(neighbor) != y ? DIAGONAL_COST : STEP_COST;
+                relax(space, node, neighbor, cost + step, NONE);
             }
 
-            return new ArrayList<>(path);
+            for (int destination : links.get(position))
+            {
+                relax(space, node, destination, cost + TRANSPORT_COST, NONE);
+            }
         }
+
+        return count;
+    }
+
+    private static PackedPointMap goals(Collection<WorldPoint> targets)
+    {
+        PackedPointMap goals = new PackedPointMap(targets.size());
+        for (WorldPoint point : targets)
+        {
+            goals.put(PackedPoint.pack(point), 0);
+        }
+
+        return goals;
+    }
+
+    private int startCost(WorldPoint point)
+    {
+        return teleports.contains(point) ? TELEPORT_COST : 0;
+    }
+
+    private static void relax(SearchSpace space, int parent, int position, int cost, int goal)
+    {
+        int node = space.find(position);
+        if (node == NONE)
+        {
+            node = space.add(position, parent, cost);
+        }
+        else if (cost < space.cost(node))
+        {
+            space.update(node, parent, cost);
+        }
+        else
+        {
+            return;
+        }
+
+        space.push(node, goal == NONE ? cost : cost + heuristic(position, goal));
+    }
+
+    private static int heuristic(int position, int goal)
+    {
+        int dx = Math.abs(PackedPoint.x(position) - PackedPoint.x(goal));
+        int dy = Math.abs(PackedPoint.y(position) - PackedPoint.y(goal));
+        return STEP_COST * (dx + dy) + (DIAGONAL_COST - 2 * STEP_COST) * Math.min(dx, dy);
+    }
+
+    /**
+     * Expands whichever frontier is smaller one layer at a time, so the first layer in which both
+     * searches meet yields a shortest path in moves.
+     */
+    private List<WorldPoint> findBidirectional(SearchSpace forward, SearchSpace backward, int maxSearch)
+    {
+        forward.clear();
+        backward.clear();
+        LinkTable forwardLinks = buildLinks(false);
+        LinkTable backwardLinks = buildLinks(true);
+        int goal = PackedPoint.pack(target);
+        int[] neighbors = new int[8];
+
+        for (WorldPoint point : start)
+        {
+            forward.addIfAbsent(PackedPoint.pack(point), NONE, 0);
+        }
+
+        int startGoal = forward.find(goal);
+        if (startGoal != NONE)
+        {
+            return forward.path(startGoal);
+        }
+
+        backward.add(goal, NONE, 0);
+
+        int forwardHead = 0;
+        int backwardHead = 0;
+        int nearest = NONE;
+        int bestDistance = Integer.MAX_VALUE;
+
+        // Once the backward search runs dry the target is unreachable, keep searching forward for the nearest tile
+        while (forwardHead < forward.size())
+        {
+            boolean expandForward = backwardHead == backward.size()
+                    || forward.size() - forwardHead <= backward.size() - backwardHead;
+            SearchSpace own = expandForward ? forward : backward;
+            LinkTable links = expandForward ? forwardLinks : backwardLinks;
+            int layerStart = expandForward ? forwardHead : backwardHead;
+            int layerEnd = own.size();
+
+            for (int node = layerStart; node < layerEnd; node++)
+            {
+                if (Thread.interrupted())
+                {
+                    return List.of();
+                }
+
+                if (forward.size() + backward.size() >= maxSearch)
+                {
+                    return forward.path(nearest);
+                }
+
+                expanded++;
+                int position = own.position(node);
+
+                if (expandForward)
+                {
+                    int distance = PackedPoint.distance(position, goal);
+                    if (nearest == NONE || distance < bestDistance)
+                    {
+                        nearest = node;
+                        bestDistance = distance;
+                    }
+                }
+
+                int count = gridNeighbors(position, neighbors);
+                for (int i = 0; i < count; i++)
+                {
+                    List<WorldPoint> path = visit(forward, backward, expandForward, node, neighbors[i]);
+                    if (path != null)
+                    {
+                        return path;
+                    }
+                }
+
+                for (int linked : links.get(position))
+                {
+                    List<WorldPoint> path = visit(forward, backward, expandForward, node, linked);
+                    if (path != null)
+                    {
+                        return path;
+                    }
+                }
+            }
+
+            if (expandForward)
+            {
+                forwardHead = layerEnd;
+            }
+            else
+            {
+                backwardHead = layerEnd;
+            }
+        }
+
+        return forward.path(nearest);
+    }
+
+    /**
+     * @return the joined path if the neighbor was already reached by the opposite search, null otherwise
+     */
+    private static List<WorldPoint> visit(SearchSpace forward, SearchSpace backward, boolean expandForward, int node, int neighbor)
+    {
+        SearchSpace own = expandForward ? forward : backward;
+        SearchSpace other = expandForward ? backward : forward;
+
+        int meeting = other.find(neighbor);
+        if (meeting != NONE)
+        {
+            return expandForward ? join(forward, node, backward, meeting) : join(forward, meeting, backward, node);
+        }
+
+        own.addIfAbsent(neighbor, node, 0);
+        return null;
+    }
+
+    private static List<WorldPoint> join(SearchSpace forward, int forwardNode, SearchSpace backward, int backwardNode)
+    {
+        List<WorldPoint> path = forward.path(forwardNode);
+
+        for (int node = backwardNode; node != NONE; node = backward.parent(node))
+        {
+            path.add(PackedPoint.unpack(backward.position(node)));
+        }
+
+        return path;
+    }
+
+    @Override
+    public List<WorldPoint> call() throws Exception
+    {
+        long startTime = System.currentTimeMillis();
+        List<WorldPoint> path = find();
+        log.debug("Path calculation ({}) took {} ms, expanded {} nodes", algorithm, System.currentTimeMillis() - startTime, expanded);
+        return path;
     }
 }
@@ -0,0 +1,21 @@
+package net.unethicalite.api.movement.pathfinder;
+
+public enum PathfinderAlgorithm
+{
+	/**
+	 * Unweighted breadth-first search, every step and transport counts as one move.
+	 */
+	BFS,
+	/**
+	 * Weighted A* search using an octile distance heuristic towards the target.
+	 */
+	A_STAR,
+	/**
+	 * Breadth-first search expanding from the start points and the target at the same time.
+	 */
+	BIDIRECTIONAL,
+	/**
+	 * A* over the {@link RegionGraph} of the collision map, refined by a tile search limited to the regions it passes.
+	 */
+	HIERARCHICAL
+}
@@ -0,0 +1,740 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.coords.WorldPoint;
+import net.unethicalite.api.movement.pathfinder.model.Transport;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coarse connectivity graph over a {@link GlobalCollisionMap}. Every region plane is split into its
+ * connected components, and components are linked where a step crosses the region border.
+ * Searching this graph first narrows a tile search down to the handful of regions a path crosses.
+ * <p>
+ * The tile labels are kept run length encoded with the graph rather than recomputed from the map, so a graph
+ * keeps answering for the collision data it was built from while the map is changed.
+ */
+@Slf4j
+public class RegionGraph
+{
+	public static final int UNREACHABLE = -1;
+
+	private static final int REGION_SIZE = 64;
+	private static final int PLANES = 4;
+	private static final int WEST = 0;
+	private static final int EAST = 1;
+	private static final int SOUTH = 2;
+	private static final int NORTH = 3;
+
+	private final Collection<Transport> staticTransports;
+	// per slot, the end tile and label of each run of equally labelled tiles, null for slots without components
+	private final short[][] labelRuns;
+	private final int[] componentOffsets;
+	private final int[] componentSlots;
+	private final int[] componentCenters;
+	private final int[] edgeOffsets;
+	private final int[] edgeTargets;
+	private final PackedPointMap transportEndpoints = new PackedPointMap(1024);
+
+	private RegionGraph(Collection<Transport> staticTransports, short[][] labelRuns, int[] componentOffsets, int[] componentSlots,
+						int[] componentCenters, int[] edgeOffsets, int[] edgeTargets)
+	{
+		this.staticTransports = staticTransports;
+		this.labelRuns = labelRuns;
+		this.componentOffsets = componentOffsets;
+		this.componentSlots = componentSlots;
+		this.componentCenters = componentCenters;
+		this.edgeOffsets = edgeOffsets;
+		this.edgeTargets = edgeTargets;
+	}
+
+	/**
+	 * Labels every region of the map and links the components across region borders. The endpoints
+	 * of the given transports are resolved up front so coarse searches can link them without labelling.
+	 */
+	public static RegionGraph build(GlobalCollisionMap map, Collection<Transport> staticTransports)
+	{
+		long startTime = System.currentTimeMillis();
+		int slots = map.regions.length * PLANES;
+		int[] offsets = new int[slots + 1];
+		short[][] borders = new short[slots][];
+		short[][] runs = new short[slots][];
+		Builder builder = new Builder(4096);
+
+		for (int regionId = 0; regionId < map.regions.length; regionId++)
+		{
+			for (int plane = 0; plane < PLANES; plane++)
+			{
+				int slot = regionId * PLANES + plane;
+				offsets[slot] = builder.componentCount;
+
+				if (map.getRegion(regionId) == null)
+				{
+					continue;
+				}
+
+				short[] labels = label(map, slot);
+				if (builder.addComponents(slot, labels) > 0)
+				{
+					borders[slot] = borders(labels);
+					runs[slot] = encode(labels);
+				}
+			}
+		}
+
+		offsets[slots] = builder.componentCount;
+
+		for (int slot = 0; slot < slots; slot++)
+		{
+			if (borders[slot] == null)
+			{
+				continue;
+			}
+
+			int eastSlot = slot + 256 * PLANES;
+			if (eastSlot < slots && borders[eastSlot] != null)
+			{
+				builder.linkEast(map, slot, borders[slot], offsets[slot], borders[eastSlot], offsets[eastSlot]);
+			}
+
+			int northSlot = slot + PLANES;
+			if ((slot / PLANES & 0xff) < 0xff && borders[northSlot] != null)
+			{
+				builder.linkNorth(map, slot, borders[slot], offsets[slot], borders[northSlot], offsets[northSlot]);
+			}
+		}
+
+		RegionGraph graph = builder.finish(staticTransports, runs, offsets);
+
+		for (Transport transport : staticTransports)
+		{
+			graph.resolveEndpoint(PackedPoint.pack(transport.getSource()));
+			graph.resolveEndpoint(PackedPoint.pack(transport.getDestination()));
+		}
+
+		log.debug("Built region graph with {} components and {} links in {} ms",
+				graph.getComponentCount(), graph.edgeTargets.length, System.currentTimeMillis() - startTime);
+		return graph;
+	}
+
+	/**
+	 * Relabels the given regions only, and reuses the components and links of every other region.
+	 * This graph stays valid for searches running on it meanwhile.
+	 *
+	 * @return a new graph reflecting the current collision data of the changed regions
+	 */
+	public RegionGraph update(GlobalCollisionMap map, int[] changedRegions)
+	{
+		long startTime = System.currentTimeMillis();
+		boolean[] changed = new boolean[map.regions.length];
+		for (int regionId : changedRegions)
+		{
+			changed[regionId] = true;
+		}
+
+		int slots = componentOffsets.length - 1;
+		int[] offsets = new int[slots + 1];
+		int[] remap = new int[componentSlots.length];
+		short[][] runs = new short[slots][];
+		Map<Integer, short[]> relabelled = new HashMap<>();
+		Builder builder = new Builder(componentSlots.length + 64);
+
+		for (int slot = 0; slot < slots; slot++)
+		{
+			offsets[slot] = builder.componentCount;
+
+			if (!changed[slot / PLANES])
+			{
+				runs[slot] = labelRuns[slot];
+				for (int component = componentOffsets[slot]; component < componentOffsets[slot + 1]; component++)
+				{
+					remap[component] = builder.componentCount;
+					builder.addComponent(slot, componentCenters[component]);
+				}
+
+				continue;
+			}
+
+			if (map.getRegion(slot / PLANES) == null)
+			{
+				continue;
+			}
+
+			short[] labels = label(map, slot);
+			if (builder.addComponents(slot, labels) > 0)
+			{
+				relabelled.put(slot, labels);
+				runs[slot] = encode(labels);
+			}
+		}
+
+		offsets[slots] = builder.componentCount;
+
+		// links between unchanged regions, the old graph already holds both directions
+		for (int component = 0; component < componentSlots.length; component++)
+		{
+			if (changed[componentSlots[component] / PLANES])
+			{
+				continue;
+			}
+
+			for (int i = edgeOffsets[component]; i < edgeOffsets[component + 1]; i++)
+			{
+				int target = edgeTargets[i];
+				if (!changed[componentSlots[target] / PLANES])
+				{
+					builder.addEdge(remap[component], remap[target]);
+				}
+			}
+		}
+
+		// links of the changed regions, a border shared by two changed regions is linked from its west or south side
+		for (Map.Entry<Integer, short[]> entry : relabelled.entrySet())
+		{
+			int slot = entry.getKey();
+			short[] borders = borders(entry.getValue());
+			int regionId = slot / PLANES;
+
+			short[] east = regionId < map.regions.length - 256 ? currentBorders(slot + 256 * PLANES, changed, relabelled) : null;
+			if (east != null)
+			{
+				builder.linkEast(map, slot, borders, offsets[slot], east, offsets[slot + 256 * PLANES]);
+			}
+
+			short[] north = (regionId & 0xff) < 0xff ? currentBorders(slot + PLANES, changed, relabelled) : null;
+			if (north != null)
+			{
+				builder.linkNorth(map, slot, borders, offsets[slot], north, offsets[slot + PLANES]);
+			}
+
+			int westSlot = slot - 256 * PLANES;
+			short[] west = regionId >= 256 && !changed[regionId - 256] ? currentBorders(westSlot, changed, relabelled) : null;
+			if (west != null)
+			{
+				builder.linkEast(map, westSlot, west, offsets[westSlot], borders, offsets[slot]);
+			}
+
+			int southSlot = slot - PLANES;
+			short[] south = (regionId & 0xff) > 0 && !changed[regionId - 1] ? currentBorders(southSlot, changed, relabelled) : null;
+			if (south != null)
+			{
+				builder.linkNorth(map, southSlot, south, offsets[southSlot], borders, offsets[slot]);
+			}
+		}
+
+		RegionGraph graph = builder.finish(staticTransports, runs, offsets);
+
+		for (Transport transport : staticTransports)
+		{
+			graph.updateEndpoint(this, PackedPoint.pack(transport.getSource()), changed, remap);
+			graph.updateEndpoint(this, PackedPoint.pack(transport.getDestination()), changed, remap);
+		}
+
+		log.debug("Updated {} regions of the region graph in {} ms", changedRegions.length, System.currentTimeMillis() - startTime);
+		return graph;
+	}
+
+	/**
+	 * @return the border labels of the slot as the updated graph sees them, or null if it has no components
+	 */
+	private short[] currentBorders(int slot, boolean[] changed, Map<Integer, short[]> relabelled)
+	{
+		if (changed[slot / PLANES])
+		{
+			short[] labels = relabelled.get(slot);
+			return labels == null ? null : borders(labels);
+		}
+
+		return labelRuns[slot] == null ? null : borders(decode(labelRuns[slot]));
+	}
+
+	public int getComponentCount()
+	{
+		return componentSlots.length;
+	}
+
+	/**
+	 * @return the component containing the packed position, or {@link #UNREACHABLE} for blocked tiles
+	 */
+	public int component(int position)
+	{
+		int endpoint = transportEndpoints.get(position);
+		if (endpoint != PackedPointMap.MISSING)
+		{
+			return endpoint;
+		}
+
+		int x = PackedPoint.x(position);
+		int y = PackedPoint.y(position);
+		int slot = ((x >> 6) << 8 | y >> 6) * PLANES + PackedPoint.plane(position);
+		short[] runs = labelRuns[slot];
+		if (runs == null)
+		{
+			return UNREACHABLE;
+		}
+
+		short label = labelAt(runs, (y % REGION_SIZE) * REGION_SIZE + x % REGION_SIZE);
+		return label == UNREACHABLE ? UNREACHABLE : componentOffsets[slot] + label;
+	}
+
+	public int component(WorldPoint worldPoint)
+	{
+		return component(PackedPoint.pack(worldPoint));
+	}
+
+	/**
+	 * Runs A* over the component graph from the start positions towards the goal, using the given
+	 * transports as extra links. If the goal cannot be reached the search ends at the component
+	 * nearest to it instead.
+	 *
+	 * @return the region ids the coarse path passes through, or null if the goal or every start is blocked
+	 */
+	PackedPointMap corridor(SearchSpace space, int[] starts, int[] startCosts, int goal, Map<WorldPoint, List<Transport>> transports)
+	{
+		int goalComponent = component(goal);
+		if (goalComponent == UNREACHABLE)
+		{
+			return null;
+		}
+
+		LinkTable links = new LinkTable();
+		for (List<Transport> sourceTransports : transports.values())
+		{
+			for (Transport transport : sourceTransports)
+			{
+				int from = component(PackedPoint.pack(transport.getSource()));
+				int to = component(PackedPoint.pack(transport.getDestination()));
+				if (from != UNREACHABLE && to != UNREACHABLE && from != to)
+				{
+					links.add(from, to);
+				}
+			}
+		}
+
+		space.clear();
+		int goalCenter = componentCenters[goalComponent];
+
+		for (int i = 0; i < starts.length; i++)
+		{
+			int component = component(starts[i]);
+			if (component != UNREACHABLE)
+			{
+				relax(space, SearchSpace.NONE, component, startCosts[i], goalCenter);
+			}
+		}
+
+		int reached = SearchSpace.NONE;
+		int nearest = SearchSpace.NONE;
+		int bestDistance = Integer.MAX_VALUE;
+
+		while (space.hasQueued())
+		{
+			long entry = space.pop();
+			int node = SearchSpace.node(entry);
+			int component = space.position(node);
+			int cost = space.cost(node);
+
+			if (SearchSpace.priority(entry) > cost + distance(component, goalCenter))
+			{
+				continue;
+			}
+
+			if (component == goalComponent)
+			{
+				reached = node;
+				break;
+			}
+
+			int remaining = PackedPoint.distance(componentCenters[component], goalCenter);
+			if (nearest == SearchSpace.NONE || remaining < bestDistance)
+			{
+				nearest = node;
+				bestDistance = remaining;
+			}
+
+			for (int i = edgeOffsets[component]; i < edgeOffsets[component + 1]; i++)
+			{
+				int neighbor = edgeTargets[i];
+				relax(space, node, neighbor, cost + Math.max(Pathfinder.STEP_COST, distance(component, componentCenters[neighbor])), goalCenter);
+			}
+
+			for (int neighbor : links.get(component))
+			{
+				relax(space, node, neighbor, cost + Pathfinder.TRANSPORT_COST, goalCenter);
+			}
+		}
+
+		if (reached == SearchSpace.NONE)
+		{
+			reached = nearest;
+		}
+
+		if (reached == SearchSpace.NONE)
+		{
+			return null;
+		}
+
+		PackedPointMap regions = new PackedPointMap(64);
+		regions.put(regionId(goal), 0);
+		for (int start : starts)
+		{
+			regions.put(regionId(start), 0);
+		}
+
+		for (int node = reached; node != SearchSpace.NONE; node = space.parent(node))
+		{
+			regions.put(componentSlots[space.position(node)] / PLANES, 0);
+		}
+
+		return regions;
+	}
+
+	static int regionId(int position)
+	{
+		return PackedPoint.x(position) >> 6 << 8 | PackedPoint.y(position) >> 6;
+	}
+
+	private void relax(SearchSpace space, int parent, int component, int cost, int goalCenter)
+	{
+		int node = space.find(component);
+		if (node == SearchSpace.NONE)
+		{
+			node = space.add(component, parent, cost);
+		}
+		else if (cost < space.cost(node))
+		{
+			space.update(node, parent, cost);
+		}
+		else
+		{
+			return;
+		}
+
+		space.push(node, cost + distance(component, goalCenter));
+	}
+
+	private int distance(int component, int center)
+	{
+		int from = componentCenters[component];
+		return Pathfinder.STEP_COST * Math.max(
+				Math.abs(PackedPoint.x(from) - PackedPoint.x(center)),
+				Math.abs(PackedPoint.y(from) - PackedPoint.y(center))
+		);
+	}
+
+	private void updateEndpoint(RegionGraph previous, int position, boolean[] changed, int[] remap)
+	{
+		if (changed[regionId(position)])
+		{
+			resolveEndpoint(position);
+			return;
+		}
+
+		int component = previous.transportEndpoints.get(position);
+		if (component != PackedPointMap.MISSING)
+		{
+			transportEndpoints.put(position, remap[component]);
+		}
+	}
+
+	private void resolveEndpoint(int position)
+	{
+		int component = component(position);
+		if (component != UNREACHABLE)
+		{
+			transportEndpoints.put(position, component);
+		}
+	}
+
+	/**
+	 * Flood fills a region plane. Diagonal steps are only possible when both straight steps around
+	 * them are, so four-way connectivity gives the same components.
+	 */
+	private static short[] label(CollisionMap map, int slot)
+	{
+		int baseX = regionX(slot);
+		int baseY = regionY(slot);
+		int plane = slot % PLANES;
+		short[] labels = new short[REGION_SIZE * REGION_SIZE];
+		int[] stack = new int[REGION_SIZE * REGION_SIZE];
+		short next = 0;
+		Arrays.fill(labels, (short) UNREACHABLE);
+
+		for (int i = 0; i < labels.length; i++)
+		{
+			if (labels[i] != UNREACHABLE || map.fullBlock(baseX + i % REGION_SIZE, baseY + i / REGION_SIZE, plane))
+			{
+				continue;
+			}
+
+			int top = 0;
+			labels[i] = next;
+			stack[top++] = i;
+
+			while (top > 0)
+			{
+				int tile = stack[--top];
+				int localX = tile % REGION_SIZE;
+				int localY = tile / REGION_SIZE;
+				int x = baseX + localX;
+				int y = baseY + localY;
+
+				if (localX > 0 && map.w(x, y, plane))
+				{
+					top = visit(labels, stack, top, tile - 1, next);
+				}
+
+				if (localX < REGION_SIZE - 1 && map.e(x, y, plane))
+				{
+					top = visit(labels, stack, top, tile + 1, next);
+				}
+
+				if (localY > 0 && map.s(x, y, plane))
+				{
+					top = visit(labels, stack, top, tile - REGION_SIZE, next);
+				}
+
+				if (localY < REGION_SIZE - 1 && map.n(x, y, plane))
+				{
+					top = visit(labels, stack, top, tile + REGION_SIZE, next);
+				}
+			}
+
+			next++;
+		}
+
+		return labels;
+	}
+
+	private static int visit(short[] labels, int[] stack, int top, int tile, short label)
+	{
+		if (labels[tile] == UNREACHABLE)
+		{
+			labels[tile] = label;
+			stack[top++] = tile;
+		}
+
+		return top;
+	}
+
+	private static short[] encode(short[] labels)
+	{
+		short[] runs = new short[64];
+		int length = 0;
+		for (int tile = 0; tile < labels.length; tile++)
+		{
+			if (tile + 1 < labels.length && labels[tile + 1] == labels[tile])
+			{
+				continue;
+			}
+
+			if (length == runs.length)
+			{
+				runs = Arrays.copyOf(runs, length * 2);
+			}
+
+			runs[length++] = (short) (tile + 1);
+			runs[length++] = labels[tile];
+		}
+
+		return Arrays.copyOf(runs, length);
+	}
+
+	private static short[] decode(short[] runs)
+	{
+		short[] labels = new short[REGION_SIZE * REGION_SIZE];
+		int start = 0;
+		for (int i = 0; i < runs.length; i += 2)
+		{
+			Arrays.fill(labels, start, runs[i], runs[i + 1]);
+			start = runs[i];
+		}
+
+		return labels;
+	}
+
+	/**
+	 * @return the label of the tile, found by a binary search for the first run ending after it
+	 */
+	private static short labelAt(short[] runs, int tile)
+	{
+		int low = 0;
+		int high = runs.length / 2 - 1;
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+			if (runs[mid * 2] <= tile)
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid;
+			}
+		}
+
+		return runs[low * 2 + 1];
+	}
+
+	private static short[] borders(short[] labels)
+	{
+		short[] borders = new short[4 * REGION_SIZE];
+		for (int i = 0; i < REGION_SIZE; i++)
+		{
+			borders[WEST * REGION_SIZE + i] = labels[i * REGION_SIZE];
+			borders[EAST * REGION_SIZE + i] = labels[i * REGION_SIZE + REGION_SIZE - 1];
+			borders[SOUTH * REGION_SIZE + i] = labels[i];
+			borders[NORTH * REGION_SIZE + i] = labels[(REGION_SIZE - 1) * REGION_SIZE + i];
+		}
+
+		return borders;
+	}
+
+	private static int regionX(int slot)
+	{
+		return (slot / PLANES >> 8) * REGION_SIZE;
+	}
+
+	private static int regionY(int slot)
+	{
+		return (slot / PLANES & 0xff) * REGION_SIZE;
+	}
+
+	/**
+	 * Collects components and links in the order of their slots, then packs the links per component.
+	 */
+	private static final class Builder
+	{
+		private int[] slots;
+		private int[] centers;
+		private int componentCount;
+		private long[] edges = new long[4096];
+		private int edgeCount;
+
+		private Builder(int expectedComponents)
+		{
+			slots = new int[expectedComponents];
+			centers = new int[expectedComponents];
+		}
+
+		private void addComponent(int slot, int center)
+		{
+			if (componentCount == centers.length)
+			{
+				centers = Arrays.copyOf(centers, componentCount * 2);
+				slots = Arrays.copyOf(slots, componentCount * 2);
+			}
+
+			slots[componentCount] = slot;
+			centers[componentCount++] = center;
+		}
+
+		/**
+		 * @return the number of components in the labels
+		 */
+		private int addComponents(int slot, short[] labels)
+		{
+			int count = 0;
+			for (short label : labels)
+			{
+				count = Math.max(count, label + 1);
+			}
+
+			int[] sumX = new int[count];
+			int[] sumY = new int[count];
+			int[] sizes = new int[count];
+			for (int tile = 0; tile < labels.length; tile++)
+			{
+				if (labels[tile] != UNREACHABLE)
+				{
+					sumX[labels[tile]] += tile % REGION_SIZE;
+					sumY[labels[tile]] += tile / REGION_SIZE;
+					sizes[labels[tile]]++;
+				}
+			}
+
+			for (int i = 0; i < count; i++)
+			{
+				addComponent(slot, PackedPoint.pack(
+						regionX(slot) + sumX[i] / sizes[i],
+						regionY(slot) + sumY[i] / sizes[i],
+						slot % PLANES
+				));
+			}
+
+			return count;
+		}
+
+		private void addEdge(int from, int to)
+		{
+			if (edgeCount == edges.length)
+			{
+				edges = Arrays.copyOf(edges, edgeCount * 2);
+			}
+
+			edges[edgeCount++] = (long) from << 32 | to;
+		}
+
+		private void linkEast(CollisionMap map, int westSlot, short[] west, int westOffset, short[] east, int eastOffset)
+		{
+			int x = regionX(westSlot) + REGION_SIZE - 1;
+			int baseY = regionY(westSlot);
+			for (int i = 0; i < REGION_SIZE; i++)
+			{
+				int a = west[EAST * REGION_SIZE + i];
+				int b = east[WEST * REGION_SIZE + i];
+				if (a != UNREACHABLE && b != UNREACHABLE && map.e(x, baseY + i, westSlot % PLANES))
+				{
+					addEdge(westOffset + a, eastOffset + b);
+					addEdge(eastOffset + b, westOffset + a);
+				}
+			}
+		}
+
+		private void linkNorth(CollisionMap map, int southSlot, short[] south, int southOffset, short[] north, int northOffset)
+		{
+			int baseX = regionX(southSlot);
+			int y = regionY(southSlot) + REGION_SIZE - 1;
+			for (int i = 0; i < REGION_SIZE; i++)
+			{
+				int a = south[NORTH * REGION_SIZE + i];
+				int b = north[SOUTH * REGION_SIZE + i];
+				if (a != UNREACHABLE && b != UNREACHABLE && map.n(baseX + i, y, southSlot % PLANES))
+				{
+					addEdge(southOffset + a, northOffset + b);
+					addEdge(northOffset + b, southOffset + a);
+				}
+			}
+		}
+
+		private RegionGraph finish(Collection<Transport> staticTransports, short[][] labelRuns, int[] offsets)
+		{
+			Arrays.sort(edges, 0, edgeCount);
+			int[] edgeOffsets = new int[componentCount + 1];
+			int[] edgeTargets = new int[edgeCount];
+			int unique = 0;
+			for (int i = 0; i < edgeCount; i++)
+			{
+				if (i > 0 && edges[i] == edges[i - 1])
+				{
+					continue;
+				}
+
+				edgeOffsets[(int) (edges[i] >>> 32) + 1]++;
+				edgeTargets[unique++] = (int) edges[i];
+			}
+
+			for (int i = 0; i < componentCount; i++)
+			{
+				edgeOffsets[i + 1] += edgeOffsets[i];
+			}
+
+			return new RegionGraph(staticTransports, labelRuns, offsets, Arrays.copyOf(slots, componentCount),
+					Arrays.copyOf(centers, componentCount), edgeOffsets, Arrays.copyOf(edgeTargets, unique));
+		}
+	}
+}
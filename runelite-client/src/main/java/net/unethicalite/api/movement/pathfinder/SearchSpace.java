@@ -0,0 +1,230 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Node storage for a single path search. Nodes are indices into parallel int arrays holding the
+ * packed position, the parent node and the cost, so a search allocates nothing per tile.
+ * Instances are reused between searches on the same thread.
+ */
+class SearchSpace
+{
+	static final int NONE = PackedPointMap.MISSING;
+
+	private static final int INITIAL_CAPACITY = 4096;
+	private static final int RETAINED_CAPACITY = 1 << 16;
+
+	private PackedPointMap index;
+	private int[] positions;
+	private int[] parents;
+	private int[] costs;
+	private long[] heap;
+	private int size;
+	private int heapSize;
+
+	SearchSpace()
+	{
+		index = new PackedPointMap(INITIAL_CAPACITY);
+		allocateNodes();
+		heap = new long[INITIAL_CAPACITY];
+	}
+
+	void clear()
+	{
+		index.clear();
+		size = 0;
+		heapSize = 0;
+	}
+
+	/**
+	 * Drops the buffers grown by a large search so an idle thread doesn't keep them alive. The queue is checked on
+	 * its own, superseded entries stay queued and can outgrow the nodes.
+	 */
+	void trim()
+	{
+		if (positions.length > RETAINED_CAPACITY)
+		{
+			allocateNodes();
+		}
+
+		if (heap.length > RETAINED_CAPACITY)
+		{
+			heap = new long[INITIAL_CAPACITY];
+		}
+
+		// the index keeps at least twice as many slots as entries
+		if (index.capacity() > 2 * RETAINED_CAPACITY)
+		{
+			index = new PackedPointMap(INITIAL_CAPACITY);
+		}
+
+		clear();
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	int position(int node)
+	{
+		return positions[node];
+	}
+
+	int parent(int node)
+	{
+		return parents[node];
+	}
+
+	int cost(int node)
+	{
+		return costs[node];
+	}
+
+	int find(int position)
+	{
+		return index.get(position);
+	}
+
+	int add(int position, int parent, int cost)
+	{
+		index.put(position, size);
+		return append(position, parent, cost);
+	}
+
+	/**
+	 * @return the new node, or {@link #NONE} if the position was already visited
+	 */
+	int addIfAbsent(int position, int parent, int cost)
+	{
+		if (index.putIfAbsent(position, size) != PackedPointMap.MISSING)
+		{
+			return NONE;
+		}
+
+		return append(position, parent, cost);
+	}
+
+	void update(int node, int parent, int cost)
+	{
+		parents[node] = parent;
+		costs[node] = cost;
+	}
+
+	boolean hasQueued()
+	{
+		return heapSize > 0;
+	}
+
+	void push(int node, int priority)
+	{
+		if (heapSize == heap.length)
+		{
+			heap = Arrays.copyOf(heap, heapSize * 2);
+		}
+
+		long entry = (long) priority << 32 | node;
+		int i = heapSize++;
+		while (i > 0)
+		{
+			int parent = (i - 1) >>> 1;
+			if (heap[parent] <= entry)
+			{
+				break;
+			}
+
+			heap[i] = heap[parent];
+			i = parent;
+		}
+
+		heap[i] = entry;
+	}
+
+	/**
+	 * @return the queued entry with the lowest priority, decode it with {@link #node(long)} and {@link #priority(long)}
+	 */
+	long pop()
+	{
+		long top = heap[0];
+		long last = heap[--heapSize];
+		int i = 0;
+
+		while (true)
+		{
+			int child = 2 * i + 1;
+			if (child >= heapSize)
+			{
+				break;
+			}
+
+			if (child + 1 < heapSize && heap[child + 1] < heap[child])
+			{
+				child++;
+			}
+
+			if (last <= heap[child])
+			{
+				break;
+			}
+
+			heap[i] = heap[child];
+			i = child;
+		}
+
+		heap[i] = last;
+		return top;
+	}
+
+	static int node(long entry)
+	{
+		return (int) entry;
+	}
+
+	static int priority(long entry)
+	{
+		return (int) (entry >>> 32);
+	}
+
+	List<WorldPoint> path(int node)
+	{
+		int length = 0;
+		for (int current = node; current != NONE; current = parents[current])
+		{
+			length++;
+		}
+
+		WorldPoint[] path = new WorldPoint[length];
+		for (int current = node; current != NONE; current = parents[current])
+		{
+			path[--length] = PackedPoint.unpack(positions[current]);
+		}
+
+		return new ArrayList<>(Arrays.asList(path));
+	}
+
+	private int append(int position, int parent, int cost)
+	{
+		if (size == positions.length)
+		{
+			positions = Arrays.copyOf(positions, size * 2);
+			parents = Arrays.copyOf(parents, size * 2);
+			costs = Arrays.copyOf(costs, size * 2);
+		}
+
+		positions[size] = position;
+		parents[size] = parent;
+		costs[size] = cost;
+		return size++;
+	}
+
+	private void allocateNodes()
+	{
+		positions = new int[INITIAL_CAPACITY];
+		parents = new int[INITIAL_CAPACITY];
+		costs = new int[INITIAL_CAPACITY];
+	}
+}
@@ -0,0 +1,224 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.Skill;
+import net.runelite.api.VarbitComposition;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.StatChanged;
+import net.unethicalite.api.game.Worlds;
+import net.unethicalite.api.movement.pathfinder.model.Transport;
+import net.unethicalite.api.movement.pathfinder.model.TransportRequirement;
+import net.unethicalite.api.quests.Quest;
+import net.unethicalite.client.Static;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The transports whose requirements are currently fulfilled, indexed by packed source position.
+ * <p>
+ * The index is kept between walks and only rebuilt after {@link #invalidate()}, which is triggered by the
+ * events that can change a requirement: changes to a varp read by one, level changes and inventory or
+ * equipment changes. World hops and entering or leaving the Motherlode Mine are detected on lookup.
+ */
+@Slf4j
+public class TransportIndex
+{
+	public static final TransportIndex EMPTY = new TransportIndex(-1, List.of(), false, false);
+
+	private static final AtomicInteger VERSION = new AtomicInteger();
+	private static final Object BUILD_LOCK = new Object();
+	private static final int[] LEVELS = new int[Skill.values().length];
+	private static final int[] BOOSTED_LEVELS = new int[Skill.values().length];
+	private static BitSet watchedVarps;
+	private static volatile TransportIndex current;
+
+	@Getter
+	private final int version;
+	@Getter
+	private final List<Transport> transports;
+	@Getter
+	private final Map<WorldPoint, List<Transport>> links;
+	final LinkTable forward = new LinkTable();
+	final LinkTable backward = new LinkTable();
+	private final boolean members;
+	private final boolean motherlode;
+
+	private TransportIndex(int version, List<Transport> transports, boolean members, boolean motherlode)
+	{
+		this.version = version;
+		this.transports = Collections.unmodifiableList(transports);
+		this.members = members;
+		this.motherlode = motherlode;
+
+		Map<WorldPoint, List<Transport>> links = new HashMap<>();
+		for (Transport transport : transports)
+		{
+			links.computeIfAbsent(transport.getSource(), x -> new ArrayList<>()).add(transport);
+
+			int source = PackedPoint.pack(transport.getSource());
+			int destination = PackedPoint.pack(transport.getDestination());
+			forward.add(source, destination);
+			backward.add(destination, source);
+		}
+
+		this.links = Collections.unmodifiableMap(links);
+	}
+
+	/**
+	 * @return the current index, rebuilding it only if it was invalidated since the last lookup.
+	 * Builds on walker and script threads are serialized. The build waits for the client thread to read vars,
+	 * so the client thread never waits for another build and builds on its own instead.
+	 */
+	public static TransportIndex get()
+	{
+		boolean members = Worlds.inMembersWorld();
+		boolean motherlode = TransportLoader.inMotherlodeMine();
+		TransportIndex index = current;
+		if (index != null && index.isCurrent(members, motherlode))
+		{
+			return index;
+		}
+
+		if (Static.getClient().isClientThread())
+		{
+			return build(members, motherlode);
+		}
+
+		synchronized (BUILD_LOCK)
+		{
+			index = current;
+			if (index != null && index.isCurrent(members, motherlode))
+			{
+				return index;
+			}
+
+			return build(members, motherlode);
+		}
+	}
+
+	private static TransportIndex build(boolean members, boolean motherlode)
+	{
+		// read the version first, an invalidation during the build must trigger another one
+		int version = VERSION.get();
+		long start = System.currentTimeMillis();
+
+		TransportLoader.refreshStaticTransports();
+		TransportIndex index = new TransportIndex(version, TransportLoader.buildCachedTransportList(), members, motherlode);
+		current = index;
+
+		log.debug("Indexed {} transports in {}ms", index.transports.size(), System.currentTimeMillis() - start);
+		return index;
+	}
+
+	private boolean isCurrent(boolean members, boolean motherlode)
+	{
+		return version == VERSION.get() && this.members == members && this.motherlode == motherlode;
+	}
+
+	public static void invalidate()
+	{
+		VERSION.incrementAndGet();
+	}
+
+	/**
+	 * Invalidates the index if the varp is read by a transport requirement. Must be called on the client thread.
+	 */
+	public static void onVarpChanged(int varp)
+	{
+		if (watchedVarps == null)
+		{
+			watchedVarps = resolveWatchedVarps();
+		}
+
+		if (watchedVarps.get(varp))
+		{
+			invalidate();
+		}
+	}
+
+	/**
+	 * Invalidates the index on level changes, experience drops are ignored.
+	 */
+	public static void onStatChanged(StatChanged event)
+	{
+		int skill = event.getSkill().ordinal();
+		if (LEVELS[skill] != event.getLevel() || BOOSTED_LEVELS[skill] != event.getBoostedLevel())
+		{
+			LEVELS[skill] = event.getLevel();
+			BOOSTED_LEVELS[skill] = event.getBoostedLevel();
+			invalidate();
+		}
+	}
+
+	private static BitSet resolveWatchedVarps()
+	{
+		Client client = Static.getClient();
+		BitSet varps = new BitSet();
+
+		for (Transport transport : TransportLoader.getAllStaticTransports())
+		{
+			for (TransportRequirement requirement : transport.getRequirements())
+			{
+				switch (requirement.getType())
+				{
+					case VARBIT:
+						watchVarbit(client, varps, requirement.getVarbit());
+						break;
+					case QUEST:
+						watchQuest(client, varps, requirement.getQuest());
+						break;
+				}
+			}
+		}
+
+		for (int varbit : TransportLoader.REQUIREMENT_VARBITS)
+		{
+			watchVarbit(client, varps, varbit);
+		}
+
+		for (int varp : TransportLoader.REQUIREMENT_VARPS)
+		{
+			varps.set(varp);
+		}
+
+		for (Quest quest : TransportLoader.REQUIREMENT_QUESTS)
+		{
+			watchQuest(client, varps, quest);
+		}
+
+		log.debug("Watching {} varps for transport requirements", varps.cardinality());
+		return varps;
+	}
+
+	/**
+	 * Quests without a progress var are refreshed by the quest completed interface instead.
+	 */
+	private static void watchQuest(Client client, BitSet varps, Quest quest)
+	{
+		if (quest.getVarbit() != null)
+		{
+			watchVarbit(client, varps, quest.getVarbit().getId());
+		}
+		else if (quest.getVarPlayer() != null)
+		{
+			varps.set(quest.getVarPlayer().getId());
+		}
+	}
+
+	private static void watchVarbit(Client client, BitSet varps, int varbitId)
+	{
+		VarbitComposition varbit = client.getVarbit(varbitId);
+		if (varbit != null)
+		{
+			varps.set(varbit.getIndex());
+		}
+	}
+}
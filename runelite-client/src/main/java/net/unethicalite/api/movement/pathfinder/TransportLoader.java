@@ -18,7 +18,6 @@ import net.unethicalite.api.movement.pathfinder.model.*;
 import net.unethicalite.api.quests.Quest;
 import net.unethicalite.api.widgets.Dialog;
 import net.unethicalite.api.widgets.Widgets;
-import net.unethicalite.client.Static;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -51,14 +50,31 @@ public class TransportLoader
 		new MagicMushtree(new WorldPoint(3676, 3755, 0), WidgetInfo.FOSSIL_MUSHROOM_SWAMP),
 		new MagicMushtree(new WorldPoint(3760, 3758, 0), WidgetInfo.FOSSIL_MUSHROOM_VALLEY)
 	);
+	private static final int DIGSITE_GATE_VARBIT = 3637;
+	private static final int PORT_SARIM_KOUREND_BOAT_VARBIT = 4897;
+	private static final int PORT_SARIM_KOUREND_PROGRESS_VARBIT = 8063;
+	private static final int EAGLES_PEAK_VARP = 934;
+	private static final int PRINCE_ALI_RESCUE_VARP = Quest.PRINCE_ALI_RESCUE.getVarPlayer().getId();
+	/**
+	 * Vars and quests read by {@link #buildCachedTransportList()}, watched by {@link TransportIndex}.
+	 * Every var or quest that method reads must be listed here.
+	 */
+	static final int[] REQUIREMENT_VARBITS = {DIGSITE_GATE_VARBIT, PORT_SARIM_KOUREND_BOAT_VARBIT, PORT_SARIM_KOUREND_PROGRESS_VARBIT};
+	static final int[] REQUIREMENT_VARPS = {EAGLES_PEAK_VARP, PRINCE_ALI_RESCUE_VARP};
+	static final List<Quest> REQUIREMENT_QUESTS = List.of(
+		Quest.TREE_GNOME_VILLAGE,
+		Quest.THE_GRAND_TREE,
+		Quest.THE_LOST_TRIBE,
+		Quest.THE_FREMENNIK_TRIALS,
+		Quest.RECIPE_FOR_DISASTER,
+		Quest.FAIRYTALE_II__CURE_A_QUEEN
+	);
 	private static final Gson GSON = new GsonBuilder().create();
-	private static int LAST_BUILD_TICK = 0;
 
 	private static final List<Transport> ALL_STATIC_TRANSPORTS = new ArrayList<>();
-	private static final List<Transport> FILTERED_STATIC_TRANSPORTS = new ArrayList<>();
+	private static volatile List<Transport> FILTERED_STATIC_TRANSPORTS = Collections.emptyList();
 
 	private static final WorldArea MLM = new WorldArea(3714, 5633, 60, 62, 0);
-	private static List<Transport> LAST_TRANSPORT_LIST = Collections.emptyList();
 
 	static
 	{
@@ -84,6 +100,11 @@ public class TransportLoader
 		log.debug("Loaded {} transports from file", ALL_STATIC_TRANSPORTS.size());
 	}
 
+	public static List<Transport> getAllStaticTransports()
+	{
+		return Collections.unmodifiableList(ALL_STATIC_TRANSPORTS);
+	}
+
 	private static List<Transport> loadStaticTransports()
 	{
 		if (!FILTERED_STATIC_TRANSPORTS.isEmpty())
@@ -97,29 +118,27 @@ public class TransportLoader
 
 	public static void refreshStaticTransports()
 	{
-		FILTERED_STATIC_TRANSPORTS.clear();
-		List<Transport> list = ALL_STATIC_TRANSPORTS.stream()
+		FILTERED_STATIC_TRANSPORTS = ALL_STATIC_TRANSPORTS.stream()
 				.filter(it -> it.getRequirements().stream().allMatch(TransportRequirement::fulfilled))
-				.collect(Collectors.toList());
-		FILTERED_STATIC_TRANSPORTS.addAll(list);
+				.collect(Collectors.toUnmodifiableList());
 	}
 
 	public static List<Transport> buildTransports()
 	{
-		if (LAST_BUILD_TICK != Static.getClient().getTickCount())
-		{
-			LAST_BUILD_TICK = Static.getClient().getTickCount();
-			LAST_TRANSPORT_LIST = buildCachedTransportList();
-		}
+		return TransportIndex.get().getTransports();
+	}
 
-		return LAST_TRANSPORT_LIST;
+	static boolean inMotherlodeMine()
+	{
+		Player local = Players.getLocal();
+		return local != null && MLM.contains(local);
 	}
 
 	public static List<Transport> buildCachedTransportList()
 	{
 		List<Transport> transports = new ArrayList<>(loadStaticTransports());
 
-		boolean princeAliCompleted = Vars.getVarp(Quest.PRINCE_ALI_RESCUE.getVarPlayer().getId()) >= 110;
+		boolean princeAliCompleted = Vars.getVarp(PRINCE_ALI_RESCUE_VARP) >= 110;
 		int gold = Inventory.getFirst(995) != null ? Inventory.getFirst(995).getQuantity() : 0;
 		if (gold >= 10 || princeAliCompleted)
 		{
@@ -127,25 +146,29 @@ public class TransportLoader
 			transports.add(objectTransport(
 					new WorldPoint(3267, 3228, 0),
 					new WorldPoint(3268, 3228, 0),
-					TileObjects.getFirstAt(3268, 3228, 0, 44599),
+					new WorldPoint(3268, 3228, 0),
+					44599,
 					princeAliCompleted ? 0 : 3)
 			);
 			transports.add(objectTransport(
 					new WorldPoint(3268, 3228, 0),
 					new WorldPoint(3267, 3228, 0),
-					TileObjects.getFirstAt(3268, 3228, 0, 44599),
+					new WorldPoint(3268, 3228, 0),
+					44599,
 					princeAliCompleted ? 0 : 3)
 			);
 			transports.add(objectTransport(
 					new WorldPoint(3267, 3227, 0),
 					new WorldPoint(3268, 3227, 0),
-					TileObjects.getFirstAt(3268, 3227, 0, 44598),
+					new WorldPoint(3268, 3227, 0),
+					44598,
 					princeAliCompleted ? 0 : 3)
 			);
 			transports.add(objectTransport(
 					new WorldPoint(3268, 3227, 0),
 					new WorldPoint(3267, 3227, 0),
-					TileObjects.getFirstAt(3268, 3227, 0, 44598),
+					new WorldPoint(3268, 3227, 0),
+					44598,
 					princeAliCompleted ? 0 : 3)
 			);
 		}
@@ -177,9 +200,9 @@ public class TransportLoader
 			transports.add(npcTransport(new WorldPoint(1779, 3418, 0), new WorldPoint(1784, 3458, 0), 7484, "Travel"));
 
 			// Port sarim
-			if (Vars.getBit(4897) == 0)
+			if (Vars.getBit(PORT_SARIM_KOUREND_BOAT_VARBIT) == 0)
 			{
-				if (Vars.getBit(8063) >= 7)
+				if (Vars.getBit(PORT_SARIM_KOUREND_PROGRESS_VARBIT) >= 7)
 				{
 					transports.add(npcDialogTransport(new WorldPoint(3054, 3245, 0),
 							new WorldPoint(1824, 3691, 0),
@@ -237,7 +260,7 @@ public class TransportLoader
 			}
 
 			// Eagles peak cave
-			if (Vars.getVarp(934) >= 15)
+			if (Vars.getVarp(EAGLES_PEAK_VARP) >= 15)
 			{
 				// Entrance
 				transports.add(objectTransport(new WorldPoint(2328, 3496, 0), new WorldPoint(1994, 4983, 3), 19790,
@@ -254,7 +277,7 @@ public class TransportLoader
 			}
 
 			// Motherload Mine
-			if (MLM.contains(Players.getLocal()))
+			if (inMotherlodeMine())
 			{
 				transports.addAll(motherloadMineTransport(new WorldPoint(3726, 5643, 0)));
 				transports.addAll(motherloadMineTransport(new WorldPoint(3726, 5654, 0)));
@@ -312,7 +335,7 @@ public class TransportLoader
 				}
 
 				// Digsite gate
-				if (Vars.getBit(3637) >= 153)
+				if (Vars.getBit(DIGSITE_GATE_VARBIT) >= 153)
 				{
 					transports.add(objectTransport(new WorldPoint(3295, 3429, 0), new WorldPoint(3296, 3429, 0), 24561,
 							"Open"));
@@ -643,6 +666,29 @@ public class TransportLoader
 		return transport;
 	}
 
+	/**
+	 * Looks the object up when the transport is used, for objects whose actions can only be chosen by index.
+	 */
+	public static Transport objectTransport(
+		WorldPoint source,
+		WorldPoint destination,
+		WorldPoint objectPosition,
+		int objId,
+		int actionIndex
+	)
+	{
+		return new Transport(source, destination, Integer.MAX_VALUE, 0, () ->
+		{
+			TileObject tileObject = TileObjects.getFirstAt(objectPosition, objId);
+			if (tileObject == null)
+			{
+				return;
+			}
+
+			tileObject.interact(actionIndex);
+		});
+	}
+
 	public static Transport objectTransport(
 		WorldPoint source,
 		WorldPoint destination,
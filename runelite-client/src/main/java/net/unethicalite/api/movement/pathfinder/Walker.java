@@ -35,8 +35,10 @@ public class Walker
 	private static final int MAX_NEAREST_SEARCH_ITERATIONS = 10;
 
 	private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+	private static final PathCache pathCache = new PathCache();
 	private static Future<List<WorldPoint>> pathFuture = null;
-	private static WorldPoint currentDestination = null;
+	private static PathCache.Key pathKey = null;
+
 	public static boolean walkTo(WorldPoint destination)
 	{
 
@@ -54,7 +56,7 @@ public class Walker
 
 		Map<WorldPoint, List<Transport>> transports = buildTransportLinks();
 		LinkedHashMap<WorldPoint, Teleport> teleports = buildTeleportLinks(destination);
-		List<WorldPoint> path = buildPath(destination);
+		List<WorldPoint> path = buildPath(destination, teleports);
 
 		Static.getEntityRenderer().setCurrentPath(path);
 
@@ -85,12 +87,6 @@ public class Walker
 			return false;
 		}
 
-		// Refresh path if our direction changed
-		if (!local.isAnimating() && offPath)
-		{
-			path = buildPath(destination);
-		}
-
 		return walkAlong(path, transports);
 	}
 
@@ -300,30 +296,58 @@ public class Walker
 
 	private static List<WorldPoint> calculatePath(
 			List<WorldPoint> startPoints,
+			Set<WorldPoint> teleports,
 			WorldPoint destination
 	)
 	{
-		if (pathFuture == null)
+		WorldPoint position = Players.getLocal().getWorldLocation();
+		TransportIndex transports = Static.getUnethicaliteConfig().useTransports() ? TransportIndex.get() : TransportIndex.EMPTY;
+		PathCache.Key key = new PathCache.Key(position.getRegionID(), destination, transports.getVersion(), Set.copyOf(teleports));
+
+		if (pathFuture != null && pathFuture.isDone())
+		{
+			// failed searches aren't cached, so the next call searches again
+			List<WorldPoint> found = getPath(pathFuture);
+			if (!found.isEmpty())
+			{
+				pathCache.put(pathKey, found);
+			}
+
+			pathFuture = null;
+		}
+
+		List<WorldPoint> cached = pathCache.get(key, position);
+		if (cached != null)
 		{
-			pathFuture = executor.submit(new Pathfinder(Static.getGlobalCollisionMap(), buildTransportLinks(), startPoints, destination));
-			currentDestination = destination;
+			return cached;
 		}
 
-		if (!destination.equals(currentDestination))
+		if (pathFuture != null && !pathKey.equals(key))
 		{
+			// A search towards the same destination is likely to pass the player, let it finish and reuse its suffix
+			if (pathKey.getDestination().equals(destination) && pathKey.getTransportVersion() == key.getTransportVersion())
+			{
+				return List.of();
+			}
+
 			pathFuture.cancel(true);
-			pathFuture = executor.submit(new Pathfinder(Static.getGlobalCollisionMap(), buildTransportLinks(), startPoints, destination));
-			currentDestination = destination;
+			pathFuture = null;
 		}
 
-		if (!pathFuture.isDone())
+		if (pathFuture == null)
 		{
-			return List.of();
+			pathFuture = executor.submit(createPathfinder(startPoints, teleports, destination, transports));
+			pathKey = key;
 		}
 
+		return List.of();
+	}
+
+	private static List<WorldPoint> getPath(Future<List<WorldPoint>> future)
+	{
 		try
 		{
-			return pathFuture.get();
+			return future.get();
 		}
 		catch (Exception e)
 		{
@@ -333,29 +357,49 @@ public class Walker
 	}
 
 	public static List<WorldPoint> buildPath(WorldPoint destination)
+	{
+		return buildPath(destination, buildTeleportLinks(destination));
+	}
+
+	private static List<WorldPoint> buildPath(WorldPoint destination, LinkedHashMap<WorldPoint, Teleport> teleports)
 	{
 		Player local = Players.getLocal();
-		LinkedHashMap<WorldPoint, Teleport> teleports = buildTeleportLinks(destination);
 		List<WorldPoint> startPoints = new ArrayList<>(teleports.keySet());
 		startPoints.add(local.getWorldLocation());
 
-		return calculatePath(startPoints, destination);
+		return calculatePath(startPoints, teleports.keySet(), destination);
+	}
+
+	/**
+	 * Searches once on the calling thread for the cheapest path from the player to any of the targets.
+	 *
+	 * @return the path to the nearest reachable target, or an empty list if none can be reached
+	 */
+	public static List<WorldPoint> buildNearestPath(Collection<WorldPoint> targets)
+	{
+		Player local = Players.getLocal();
+		TransportIndex transports = Static.getUnethicaliteConfig().useTransports() ? TransportIndex.get() : TransportIndex.EMPTY;
+		return new Pathfinder(Static.getGlobalCollisionMap(), transports, List.of(local.getWorldLocation()), null,
+				Static.getUnethicaliteConfig().pathfinderAlgorithm()).findNearest(targets);
+	}
+
+	private static Pathfinder createPathfinder(List<WorldPoint> startPoints, Set<WorldPoint> teleports, WorldPoint destination,
+											   TransportIndex transports)
+	{
+		Pathfinder pathfinder = new Pathfinder(Static.getGlobalCollisionMap(), transports, startPoints, destination,
+				Static.getUnethicaliteConfig().pathfinderAlgorithm());
+		pathfinder.setTeleports(teleports);
+		return pathfinder;
 	}
 
 	public static Map<WorldPoint, List<Transport>> buildTransportLinks()
 	{
-		Map<WorldPoint, List<Transport>> out = new HashMap<>();
 		if (!Static.getUnethicaliteConfig().useTransports())
 		{
-			return out;
+			return Map.of();
 		}
 
-		for (Transport transport : TransportLoader.buildTransports())
-		{
-			out.computeIfAbsent(transport.getSource(), x -> new ArrayList<>()).add(transport);
-		}
-
-		return out;
+		return TransportIndex.get().getLinks();
 	}
 
 	public static LinkedHashMap<WorldPoint, Teleport> buildTeleportLinks(WorldPoint destination)
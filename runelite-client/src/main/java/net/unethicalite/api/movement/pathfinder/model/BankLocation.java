@@ -1,11 +1,15 @@
 package net.unethicalite.api.movement.pathfinder.model;
 
 import net.unethicalite.api.entities.Players;
-import net.unethicalite.api.movement.Movement;
+import net.unethicalite.api.movement.pathfinder.Walker;
 import net.runelite.api.coords.WorldArea;
+import net.runelite.api.coords.WorldPoint;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public enum BankLocation
 {
@@ -65,10 +69,26 @@ public enum BankLocation
 				.orElse(null);
 	}
 
+	/**
+	 * Finds the bank with the shortest path from the player, using a single search towards all banks.
+	 */
 	public static BankLocation getNearestPath()
 	{
-		return Arrays.stream(values())
-				.min(Comparator.comparingInt(x -> Movement.calculateDistance(x.getArea().toWorldPoint())))
-				.orElse(null);
+		Map<WorldPoint, BankLocation> targets = new HashMap<>();
+		for (BankLocation bank : values())
+		{
+			for (WorldPoint point : bank.getArea().toWorldPointList())
+			{
+				targets.put(point, bank);
+			}
+		}
+
+		List<WorldPoint> path = Walker.buildNearestPath(targets.keySet());
+		if (path.isEmpty())
+		{
+			return getNearest();
+		}
+
+		return targets.get(path.get(path.size() - 1));
 	}
 }
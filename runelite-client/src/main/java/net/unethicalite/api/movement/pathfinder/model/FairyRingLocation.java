@@ -8,8 +8,12 @@ import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.unethicalite.api.game.GameThread;
 import net.unethicalite.api.game.Vars;
+import net.unethicalite.api.movement.pathfinder.Walker;
 import net.unethicalite.api.widgets.Widgets;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 @Getter
@@ -106,6 +110,26 @@ public enum FairyRingLocation
         }
     }
 
+    /**
+     * Finds the fairy ring with the shortest path from the player, using a single search towards all rings.
+     */
+    public static FairyRingLocation getNearestPath()
+    {
+        Map<WorldPoint, FairyRingLocation> targets = new HashMap<>();
+        for (FairyRingLocation ring : values())
+        {
+            targets.put(ring.getLocation(), ring);
+        }
+
+        List<WorldPoint> path = Walker.buildNearestPath(targets.keySet());
+        if (path.isEmpty())
+        {
+            return null;
+        }
+
+        return targets.get(path.get(path.size() - 1));
+    }
+
     public static String getCurrentCode()
     {
         return GameThread.invokeLater(() ->
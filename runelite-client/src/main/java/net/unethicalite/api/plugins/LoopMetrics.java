@@ -0,0 +1,59 @@
+package net.unethicalite.api.plugins;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of the loops of a {@link LoopedPlugin}. Latency is the time between the moment a loop was due and the moment
+ * it started, duration is the time spent in the loop itself. A loop overruns when it takes longer than a game tick.
+ * <p>
+ * Only the plugin's loop thread records, any thread may read.
+ */
+@Getter
+public class LoopMetrics
+{
+	static final long OVERRUN_NANOS = TimeUnit.MILLISECONDS.toNanos(600);
+
+	private volatile long loops;
+	private volatile long overruns;
+	private volatile long totalLatencyNanos;
+	private volatile long maxLatencyNanos;
+	private volatile long totalDurationNanos;
+	private volatile long maxDurationNanos;
+
+	void record(long latencyNanos, long durationNanos)
+	{
+		latencyNanos = Math.max(0, latencyNanos);
+		loops++;
+		totalLatencyNanos += latencyNanos;
+		maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+		totalDurationNanos += durationNanos;
+		maxDurationNanos = Math.max(maxDurationNanos, durationNanos);
+		if (durationNanos > OVERRUN_NANOS)
+		{
+			overruns++;
+		}
+	}
+
+	public long getAverageLatencyNanos()
+	{
+		long loops = this.loops;
+		return loops == 0 ? 0 : totalLatencyNanos / loops;
+	}
+
+	public long getAverageDurationNanos()
+	{
+		long loops = this.loops;
+		return loops == 0 ? 0 : totalDurationNanos / loops;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("loops=%d overruns=%d latency(avg=%.1fms max=%.1fms) duration(avg=%.1fms max=%.1fms)",
+			loops, overruns,
+			getAverageLatencyNanos() / 1e6, maxLatencyNanos / 1e6,
+			getAverageDurationNanos() / 1e6, maxDurationNanos / 1e6);
+	}
+}
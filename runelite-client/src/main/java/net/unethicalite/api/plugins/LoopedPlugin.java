@@ -1,16 +1,18 @@
 package net.unethicalite.api.plugins;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.GameState;
+import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
-import net.unethicalite.api.commons.Time;
 import net.unethicalite.api.game.Game;
 
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -18,95 +20,142 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public abstract class LoopedPlugin extends Plugin implements Runnable
 {
-	private static final ScheduledExecutorService EXECUTOR = new LoggableExecutor(1);
-	private final AtomicInteger ticks = new AtomicInteger(0);
+	private static final int DEFAULT_SLEEP = 1000;
+	private static final int STOP = -1000;
 
-	private volatile int nextSleep = 1000;
-	private int currentSleep = 1000;
-	private int sleepUntil = 0;
+	private final AtomicInteger ticks = new AtomicInteger(0);
 
-	protected abstract int loop();
+	@Getter
+	private final LoopMetrics metrics = new LoopMetrics();
 
+	// every plugin loops on its own thread, so a slow loop only holds up itself
+	private LoggableExecutor executor;
 	private Future<?> task;
+	private CountDownLatch stopped;
+	private int wakeTick = 0;
+	private volatile long dueNanos;
+
+	protected abstract int loop();
 
+	/**
+	 * Starts looping and blocks until the plugin is stopped.
+	 */
 	@Override
 	public void run()
 	{
-		task = EXECUTOR.schedule(loopTask(), nextSleep, TimeUnit.MILLISECONDS);
+		CountDownLatch stopped;
+		synchronized (this)
+		{
+			stopped = new CountDownLatch(1);
+			this.stopped = stopped;
+			executor = new LoggableExecutor(getClass().getSimpleName());
+			schedule(DEFAULT_SLEEP);
+		}
 
-		while (task != null && !task.isCancelled())
+		try
+		{
+			stopped.await();
+		}
+		catch (InterruptedException e)
 		{
-			if (task.isCancelled())
+			Thread.currentThread().interrupt();
+			stop();
+		}
+	}
+
+	private void loopTask()
+	{
+		long start = System.nanoTime();
+		int sleep = DEFAULT_SLEEP;
+		try
+		{
+			sleep = this instanceof Script ? ((Script) this).outerLoop() : loop();
+		}
+		finally
+		{
+			metrics.record(start - dueNanos, System.nanoTime() - start);
+
+			if (sleep == STOP)
 			{
-				task = null;
-				return;
+				stop();
 			}
-
-			if (task == null || task.isDone())
+			else if (sleep < 0 && Game.isLoggedIn())
 			{
-				task = EXECUTOR.schedule(loopTask(), nextSleep, TimeUnit.MILLISECONDS);
-				continue;
+				sleepTicks(-sleep);
+			}
+			else
+			{
+				schedule(sleep < 0 ? DEFAULT_SLEEP : sleep);
 			}
-
-			Time.sleep(10);
 		}
 	}
 
-	private Runnable loopTask()
+	private synchronized void schedule(int delay)
 	{
-		return () ->
+		if (executor == null || executor.isShutdown())
 		{
-			try
-			{
-				if (nextSleep == -1000)
-				{
-					stop();
-					return;
-				}
+			return;
+		}
 
-				int currentTick = ticks.get();
-				if (sleepUntil > 0 && sleepUntil > currentTick)
-				{
-					return;
-				}
+		dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+		task = executor.schedule(this::loopTask, delay, TimeUnit.MILLISECONDS);
+	}
 
-				sleepUntil = 0;
+	/**
+	 * Parks the loop until the given amount of game ticks has passed, the next loop is scheduled from the GameTick
+	 * event instead of polling the tick count.
+	 */
+	private synchronized void sleepTicks(int ticks)
+	{
+		wakeTick = this.ticks.get() + ticks;
+	}
 
-				currentSleep = this instanceof Script ? ((Script) this).outerLoop() : loop();
-			}
-			finally
-			{
-				if (sleepUntil == 0)
-				{
-					if (currentSleep < 0 && Game.isLoggedIn())
-					{
-						int currentTick = ticks.get();
-						sleepUntil = currentTick + Math.abs(currentSleep);
-					}
-					else
-					{
-						nextSleep = currentSleep < 0 ? 1000 : currentSleep;
-					}
-				}
-			}
-		};
+	private synchronized void wake()
+	{
+		if (wakeTick == 0)
+		{
+			return;
+		}
+
+		wakeTick = 0;
+		schedule(0);
 	}
 
-	public boolean isRunning()
+	public synchronized boolean isRunning()
 	{
-		return task != null && !task.isCancelled();
+		return executor != null && !executor.isShutdown();
 	}
 
-	public void stop()
+	public synchronized void stop()
 	{
-		task.cancel(true);
+		wakeTick = 0;
+
+		if (task != null)
+		{
+			task.cancel(true);
+		}
+
+		if (executor != null)
+		{
+			executor.shutdownNow();
+		}
+
+		if (stopped != null)
+		{
+			stopped.countDown();
+		}
 	}
 
 	private static class LoggableExecutor extends ScheduledThreadPoolExecutor
 	{
-		public LoggableExecutor(int corePoolSize)
+		public LoggableExecutor(String name)
 		{
-			super(corePoolSize);
+			super(1, r ->
+			{
+				Thread thread = new Thread(r, name + "-loop");
+				thread.setDaemon(true);
+				return thread;
+			});
 		}
 
 		protected void afterExecute(Runnable r, Throwable t)
@@ -124,7 +173,7 @@ public abstract class LoopedPlugin extends Plugin implements Runnable
 				}
 				catch (CancellationException ce)
 				{
-					t = ce;
+					// the plugin was stopped
 				}
 				catch (ExecutionException ee)
 				{
@@ -146,6 +195,31 @@ public abstract class LoopedPlugin extends Plugin implements Runnable
 	@Subscribe
 	private void tickCounter(GameTick gameTick)
 	{
-		ticks.incrementAndGet();
+		int tick = ticks.incrementAndGet();
+		synchronized (this)
+		{
+			if (tick >= wakeTick)
+			{
+				wake();
+			}
+		}
+	}
+
+	@Subscribe
+	private void wakeOnLogout(GameStateChanged gameStateChanged)
+	{
+		// no more ticks are coming, loop again after the default sleep as a logged out script would
+		GameState state = gameStateChanged.getGameState();
+		if (state != GameState.LOGGED_IN && state != GameState.LOADING)
+		{
+			synchronized (this)
+			{
+				if (wakeTick != 0)
+				{
+					wakeTick = 0;
+					schedule(DEFAULT_SLEEP);
+				}
+			}
+		}
 	}
 }
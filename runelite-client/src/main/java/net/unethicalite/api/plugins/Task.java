@@ -1,5 +1,8 @@
 package net.unethicalite.api.plugins;
 
+import java.util.Collections;
+import java.util.Set;
+
 public interface Task
 {
 	boolean validate();
@@ -15,4 +18,30 @@ public interface Task
 	{
 		return false;
 	}
+
+	/**
+	 * @return the only state {@link #validate()} depends on, its result is reused until one of them changes. Tasks which
+	 * don't declare any are validated on every loop.
+	 */
+	default Set<TaskInput> getInputs()
+	{
+		return Collections.emptySet();
+	}
+
+	/**
+	 * @return the priority of the task, higher priority tasks are validated first. Tasks with the same priority keep
+	 * their order.
+	 */
+	default int getPriority()
+	{
+		return 0;
+	}
+
+	/**
+	 * @return true if this non-blocking task may run on another thread, alongside the tasks after it
+	 */
+	default boolean isParallel()
+	{
+		return false;
+	}
 }
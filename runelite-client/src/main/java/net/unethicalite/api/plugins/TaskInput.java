@@ -0,0 +1,20 @@
+package net.unethicalite.api.plugins;
+
+/**
+ * Client state a {@link Task#validate()} reads. A {@link TaskPlugin} reuses the last validation result of a task until
+ * one of its inputs changes.
+ */
+public enum TaskInput
+{
+	INVENTORY,
+	EQUIPMENT,
+	/**
+	 * The tile the local player stands on
+	 */
+	POSITION,
+	VARBITS,
+	/**
+	 * The animation of the local player
+	 */
+	ANIMATION
+}
@@ -1,24 +1,254 @@
 package net.unethicalite.api.plugins;
 
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.eventbus.Subscribe;
+import net.unethicalite.client.Static;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+@Slf4j
 public abstract class TaskPlugin extends LoopedPlugin
 {
+	private static final ExecutorService PARALLEL_EXECUTOR = Executors.newCachedThreadPool(r ->
+	{
+		Thread thread = new Thread(r, "parallel-task");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// bumped on the client thread whenever an input changes
+	private final AtomicIntegerArray versions = new AtomicIntegerArray(TaskInput.values().length);
+	private WorldPoint lastPosition;
+	// the parallel tasks run on a shared executor, which stopping the loop doesn't shut down
+	private final Set<Future<?>> parallelTasks = ConcurrentHashMap.newKeySet();
+
+	// only touched by the loop thread
+	private Task[] tasks = new Task[0];
+	private Task[] ordered = new Task[0];
+	private Validation[] validations = new Validation[0];
+
 	public abstract Task[] getTasks();
 
 	@Override
 	protected int loop()
 	{
-		for (Task task : getTasks())
+		update(getTasks());
+
+		for (int i = 0; i < ordered.length; i++)
 		{
-			if (task.validate())
+			Task task = ordered[i];
+			Validation validation = validations[i];
+			if (validation.isRunning() || !validate(task, validation))
+			{
+				continue;
+			}
+
+			if (task.isParallel() && !task.isBlocking())
 			{
-				int delay = task.execute();
-				if (task.isBlocking())
+				Future<?> future = PARALLEL_EXECUTOR.submit(() ->
+				{
+					try
+					{
+						task.execute();
+					}
+					catch (Exception e)
+					{
+						log.error("Error in parallel task {}", task.getClass().getSimpleName(), e);
+					}
+					finally
+					{
+						validation.invalidate();
+					}
+				});
+
+				validation.running = future;
+				parallelTasks.removeIf(Future::isDone);
+				parallelTasks.add(future);
+				// stop() interrupts the loop, it may have missed the task that was just added
+				if (Thread.currentThread().isInterrupted())
 				{
-					return delay;
+					future.cancel(true);
 				}
+
+				continue;
+			}
+
+			int delay = task.execute();
+			// the task likely acted on the state it validated
+			validation.invalidate();
+			if (task.isBlocking())
+			{
+				return delay;
 			}
 		}
 
 		return 1000;
 	}
+
+	@Override
+	public synchronized void stop()
+	{
+		super.stop();
+
+		for (Future<?> future : parallelTasks)
+		{
+			future.cancel(true);
+		}
+
+		parallelTasks.clear();
+	}
+
+	private boolean validate(Task task, Validation validation)
+	{
+		if (validation.inputs.length == 0)
+		{
+			return task.validate();
+		}
+
+		if (validation.cached && !validation.changed(versions))
+		{
+			return validation.valid;
+		}
+
+		// read before validating, so changes made while validating invalidate the result
+		validation.update(versions);
+		validation.valid = task.validate();
+		validation.cached = true;
+		return validation.valid;
+	}
+
+	/**
+	 * Sorts the tasks by priority, unless they are the same tasks as during the previous loop.
+	 */
+	private void update(Task[] tasks)
+	{
+		if (Arrays.equals(this.tasks, tasks))
+		{
+			return;
+		}
+
+		this.tasks = tasks.clone();
+		ordered = tasks.clone();
+		Arrays.sort(ordered, Comparator.comparingInt(Task::getPriority).reversed());
+		validations = new Validation[ordered.length];
+		for (int i = 0; i < ordered.length; i++)
+		{
+			validations[i] = new Validation(ordered[i].getInputs().toArray(new TaskInput[0]));
+		}
+	}
+
+	private void changed(TaskInput input)
+	{
+		versions.incrementAndGet(input.ordinal());
+	}
+
+	@Subscribe
+	private void invalidateItems(ItemContainerChanged event)
+	{
+		if (event.getContainerId() == InventoryID.INVENTORY.getId())
+		{
+			changed(TaskInput.INVENTORY);
+		}
+		else if (event.getContainerId() == InventoryID.EQUIPMENT.getId())
+		{
+			changed(TaskInput.EQUIPMENT);
+		}
+	}
+
+	@Subscribe
+	private void invalidateVarbits(VarbitChanged event)
+	{
+		changed(TaskInput.VARBITS);
+	}
+
+	@Subscribe
+	private void invalidateAnimation(AnimationChanged event)
+	{
+		if (event.getActor() == Static.getClient().getLocalPlayer())
+		{
+			changed(TaskInput.ANIMATION);
+		}
+	}
+
+	@Subscribe
+	private void invalidatePosition(GameTick event)
+	{
+		Player local = Static.getClient().getLocalPlayer();
+		WorldPoint position = local == null ? null : local.getWorldLocation();
+		if (position != null && !position.equals(lastPosition))
+		{
+			lastPosition = position;
+			changed(TaskInput.POSITION);
+		}
+	}
+
+	@Subscribe
+	private void invalidateAll(GameStateChanged event)
+	{
+		for (TaskInput input : TaskInput.values())
+		{
+			changed(input);
+		}
+	}
+
+	private static class Validation
+	{
+		private final TaskInput[] inputs;
+		private final int[] seen;
+		private volatile boolean cached;
+		private boolean valid;
+		private Future<?> running;
+
+		private Validation(TaskInput[] inputs)
+		{
+			this.inputs = inputs;
+			this.seen = new int[inputs.length];
+		}
+
+		private boolean changed(AtomicIntegerArray versions)
+		{
+			for (int i = 0; i < inputs.length; i++)
+			{
+				if (versions.get(inputs[i].ordinal()) != seen[i])
+				{
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		private void update(AtomicIntegerArray versions)
+		{
+			for (int i = 0; i < inputs.length; i++)
+			{
+				seen[i] = versions.get(inputs[i].ordinal());
+			}
+		}
+
+		private void invalidate()
+		{
+			cached = false;
+		}
+
+		private boolean isRunning()
+		{
+			return running != null && !running.isDone();
+		}
+	}
 }
@@ -1,15 +1,16 @@
 package net.unethicalite.api.query;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 public abstract class Query<T, Q, R> implements Predicate<T>
 {
 	protected final Supplier<List<T>> supplier;
 
 	private Predicate<T> customFilter = null;
+	private QueryPlan<T> plan = null;
 
 	protected Query(Supplier<List<T>> supplier)
 	{
@@ -18,7 +19,34 @@ public abstract class Query<T, Q, R> implements Predicate<T>
 
 	public R results()
 	{
-		return results(supplier.get().stream().filter(this).collect(Collectors.toList()));
+		QueryPlan<T> plan = plan();
+		List<T> out = new ArrayList<>();
+		for (T t : candidates())
+		{
+			if (plan.test(t))
+			{
+				out.add(t);
+			}
+		}
+
+		return results(out);
+	}
+
+	/**
+	 * @return the first match, without collecting the other results
+	 */
+	public T first()
+	{
+		QueryPlan<T> plan = plan();
+		for (T t : candidates())
+		{
+			if (plan.test(t))
+			{
+				return t;
+			}
+		}
+
+		return null;
 	}
 
 	public Q filter(Predicate<T> filter)
@@ -33,13 +61,56 @@ public abstract class Query<T, Q, R> implements Predicate<T>
 			customFilter = filter;
 		}
 
-		return (Q) this;
+		return modified();
 	}
 
 	@Override
 	public boolean test(T t)
 	{
-		return customFilter == null || customFilter.test(t);
+		return plan().test(t);
+	}
+
+	/**
+	 * Adds a step for every criterion that is set, cheapest first. Custom filters are added last.
+	 */
+	protected void compile(List<Predicate<? super T>> steps)
+	{
+	}
+
+	/**
+	 * @return the entities to test, subclasses may narrow them down using an index
+	 */
+	protected List<T> candidates()
+	{
+		return supplier.get();
+	}
+
+	/**
+	 * Discards the compiled plan, must be called whenever a criterion changes.
+	 */
+	protected final Q modified()
+	{
+		plan = null;
+		return (Q) this;
+	}
+
+	private QueryPlan<T> plan()
+	{
+		QueryPlan<T> plan = this.plan;
+		if (plan == null)
+		{
+			List<Predicate<? super T>> steps = new ArrayList<>();
+			compile(steps);
+			if (customFilter != null)
+			{
+				steps.add(customFilter);
+			}
+
+			plan = new QueryPlan<>(steps);
+			this.plan = plan;
+		}
+
+		return plan;
 	}
 
 	protected abstract R results(List<T> list);
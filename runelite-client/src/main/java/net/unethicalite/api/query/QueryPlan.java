@@ -0,0 +1,91 @@
+package net.unethicalite.api.query;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * The criteria of a {@link Query}, compiled into a flat array of steps which are tested in order.
+ * A plan is compiled once and reused until the query is modified.
+ */
+public final class QueryPlan<T> implements Predicate<T>
+{
+	private static final int LINEAR_SEARCH_LIMIT = 4;
+
+	private final Predicate<? super T>[] steps;
+
+	QueryPlan(List<Predicate<? super T>> steps)
+	{
+		this.steps = steps.toArray(new Predicate[0]);
+	}
+
+	@Override
+	public boolean test(T t)
+	{
+		for (Predicate<? super T> step : steps)
+		{
+			if (!step.test(t))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return a predicate matching any of the values, backed by a sorted copy of them
+	 */
+	public static IntPredicate anyOf(int... values)
+	{
+		int[] sorted = values.clone();
+		if (sorted.length <= LINEAR_SEARCH_LIMIT)
+		{
+			return value ->
+			{
+				for (int v : sorted)
+				{
+					if (v == value)
+					{
+						return true;
+					}
+				}
+
+				return false;
+			};
+		}
+
+		Arrays.sort(sorted);
+		return value -> Arrays.binarySearch(sorted, value) >= 0;
+	}
+
+	/**
+	 * @return a predicate matching any of the values, null included
+	 */
+	@SafeVarargs
+	public static <V> Predicate<V> anyOf(V... values)
+	{
+		if (values.length <= LINEAR_SEARCH_LIMIT)
+		{
+			V[] copy = values.clone();
+			return value ->
+			{
+				for (V v : copy)
+				{
+					if (v == null ? value == null : v.equals(value))
+					{
+						return true;
+					}
+				}
+
+				return false;
+			};
+		}
+
+		Set<V> set = new HashSet<>(Arrays.asList(values));
+		return set::contains;
+	}
+}
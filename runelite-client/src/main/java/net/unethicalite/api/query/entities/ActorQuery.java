@@ -1,10 +1,12 @@
 package net.unethicalite.api.query.entities;
 
 import net.unethicalite.api.Interactable;
+import net.unethicalite.api.query.QueryPlan;
 import net.runelite.api.Actor;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public abstract class ActorQuery<T extends Actor, Q extends ActorQuery<T, Q>>
@@ -23,50 +25,54 @@ public abstract class ActorQuery<T extends Actor, Q extends ActorQuery<T, Q>>
 	public Q levels(int... levels)
 	{
 		this.levels = levels;
-		return (Q) this;
+		return modified();
 	}
 
 	public Q animations(int... animations)
 	{
 		this.animations = animations;
-		return (Q) this;
+		return modified();
 	}
 
 	public Q targeting(Interactable... targets)
 	{
 		this.targeting = targets;
-		return (Q) this;
+		return modified();
 	}
 
 	public Q moving(Boolean moving)
 	{
 		this.moving = moving;
-		return (Q) this;
+		return modified();
 	}
 
 	@Override
-	public boolean test(T t)
+	protected void compile(List<Predicate<? super T>> steps)
 	{
-		if (levels != null && ArrayUtils.contains(levels, t.getCombatLevel()))
+		super.compile(steps);
+
+		if (levels != null)
 		{
-			return false;
+			IntPredicate levels = QueryPlan.anyOf(this.levels);
+			steps.add(t -> !levels.test(t.getCombatLevel()));
 		}
 
-		if (animations != null && ArrayUtils.contains(animations, t.getAnimation()))
+		if (animations != null)
 		{
-			return false;
+			IntPredicate animations = QueryPlan.anyOf(this.animations);
+			steps.add(t -> !animations.test(t.getAnimation()));
 		}
 
-		if (moving != null && moving != t.isMoving())
+		if (moving != null)
 		{
-			return false;
+			boolean moving = this.moving;
+			steps.add(t -> moving == t.isMoving());
 		}
 
-		if (targeting != null && !ArrayUtils.contains(targeting, t.getInteracting()))
+		if (targeting != null)
 		{
-			return false;
+			Predicate<Object> targeting = QueryPlan.<Object>anyOf(this.targeting);
+			steps.add(t -> targeting.test(t.getInteracting()));
 		}
-
-		return super.test(t);
 	}
 }
@@ -1,10 +1,12 @@
 package net.unethicalite.api.query.entities;
 
+import net.unethicalite.api.query.QueryPlan;
 import net.unethicalite.api.query.results.SceneEntityQueryResults;
 import net.runelite.api.NPC;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class NPCQuery extends ActorQuery<NPC, NPCQuery>
@@ -19,7 +21,7 @@ public class NPCQuery extends ActorQuery<NPC, NPCQuery>
 	public NPCQuery indices(int... indices)
 	{
 		this.indices = indices;
-		return this;
+		return modified();
 	}
 
 	@Override
@@ -29,13 +31,14 @@ public class NPCQuery extends ActorQuery<NPC, NPCQuery>
 	}
 
 	@Override
-	public boolean test(NPC npc)
+	protected void compile(List<Predicate<? super NPC>> steps)
 	{
-		if (indices != null && !ArrayUtils.contains(indices, npc.getIndex()))
+		super.compile(steps);
+
+		if (indices != null)
 		{
-			return false;
+			IntPredicate indices = QueryPlan.anyOf(this.indices);
+			steps.add(npc -> indices.test(npc.getIndex()));
 		}
-
-		return super.test(npc);
 	}
 }
@@ -1,10 +1,12 @@
 package net.unethicalite.api.query.entities;
 
+import net.unethicalite.api.query.QueryPlan;
 import net.unethicalite.api.query.results.SceneEntityQueryResults;
 import net.runelite.api.Player;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class PlayerQuery extends ActorQuery<Player, PlayerQuery>
@@ -19,7 +21,7 @@ public class PlayerQuery extends ActorQuery<Player, PlayerQuery>
 	public PlayerQuery playerIds(int... pids)
 	{
 		this.pids = pids;
-		return this;
+		return modified();
 	}
 
 	@Override
@@ -29,13 +31,14 @@ public class PlayerQuery extends ActorQuery<Player, PlayerQuery>
 	}
 
 	@Override
-	public boolean test(Player player)
+	protected void compile(List<Predicate<? super Player>> steps)
 	{
-		if (pids != null && !ArrayUtils.contains(pids, player.getIndex()))
+		super.compile(steps);
+
+		if (pids != null)
 		{
-			return false;
+			IntPredicate pids = QueryPlan.anyOf(this.pids);
+			steps.add(player -> pids.test(player.getIndex()));
 		}
-
-		return super.test(player);
 	}
 }
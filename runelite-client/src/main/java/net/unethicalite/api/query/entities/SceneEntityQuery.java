@@ -4,14 +4,18 @@ import net.unethicalite.api.SceneEntity;
 import net.unethicalite.api.commons.Predicates;
 import net.unethicalite.api.entities.Players;
 import net.unethicalite.api.query.Query;
+import net.unethicalite.api.query.QueryPlan;
 import net.unethicalite.api.query.results.SceneEntityQueryResults;
+import net.unethicalite.client.Static;
 import net.runelite.api.Locatable;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public abstract class SceneEntityQuery<T extends SceneEntity, Q extends SceneEntityQuery<T, Q>>
@@ -24,40 +28,50 @@ public abstract class SceneEntityQuery<T extends SceneEntity, Q extends SceneEnt
 	private String[] actions = null;
 	private WorldPoint[] locations = null;
 	private LocalPoint[] localLocations = null;
+	private final Function<int[], List<T>> idSource;
 
 	protected SceneEntityQuery(Supplier<List<T>> supplier)
+	{
+		this(supplier, null);
+	}
+
+	/**
+	 * @param idSource looks up the entities with any of the given ids, used instead of the supplier when ids are set
+	 */
+	protected SceneEntityQuery(Supplier<List<T>> supplier, Function<int[], List<T>> idSource)
 	{
 		super(supplier);
+		this.idSource = idSource;
 	}
 
 	public Q ids(int... ids)
 	{
 		this.ids = ids;
-		return (Q) this;
+		return modified();
 	}
 
 	public Q names(String... names)
 	{
 		this.names = names;
-		return (Q) this;
+		return modified();
 	}
 
 	public Q actions(String... actions)
 	{
 		this.actions = actions;
-		return (Q) this;
+		return modified();
 	}
 
 	public Q locations(WorldPoint... locations)
 	{
 		this.locations = locations;
-		return (Q) this;
+		return modified();
 	}
 
 	public Q localLocations(LocalPoint... localLocations)
 	{
 		this.localLocations = localLocations;
-		return (Q) this;
+		return modified();
 	}
 
 	public Q distance(Locatable source, int maxDistance)
@@ -69,56 +83,130 @@ public abstract class SceneEntityQuery<T extends SceneEntity, Q extends SceneEnt
 	{
 		this.distanceSrc = source;
 		this.maxDistance = maxDistance;
-		return (Q) this;
+		return modified();
 	}
 
 	public Q distance(int maxDistance)
 	{
 		this.maxDistance = maxDistance;
-		return (Q) this;
+		return modified();
+	}
+
+	/**
+	 * @return the nearest match to the local player, without collecting or sorting the other results
+	 */
+	public T nearest()
+	{
+		return nearest(Players.getLocal().getWorldLocation());
+	}
+
+	public T nearest(Locatable to)
+	{
+		return nearest(to.getWorldLocation());
+	}
+
+	public T nearest(WorldPoint to)
+	{
+		T nearest = null;
+		int nearestDistance = Integer.MAX_VALUE;
+		for (T t : candidates())
+		{
+			if (!test(t))
+			{
+				continue;
+			}
+
+			int distance = t.distanceTo(to);
+			if (nearest == null || distance < nearestDistance)
+			{
+				nearest = t;
+				nearestDistance = distance;
+			}
+		}
+
+		return nearest;
 	}
 
 	@Override
-	public boolean test(T t)
+	protected List<T> candidates()
 	{
-		if (ids != null && !ArrayUtils.contains(ids, t.getId()))
+		if (ids != null && idSource != null)
 		{
-			return false;
+			return idSource.apply(ids);
 		}
 
-		if (names != null && !ArrayUtils.contains(names, t.getName()))
+		return super.candidates();
+	}
+
+	@Override
+	protected void compile(List<Predicate<? super T>> steps)
+	{
+		if (ids != null)
 		{
-			return false;
+			IntPredicate ids = QueryPlan.anyOf(this.ids);
+			steps.add(t -> ids.test(t.getId()));
 		}
 
-		if (locations != null && !ArrayUtils.contains(locations, t.getWorldLocation()))
+		if (locations != null)
 		{
-			return false;
+			Predicate<WorldPoint> locations = QueryPlan.anyOf(this.locations);
+			steps.add(t -> locations.test(t.getWorldLocation()));
 		}
 
-		if (localLocations != null && !ArrayUtils.contains(localLocations, t.getLocalLocation()))
+		if (localLocations != null)
 		{
-			return false;
+			Predicate<LocalPoint> localLocations = QueryPlan.anyOf(this.localLocations);
+			steps.add(t -> localLocations.test(t.getLocalLocation()));
 		}
 
-		if (actions != null && Arrays.stream(actions).noneMatch(Predicates.texts(t.getActions())))
+		if (names != null)
 		{
-			return false;
+			Predicate<String> names = QueryPlan.anyOf(this.names);
+			steps.add(t -> names.test(t.getName()));
+		}
+
+		if (actions != null)
+		{
+			String[] actions = this.actions;
+			steps.add(t -> Arrays.stream(actions).anyMatch(Predicates.texts(t.getActions())));
 		}
 
 		if (maxDistance != null)
 		{
-			if (distanceSrc == null)
+			int maxDistance = this.maxDistance;
+			if (distanceSrc != null)
 			{
-				distanceSrc = Players.getLocal().getWorldLocation();
+				WorldPoint origin = distanceSrc;
+				steps.add(t -> origin.distanceTo(t.getWorldLocation()) <= maxDistance);
 			}
-
-			if (distanceSrc.distanceTo(t.getWorldLocation()) > maxDistance)
+			else
 			{
-				return false;
+				PlayerLocation origin = new PlayerLocation();
+				steps.add(t -> origin.get().distanceTo(t.getWorldLocation()) <= maxDistance);
 			}
 		}
 
-		return super.test(t);
+		super.compile(steps);
+	}
+
+	/**
+	 * The local player's location, looked up at most once per client cycle instead of once per tested entity.
+	 */
+	private static final class PlayerLocation
+	{
+		private int cycle = -1;
+		private WorldPoint location;
+
+		private WorldPoint get()
+		{
+			int cycle = Static.getClient().getGameCycle();
+			if (location == null || cycle != this.cycle)
+			{
+				location = Players.getLocal().getWorldLocation();
+				this.cycle = cycle;
+			}
+
+			return location;
+		}
 	}
 }
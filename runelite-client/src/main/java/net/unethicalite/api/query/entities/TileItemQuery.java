@@ -1,13 +1,15 @@
 package net.unethicalite.api.query.entities;
 
 import net.unethicalite.api.commons.Predicates;
+import net.unethicalite.api.query.QueryPlan;
 import net.unethicalite.api.query.results.SceneEntityQueryResults;
 import net.runelite.api.Tile;
 import net.runelite.api.TileItem;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class TileItemQuery extends SceneEntityQuery<TileItem, TileItemQuery>
@@ -29,49 +31,49 @@ public class TileItemQuery extends SceneEntityQuery<TileItem, TileItemQuery>
 	public TileItemQuery quantities(int... quantities)
 	{
 		this.quantities = quantities;
-		return this;
+		return modified();
 	}
 
 	public TileItemQuery tiles(Tile... tiles)
 	{
 		this.tiles = tiles;
-		return this;
+		return modified();
 	}
 
 	public TileItemQuery tradable(boolean tradable)
 	{
 		this.tradable = tradable;
-		return this;
+		return modified();
 	}
 
 	public TileItemQuery stackable(boolean stackable)
 	{
 		this.stackable = stackable;
-		return this;
+		return modified();
 	}
 
 	public TileItemQuery noted(boolean noted)
 	{
 		this.noted = noted;
-		return this;
+		return modified();
 	}
 
 	public TileItemQuery members(boolean members)
 	{
 		this.members = members;
-		return this;
+		return modified();
 	}
 
 	public TileItemQuery storePrice(int storePrice)
 	{
 		this.storePrice = storePrice;
-		return this;
+		return modified();
 	}
 
 	public TileItemQuery inventoryActions(String... inventoryActions)
 	{
 		this.inventoryActions = inventoryActions;
-		return this;
+		return modified();
 	}
 
 	@Override
@@ -81,49 +83,56 @@ public class TileItemQuery extends SceneEntityQuery<TileItem, TileItemQuery>
 	}
 
 	@Override
-	public boolean test(TileItem tileItem)
+	protected void compile(List<Predicate<? super TileItem>> steps)
 	{
-		if (quantities != null && !ArrayUtils.contains(quantities, tileItem.getQuantity()))
+		super.compile(steps);
+
+		if (quantities != null)
 		{
-			return false;
+			IntPredicate quantities = QueryPlan.anyOf(this.quantities);
+			steps.add(tileItem -> quantities.test(tileItem.getQuantity()));
 		}
 
-		if (tiles != null && !ArrayUtils.contains(tiles, tileItem.getTile()))
+		if (tiles != null)
 		{
-			return false;
+			Predicate<Tile> tiles = QueryPlan.anyOf(this.tiles);
+			steps.add(tileItem -> tiles.test(tileItem.getTile()));
 		}
 
-		if (tradable != null && !tradable.equals(tileItem.isTradable()))
+		if (tradable != null)
 		{
-			return false;
+			boolean tradable = this.tradable;
+			steps.add(tileItem -> tradable == tileItem.isTradable());
 		}
 
-		if (stackable != null && !stackable.equals(tileItem.isStackable()))
+		if (stackable != null)
 		{
-			return false;
+			boolean stackable = this.stackable;
+			steps.add(tileItem -> stackable == tileItem.isStackable());
 		}
 
-		if (noted != null && !noted.equals(tileItem.isNoted()))
+		if (noted != null)
 		{
-			return false;
+			boolean noted = this.noted;
+			steps.add(tileItem -> noted == tileItem.isNoted());
 		}
 
-		if (members != null && !members.equals(tileItem.isMembers()))
+		if (members != null)
 		{
-			return false;
+			boolean members = this.members;
+			steps.add(tileItem -> members == tileItem.isMembers());
 		}
 
-		if (storePrice != null && !storePrice.equals(tileItem.getStorePrice()))
+		if (storePrice != null)
 		{
-			return false;
+			int storePrice = this.storePrice;
+			steps.add(tileItem -> storePrice == tileItem.getStorePrice());
 		}
 
-		if (inventoryActions != null
-				&& Arrays.stream(inventoryActions).noneMatch(Predicates.texts(tileItem.getInventoryActions())))
+		if (inventoryActions != null)
 		{
-			return false;
+			String[] inventoryActions = this.inventoryActions;
+			steps.add(tileItem -> Arrays.stream(inventoryActions).anyMatch(Predicates.texts(tileItem.getInventoryActions())));
 		}
-
-		return super.test(tileItem);
 	}
 }
@@ -1,13 +1,15 @@
 package net.unethicalite.api.query.entities;
 
+import net.unethicalite.api.query.QueryPlan;
 import net.unethicalite.api.query.results.SceneEntityQueryResults;
 import net.unethicalite.api.scene.Tiles;
 import net.runelite.api.Tile;
 import net.runelite.api.TileObject;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class TileObjectQuery extends SceneEntityQuery<TileObject, TileObjectQuery>
@@ -20,17 +22,22 @@ public class TileObjectQuery extends SceneEntityQuery<TileObject, TileObjectQuer
 		super(supplier);
 	}
 
+	public TileObjectQuery(Supplier<List<TileObject>> supplier, Function<int[], List<TileObject>> idSource)
+	{
+		super(supplier, idSource);
+	}
+
 	public TileObjectQuery tiles(Tile... tiles)
 	{
 		this.tiles = tiles;
-		return this;
+		return modified();
 	}
 
 	@SafeVarargs
 	public final TileObjectQuery is(Class<? extends TileObject>... classes)
 	{
 		this.is = classes;
-		return this;
+		return modified();
 	}
 
 	@Override
@@ -40,18 +47,20 @@ public class TileObjectQuery extends SceneEntityQuery<TileObject, TileObjectQuer
 	}
 
 	@Override
-	public boolean test(TileObject tileObject)
+	protected void compile(List<Predicate<? super TileObject>> steps)
 	{
-		if (tiles != null && !ArrayUtils.contains(tiles, Tiles.getAt(tileObject.getWorldLocation())))
+		super.compile(steps);
+
+		if (tiles != null)
 		{
-			return false;
+			Predicate<Tile> tiles = QueryPlan.anyOf(this.tiles);
+			steps.add(tileObject -> tiles.test(Tiles.getAt(tileObject.getWorldLocation())));
 		}
 
-		if (is != null && Arrays.stream(is).noneMatch(clazz -> clazz.isInstance(tileObject)))
+		if (is != null)
 		{
-			return false;
+			Class<? extends TileObject>[] is = this.is;
+			steps.add(tileObject -> Arrays.stream(is).anyMatch(clazz -> clazz.isInstance(tileObject)));
 		}
-
-		return super.test(tileObject);
 	}
 }
@@ -2,12 +2,14 @@ package net.unethicalite.api.query.items;
 
 import net.unethicalite.api.commons.Predicates;
 import net.unethicalite.api.query.Query;
+import net.unethicalite.api.query.QueryPlan;
 import net.unethicalite.api.query.results.ItemQueryResults;
 import net.runelite.api.Item;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class ItemQuery extends Query<Item, ItemQuery, ItemQueryResults>
@@ -31,61 +33,61 @@ public class ItemQuery extends Query<Item, ItemQuery, ItemQueryResults>
 	public ItemQuery ids(int... ids)
 	{
 		this.ids = ids;
-		return this;
+		return modified();
 	}
 
 	public ItemQuery notedIds(int... notedIds)
 	{
 		this.notedIds = notedIds;
-		return this;
+		return modified();
 	}
 
 	public ItemQuery slots(int... slots)
 	{
 		this.slots = slots;
-		return this;
+		return modified();
 	}
 
 	public ItemQuery names(String... names)
 	{
 		this.names = names;
-		return this;
+		return modified();
 	}
 
 	public ItemQuery actions(String... actions)
 	{
 		this.actions = actions;
-		return this;
+		return modified();
 	}
 
 	public ItemQuery tradable(boolean tradable)
 	{
 		this.tradable = tradable;
-		return this;
+		return modified();
 	}
 
 	public ItemQuery stackable(boolean stackable)
 	{
 		this.stackable = stackable;
-		return this;
+		return modified();
 	}
 
 	public ItemQuery members(boolean members)
 	{
 		this.members = members;
-		return this;
+		return modified();
 	}
 
 	public ItemQuery noted(boolean noted)
 	{
 		this.noted = noted;
-		return this;
+		return modified();
 	}
 
 	public ItemQuery storePrice(int storePrice)
 	{
 		this.storePrice = storePrice;
-		return this;
+		return modified();
 	}
 
 	@Override
@@ -95,58 +97,68 @@ public class ItemQuery extends Query<Item, ItemQuery, ItemQueryResults>
 	}
 
 	@Override
-	public boolean test(Item item)
+	protected void compile(List<Predicate<? super Item>> steps)
 	{
-		if (ids != null && !ArrayUtils.contains(ids, item.getId()))
+		if (ids != null)
 		{
-			return false;
+			IntPredicate ids = QueryPlan.anyOf(this.ids);
+			steps.add(item -> ids.test(item.getId()));
 		}
 
-		if (notedIds != null && !ArrayUtils.contains(notedIds, item.getId()))
+		if (notedIds != null)
 		{
-			return false;
+			IntPredicate notedIds = QueryPlan.anyOf(this.notedIds);
+			steps.add(item -> notedIds.test(item.getId()));
 		}
 
-		if (slots != null && !ArrayUtils.contains(slots, item.getSlot()))
+		if (slots != null)
 		{
-			return false;
+			IntPredicate slots = QueryPlan.anyOf(this.slots);
+			steps.add(item -> slots.test(item.getSlot()));
 		}
 
-		if (names != null && !ArrayUtils.contains(names, item.getName()))
+		if (names != null)
 		{
-			return false;
+			Predicate<String> names = QueryPlan.anyOf(this.names);
+			steps.add(item -> names.test(item.getName()));
 		}
 
-		if (actions != null && Arrays.stream(actions).noneMatch(Predicates.texts(item.getActions())))
+		if (actions != null)
 		{
-			return false;
+			String[] actions = this.actions;
+			steps.add(item -> Arrays.stream(actions).anyMatch(Predicates.texts(item.getActions())));
 		}
 
-		if (tradable != null && tradable != item.isTradable())
+		if (tradable != null)
 		{
-			return false;
+			boolean tradable = this.tradable;
+			steps.add(item -> tradable == item.isTradable());
 		}
 
-		if (stackable != null && stackable != item.isStackable())
+		if (stackable != null)
 		{
-			return false;
+			boolean stackable = this.stackable;
+			steps.add(item -> stackable == item.isStackable());
 		}
 
-		if (members != null && members != item.isMembers())
+		if (members != null)
 		{
-			return false;
+			boolean members = this.members;
+			steps.add(item -> members == item.isMembers());
 		}
 
-		if (noted != null && noted != item.isNoted())
+		if (noted != null)
 		{
-			return false;
+			boolean noted = this.noted;
+			steps.add(item -> noted == item.isNoted());
 		}
 
-		if (storePrice != null && storePrice != item.getStorePrice())
+		if (storePrice != null)
 		{
-			return false;
+			int storePrice = this.storePrice;
+			steps.add(item -> storePrice == item.getStorePrice());
 		}
 
-		return super.test(item);
+		super.compile(steps);
 	}
 }
@@ -5,9 +5,16 @@ import net.unethicalite.api.entities.Players;
 import net.runelite.api.Locatable;
 import net.runelite.api.coords.WorldPoint;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.IntFunction;
 
+/**
+ * Distances here are the tile distance of {@link Locatable#distanceTo(WorldPoint)}, so that rings and walking
+ * ranges line up, while {@link net.unethicalite.api.entities.Entities} picks the nearest entity by straight-line
+ * distance. The two can choose different entities when one is diagonal to the source.
+ */
 public class SceneEntityQueryResults<T extends SceneEntity> extends QueryResults<T, SceneEntityQueryResults<T>>
 {
 	public SceneEntityQueryResults(List<T> results)
@@ -32,31 +39,261 @@ public class SceneEntityQueryResults<T extends SceneEntity> extends QueryResults
 
 	public T nearest()
 	{
-		return sortedByDistance().first();
+		return nearest(Players.getLocal().getWorldLocation());
 	}
 
 	public T nearest(Locatable to)
 	{
-		return sortedByDistance(to).first();
+		return nearest(to.getWorldLocation());
 	}
 
+	/**
+	 * @return the first of the nearest entities, the same one {@link #sortedByDistance(WorldPoint)} would put first
+	 */
 	public T nearest(WorldPoint to)
 	{
-		return sortedByDistance(to).first();
+		T nearest = null;
+		int nearestDistance = Integer.MAX_VALUE;
+		for (T entity : results)
+		{
+			int distance = entity.distanceTo(to);
+			if (nearest == null || distance < nearestDistance)
+			{
+				nearest = entity;
+				nearestDistance = distance;
+			}
+		}
+
+		return nearest;
+	}
+
+	public SceneEntityQueryResults<T> nearest(int k)
+	{
+		return nearest(Players.getLocal().getWorldLocation(), k);
+	}
+
+	public SceneEntityQueryResults<T> nearest(Locatable to, int k)
+	{
+		return nearest(to.getWorldLocation(), k);
+	}
+
+	/**
+	 * Keeps the k nearest entities, ordered by distance. Uses a heap bounded to k entries instead of sorting
+	 * all results, ties keep their original order.
+	 */
+	public SceneEntityQueryResults<T> nearest(WorldPoint to, int k)
+	{
+		if (k <= 0)
+		{
+			results.clear();
+			return this;
+		}
+
+		int[] distances = distances(to);
+		int[] heap = new int[Math.min(k, distances.length)];
+		int size = 0;
+		for (int i = 0; i < distances.length; i++)
+		{
+			if (size < heap.length)
+			{
+				heap[size] = i;
+				siftUp(heap, size++, distances);
+			}
+			else if (isBefore(i, heap[0], distances))
+			{
+				heap[0] = i;
+				siftDown(heap, size, distances);
+			}
+		}
+
+		// popping the farthest off the heap fills the result from the back
+		for (int end = size - 1; end > 0; end--)
+		{
+			int farthest = heap[0];
+			heap[0] = heap[end];
+			heap[end] = farthest;
+			siftDown(heap, end, distances);
+		}
+
+		replace(size, i -> results.get(heap[i]));
+		return this;
+	}
+
+	public SceneEntityQueryResults<T> within(int radius)
+	{
+		return within(Players.getLocal().getWorldLocation(), radius);
+	}
+
+	public SceneEntityQueryResults<T> within(Locatable to, int radius)
+	{
+		return within(to.getWorldLocation(), radius);
+	}
+
+	/**
+	 * Keeps the entities within the radius, ordered by the Chebyshev ring around the source tile they are on.
+	 * The rings are filled in one pass like a counting sort, which is linear in the number of results.
+	 */
+	public SceneEntityQueryResults<T> within(WorldPoint to, int radius)
+	{
+		int[] distances = distances(to);
+		for (int i = 0; i < distances.length; i++)
+		{
+			// entities on another plane are never within the radius
+			if (distances[i] > radius || distances[i] == Integer.MAX_VALUE)
+			{
+				distances[i] = -1;
+			}
+		}
+
+		int rings = 0;
+		for (int distance : distances)
+		{
+			rings = Math.max(rings, distance + 1);
+		}
+
+		int[] ringSize = new int[rings];
+		for (int distance : distances)
+		{
+			if (distance != -1)
+			{
+				ringSize[distance]++;
+			}
+		}
+
+		List<List<T>> ringEntities = new ArrayList<>(rings);
+		for (int ring = 0; ring < rings; ring++)
+		{
+			ringEntities.add(new ArrayList<>(ringSize[ring]));
+		}
+
+		for (int i = 0; i < distances.length; i++)
+		{
+			if (distances[i] != -1)
+			{
+				ringEntities.get(distances[i]).add(results.get(i));
+			}
+		}
+
+		results.clear();
+		for (List<T> ring : ringEntities)
+		{
+			results.addAll(ring);
+		}
+
+		return this;
 	}
 
 	public T farthest()
 	{
-		return sortedByDistance().last();
+		return farthest(Players.getLocal().getWorldLocation());
 	}
 
 	public T farthest(Locatable locatable)
 	{
-		return sortedByDistance(locatable).last();
+		return farthest(locatable.getWorldLocation());
 	}
 
+	/**
+	 * @return the last of the farthest entities, the same one {@link #sortedByDistance(WorldPoint)} would put last
+	 */
 	public T farthest(WorldPoint to)
 	{
-		return sortedByDistance(to).last();
+		T farthest = null;
+		int farthestDistance = Integer.MIN_VALUE;
+		for (T entity : results)
+		{
+			int distance = entity.distanceTo(to);
+			if (distance >= farthestDistance)
+			{
+				farthest = entity;
+				farthestDistance = distance;
+			}
+		}
+
+		return farthest;
+	}
+
+	private int[] distances(WorldPoint to)
+	{
+		int[] distances = new int[results.size()];
+		for (int i = 0; i < distances.length; i++)
+		{
+			distances[i] = results.get(i).distanceTo(to);
+		}
+
+		return distances;
+	}
+
+	/**
+	 * Orders result indices by distance, ties by their position in the results.
+	 */
+	private static boolean isBefore(int a, int b, int[] distances)
+	{
+		return distances[a] < distances[b] || distances[a] == distances[b] && a < b;
+	}
+
+	/**
+	 * Restores the max-heap after the entry at index was added, the farthest index is kept at the root.
+	 */
+	private static void siftUp(int[] heap, int index, int[] distances)
+	{
+		int entry = heap[index];
+		while (index > 0)
+		{
+			int parent = (index - 1) >>> 1;
+			if (!isBefore(heap[parent], entry, distances))
+			{
+				break;
+			}
+
+			heap[index] = heap[parent];
+			index = parent;
+		}
+
+		heap[index] = entry;
+	}
+
+	/**
+	 * Restores the max-heap of the given size after its root was replaced.
+	 */
+	private static void siftDown(int[] heap, int size, int[] distances)
+	{
+		int entry = heap[0];
+		int index = 0;
+		while (true)
+		{
+			int child = 2 * index + 1;
+			if (child >= size)
+			{
+				break;
+			}
+
+			if (child + 1 < size && isBefore(heap[child], heap[child + 1], distances))
+			{
+				child++;
+			}
+
+			if (!isBefore(entry, heap[child], distances))
+			{
+				break;
+			}
+
+			heap[index] = heap[child];
+			index = child;
+		}
+
+		heap[index] = entry;
+	}
+
+	private void replace(int size, IntFunction<T> entity)
+	{
+		List<T> replacement = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			replacement.add(entity.apply(i));
+		}
+
+		results.clear();
+		results.addAll(replacement);
 	}
 }
@@ -2,12 +2,14 @@ package net.unethicalite.api.query.widgets;
 
 import net.unethicalite.api.commons.Predicates;
 import net.unethicalite.api.query.Query;
+import net.unethicalite.api.query.QueryPlan;
 import net.unethicalite.api.query.results.WidgetQueryResults;
 import net.runelite.api.widgets.Widget;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class WidgetQuery extends Query<Widget, WidgetQuery, WidgetQueryResults>
@@ -32,61 +34,66 @@ public class WidgetQuery extends Query<Widget, WidgetQuery, WidgetQueryResults>
 	public WidgetQuery ids(int... ids)
 	{
 		this.widgetIds = ids;
-		return this;
+		return modified();
 	}
 
 	public WidgetQuery types(int... types)
 	{
 		this.types = types;
-		return this;
+		return modified();
 	}
 
 	public WidgetQuery texts(String... texts)
 	{
 		this.texts = texts;
-		return this;
+		return modified();
 	}
 
 	public WidgetQuery actions(String... actions)
 	{
 		this.actions = actions;
-		return this;
+		return modified();
 	}
 
 	public WidgetQuery visible(Boolean visible)
 	{
 		this.visible = visible;
-		return this;
+		return modified();
 	}
 
 	@Override
-	public boolean test(Widget widget)
+	protected void compile(List<Predicate<? super Widget>> steps)
 	{
-		if (widgetIds != null && !ArrayUtils.contains(widgetIds, widget.getId()))
+		if (widgetIds != null)
 		{
-			return false;
+			IntPredicate widgetIds = QueryPlan.anyOf(this.widgetIds);
+			steps.add(widget -> widgetIds.test(widget.getId()));
 		}
 
-		if (types != null && !ArrayUtils.contains(types, widget.getType()))
+		if (types != null)
 		{
-			return false;
+			IntPredicate types = QueryPlan.anyOf(this.types);
+			steps.add(widget -> types.test(widget.getType()));
 		}
 
-		if (texts != null && !ArrayUtils.contains(texts, widget.getText()))
+		if (texts != null)
 		{
-			return false;
+			Predicate<String> texts = QueryPlan.anyOf(this.texts);
+			steps.add(widget -> texts.test(widget.getText()));
 		}
 
-		if (actions != null && Arrays.stream(actions).noneMatch(Predicates.texts(widget.getActions())))
+		if (actions != null)
 		{
-			return false;
+			String[] actions = this.actions;
+			steps.add(widget -> Arrays.stream(actions).anyMatch(Predicates.texts(widget.getActions())));
 		}
 
-		if (visible != null && visible != widget.isVisible())
+		if (visible != null)
 		{
-			return false;
+			boolean visible = this.visible;
+			steps.add(widget -> visible == widget.isVisible());
 		}
 
-		return super.test(widget);
+		super.compile(steps);
 	}
 }
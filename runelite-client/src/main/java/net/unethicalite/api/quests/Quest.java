@@ -345,6 +345,7 @@ public enum Quest
 	@Getter
 	private final Difficulty difficulty;
 
+	@Getter
 	private final QuestVarbits varbit;
 
 	@Getter
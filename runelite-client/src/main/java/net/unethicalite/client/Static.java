@@ -18,6 +18,10 @@ import net.unethicalite.client.devtools.EntityRenderer;
 import net.unethicalite.client.managers.DefinitionManager;
 import net.unethicalite.client.managers.NativeInputManager;
 import net.unethicalite.client.managers.NeverLogManager;
+import net.unethicalite.client.managers.SceneCollisionManager;
+import net.unethicalite.client.managers.TileObjectManager;
+import net.unethicalite.client.managers.WaitManager;
+import net.unethicalite.client.managers.WorldSnapshotManager;
 import net.unethicalite.client.managers.interaction.InteractionManager;
 
 import javax.inject.Inject;
@@ -77,6 +81,22 @@ public class Static
 	@Getter
 	private static DefinitionManager definitionManager;
 
+	@Inject
+	@Getter
+	private static SceneCollisionManager sceneCollisionManager;
+
+	@Inject
+	@Getter
+	private static TileObjectManager tileObjectManager;
+
+	@Inject
+	@Getter
+	private static WorldSnapshotManager worldSnapshotManager;
+
+	@Inject
+	@Getter
+	private static WaitManager waitManager;
+
 	@Inject
 	@Getter
 	private static InteractionManager interactionManager;
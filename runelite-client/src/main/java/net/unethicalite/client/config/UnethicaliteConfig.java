@@ -1,5 +1,6 @@
 package net.unethicalite.client.config;
 
+import net.unethicalite.api.movement.pathfinder.PathfinderAlgorithm;
 import net.unethicalite.client.managers.interaction.InteractMethod;
 import net.unethicalite.client.managers.interaction.MouseBehavior;
 import net.runelite.client.config.Button;
@@ -206,6 +207,18 @@ public interface UnethicaliteConfig extends Config
 		return true;
 	}
 
+	@ConfigItem(
+			keyName = "pathfinderAlgorithm",
+			name = "Pathfinder algorithm",
+			description = "Search algorithm used when calculating paths",
+			position = 3,
+			section = pathfinderSection
+	)
+	default PathfinderAlgorithm pathfinderAlgorithm()
+	{
+		return PathfinderAlgorithm.BFS;
+	}
+
 	@ConfigItem(
 			keyName = "downloadCollisionData",
 			name = "Download collision data",
@@ -44,6 +44,7 @@ import net.unethicalite.client.Static;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.Arrays;
 import java.util.Collection;
 
 @Singleton
@@ -54,33 +55,80 @@ public class DefinitionManager
 	private static final Multimap<Integer, Integer> VARBIT_TO_ENTITYID = HashMultimap.create();
 	private static final Multimap<Integer, Integer> VARP_TO_ENTITYID = HashMultimap.create();
 	private static final Multimap<Integer, TileObject> TRANSFORMING_OBJECTS = HashMultimap.create();
+	// the least significant bit, width and varp of every varbit, packed as lsb | width << 5 | varp << 11
+	private static int[] varbitBits = new int[0];
 
 	@Inject
 	private Client client;
 	@Inject
 	private ClientThread clientThread;
 
+	private final EventBus eventBus;
+
 	@Inject
 	DefinitionManager(EventBus eventBus)
 	{
+		this.eventBus = eventBus;
 		eventBus.register(this);
 	}
 
 	public void init()
 	{
-		clientThread.invoke(() ->
+		clientThread.invoke(this::loadVarbits);
+	}
+
+	/**
+	 * The table is replaced as a whole and never modified afterwards, so it can be handed to other threads.
+	 * Loading it has to happen on the client thread.
+	 *
+	 * @return the packed bits of every varbit indexed by id, see {@link #getVarbitValue(int, int)}
+	 */
+	public int[] getVarbitBits()
+	{
+		if (varbitBits.length == 0)
+		{
+			loadVarbits();
+		}
+
+		return varbitBits;
+	}
+
+	/**
+	 * @param bits the packed bits of a varbit from {@link #getVarbitBits()}
+	 * @return the varp holding the varbit
+	 */
+	public static int getVarbitVarp(int bits)
+	{
+		return bits >>> 11;
+	}
+
+	/**
+	 * @param bits the packed bits of a varbit from {@link #getVarbitBits()}
+	 * @param varpValue the value of the varp holding the varbit
+	 */
+	public static int getVarbitValue(int bits, int varpValue)
+	{
+		int mask = (int) ((1L << (bits >>> 5 & 63)) - 1);
+		return varpValue >>> (bits & 31) & mask;
+	}
+
+	private void loadVarbits()
+	{
+		IndexDataBase indexVarbits = client.getIndexConfig();
+		final int[] varbitIds = indexVarbits.getFileIds(14);
+		int[] bits = new int[Arrays.stream(varbitIds).max().orElse(-1) + 1];
+		for (int id : varbitIds)
 		{
-			IndexDataBase indexVarbits = client.getIndexConfig();
-			final int[] varbitIds = indexVarbits.getFileIds(14);
-			for (int id : varbitIds)
+			VarbitComposition varbit = client.getVarbit(id);
+			if (varbit != null)
 			{
-				VarbitComposition varbit = client.getVarbit(id);
-				if (varbit != null)
-				{
-					VARS.put(varbit.getIndex(), id);
-				}
+				VARS.put(varbit.getIndex(), id);
+				int lsb = varbit.getLeastSignificantBit();
+				bits[id] = lsb | (varbit.getMostSignificantBit() - lsb + 1) << 5 | varbit.getIndex() << 11;
 			}
-		});
+		}
+
+		varbitBits = bits;
 	}
 
 	@Subscribe
@@ -274,15 +322,36 @@ public class DefinitionManager
 			init();
 		}
 
-		Collection<Integer> changedVarbits = VARS.get(e.getIndex());
-
-		for (int varId : changedVarbits)
+		int previous = e.getPreviousValue();
+		int value = e.getValue();
+		if (previous != value)
 		{
-			if (VARBIT_TO_ENTITYID.containsKey(varId))
+			// only the varbits whose bits differ between the old and new varp value changed
+			for (int varId : VARS.get(e.getIndex()))
 			{
-				int configValue = Vars.getBit(varId);
-				Collection<Integer> entityIds = VARBIT_TO_ENTITYID.get(varId);
-				checkEntityTransforms(configValue, entityIds);
+				int bits = varbitBits[varId];
+				int previousConfigValue = getVarbitValue(bits, previous);
+				int configValue = getVarbitValue(bits, value);
+				if (previousConfigValue == configValue)
+				{
+					continue;
+				}
+
+				if (VARBIT_TO_ENTITYID.containsKey(varId))
+				{
+					Collection<Integer> entityIds = VARBIT_TO_ENTITYID.get(varId);
+					checkEntityTransforms(configValue, entityIds);
+				}
+
+				if (eventBus.isVarbitSubscribed(varId))
+				{
+					VarbitChanged varbitChanged = new VarbitChanged();
+					varbitChanged.setIndex(e.getIndex());
+					varbitChanged.setPreviousValue(previousConfigValue);
+					varbitChanged.setValue(configValue);
+					varbitChanged.setVarbitId(varId);
+					eventBus.postVarbit(varId, varbitChanged);
+				}
 			}
 		}
 
@@ -0,0 +1,364 @@
+package net.unethicalite.client.managers;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.Constants;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.Point;
+import net.runelite.api.Tile;
+import net.runelite.api.WallObject;
+import net.runelite.api.events.GameObjectChanged;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.GroundObjectChanged;
+import net.runelite.api.events.GroundObjectDespawned;
+import net.runelite.api.events.GroundObjectSpawned;
+import net.runelite.api.events.WallObjectChanged;
+import net.runelite.api.events.WallObjectDespawned;
+import net.runelite.api.events.WallObjectSpawned;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+import net.unethicalite.api.movement.Reachable;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.BitSet;
+
+/**
+ * A snapshot of the current plane's collision flags, door edges and obstacles packed into one int per tile.
+ * <p>
+ * The snapshot is taken when the scene or plane changes, and tiles touched by an object spawn, despawn or change
+ * are re-read on the next game tick or query, after the client has updated its collision data.
+ */
+@Singleton
+@Slf4j
+public class SceneCollisionManager
+{
+	public static final int OBSTACLE = 1;
+	public static final int WALL_NORTH = 1 << 1;
+	public static final int WALL_EAST = 1 << 2;
+	public static final int WALL_SOUTH = 1 << 3;
+	public static final int WALL_WEST = 1 << 4;
+	public static final int DOOR_NORTH = 1 << 5;
+	public static final int DOOR_EAST = 1 << 6;
+	public static final int DOOR_SOUTH = 1 << 7;
+	public static final int DOOR_WEST = 1 << 8;
+
+	private static final int SIZE = Constants.SCENE_SIZE;
+
+	private final Client client;
+	private final int[] tiles = new int[SIZE * SIZE];
+	private final BitSet dirtyTiles = new BitSet(SIZE * SIZE);
+	private volatile boolean dirty;
+	private volatile boolean loaded;
+	private volatile int baseX;
+	private volatile int baseY;
+	private volatile int plane;
+
+	@Inject
+	SceneCollisionManager(EventBus eventBus, Client client)
+	{
+		this.client = client;
+		eventBus.register(this);
+	}
+
+	/**
+	 * @return whether the tile north of the given world tile can be walked to
+	 */
+	public boolean n(int x, int y, int z, boolean blockDoors)
+	{
+		int tile = index(x, y, z);
+		if (tile == -1 || y - baseY + 1 >= SIZE)
+		{
+			return false;
+		}
+
+		return canMove(tiles[tile], tiles[tile + 1], WALL_NORTH, DOOR_NORTH, DOOR_SOUTH, blockDoors);
+	}
+
+	/**
+	 * @return whether the tile east of the given world tile can be walked to
+	 */
+	public boolean e(int x, int y, int z, boolean blockDoors)
+	{
+		int tile = index(x, y, z);
+		if (tile == -1 || x - baseX + 1 >= SIZE)
+		{
+			return false;
+		}
+
+		return canMove(tiles[tile], tiles[tile + SIZE], WALL_EAST, DOOR_EAST, DOOR_WEST, blockDoors);
+	}
+
+	/**
+	 * @return the packed flags of the given world tile, or {@link #OBSTACLE} if it isn't in the scene
+	 */
+	public int getFlags(int x, int y, int z)
+	{
+		int tile = index(x, y, z);
+		return tile == -1 ? OBSTACLE : tiles[tile];
+	}
+
+	private static boolean canMove(int current, int destination, int wall, int door, int oppositeDoor,
+		boolean blockDoors)
+	{
+		if ((current & OBSTACLE) != 0 || (destination & OBSTACLE) != 0)
+		{
+			return false;
+		}
+
+		if (!blockDoors && ((current & door) != 0 || (destination & oppositeDoor) != 0))
+		{
+			return true;
+		}
+
+		return (current & wall) == 0;
+	}
+
+	private int index(int x, int y, int z)
+	{
+		if (!loaded || plane != client.getPlane() || baseX != client.getBaseX() || baseY != client.getBaseY())
+		{
+			rebuild();
+		}
+		else if (dirty)
+		{
+			flush();
+		}
+
+		int sceneX = x - baseX;
+		int sceneY = y - baseY;
+		if (!loaded || z != plane || sceneX < 0 || sceneY < 0 || sceneX >= SIZE || sceneY >= SIZE)
+		{
+			return -1;
+		}
+
+		return sceneX * SIZE + sceneY;
+	}
+
+	private synchronized void rebuild()
+	{
+		int plane = client.getPlane();
+		int baseX = client.getBaseX();
+		int baseY = client.getBaseY();
+		if (loaded && this.plane == plane && this.baseX == baseX && this.baseY == baseY)
+		{
+			return;
+		}
+
+		CollisionData[] collisionMaps = client.getCollisionMaps();
+		if (client.getGameState() != GameState.LOGGED_IN || collisionMaps == null || collisionMaps[plane] == null)
+		{
+			loaded = false;
+			return;
+		}
+
+		long start = System.nanoTime();
+		int[][] flags = collisionMaps[plane].getFlags();
+		Tile[][] sceneTiles = client.getScene().getTiles()[plane];
+		for (int x = 0; x < SIZE; x++)
+		{
+			for (int y = 0; y < SIZE; y++)
+			{
+				tiles[x * SIZE + y] = pack(flags[x][y], sceneTiles[x][y]);
+			}
+		}
+
+		dirtyTiles.clear();
+		dirty = false;
+		this.plane = plane;
+		this.baseX = baseX;
+		this.baseY = baseY;
+		loaded = true;
+
+		log.debug("Snapshot scene collision of plane {} in {}us", plane, (System.nanoTime() - start) / 1000);
+	}
+
+	private synchronized void flush()
+	{
+		if (!dirty)
+		{
+			return;
+		}
+
+		CollisionData[] collisionMaps = client.getCollisionMaps();
+		if (collisionMaps == null || collisionMaps[plane] == null)
+		{
+			loaded = false;
+			return;
+		}
+
+		int[][] flags = collisionMaps[plane].getFlags();
+		Tile[][] sceneTiles = client.getScene().getTiles()[plane];
+		for (int tile = dirtyTiles.nextSetBit(0); tile != -1; tile = dirtyTiles.nextSetBit(tile + 1))
+		{
+			int x = tile / SIZE;
+			int y = tile % SIZE;
+			tiles[tile] = pack(flags[x][y], sceneTiles[x][y]);
+		}
+
+		dirtyTiles.clear();
+		dirty = false;
+	}
+
+	private static int pack(int flag, Tile tile)
+	{
+		int packed = 0;
+		if (Reachable.isObstacle(flag))
+		{
+			packed |= OBSTACLE;
+		}
+
+		if (Reachable.check(flag, 0x2))
+		{
+			packed |= WALL_NORTH;
+		}
+
+		if (Reachable.check(flag, 0x8))
+		{
+			packed |= WALL_EAST;
+		}
+
+		if (Reachable.check(flag, 0x20))
+		{
+			packed |= WALL_SOUTH;
+		}
+
+		if (Reachable.check(flag, 0x80))
+		{
+			packed |= WALL_WEST;
+		}
+
+		WallObject wall = tile == null ? null : tile.getWallObject();
+		if (wall != null && wall.hasAction("Open"))
+		{
+			switch (wall.getOrientationA())
+			{
+				case 1:
+					packed |= DOOR_WEST;
+					break;
+				case 2:
+					packed |= DOOR_NORTH;
+					break;
+				case 4:
+					packed |= DOOR_EAST;
+					break;
+				case 8:
+					packed |= DOOR_SOUTH;
+					break;
+			}
+		}
+
+		return packed;
+	}
+
+	/**
+	 * Marks the area and the tiles around it, whose wall flags towards it may have changed.
+	 */
+	private synchronized void markDirty(int z, int sceneX, int sceneY, int width, int height)
+	{
+		if (z != plane)
+		{
+			return;
+		}
+
+		for (int x = Math.max(0, sceneX - 1); x <= Math.min(SIZE - 1, sceneX + width); x++)
+		{
+			for (int y = Math.max(0, sceneY - 1); y <= Math.min(SIZE - 1, sceneY + height); y++)
+			{
+				dirtyTiles.set(x * SIZE + y);
+			}
+		}
+
+		dirty = true;
+	}
+
+	private void markDirty(Tile tile)
+	{
+		Point location = tile.getSceneLocation();
+		markDirty(tile.getPlane(), location.getX(), location.getY(), 1, 1);
+	}
+
+	private void markDirty(GameObject gameObject)
+	{
+		Point min = gameObject.getSceneMinLocation();
+		Point max = gameObject.getSceneMaxLocation();
+		markDirty(gameObject.getPlane(), min.getX(), min.getY(), max.getX() - min.getX() + 1, max.getY() - min.getY() + 1);
+	}
+
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event)
+	{
+		if (event.getGameState() != GameState.LOGGED_IN)
+		{
+			loaded = false;
+		}
+	}
+
+	@Subscribe
+	public void onGameTick(GameTick event)
+	{
+		if (dirty)
+		{
+			flush();
+		}
+	}
+
+	@Subscribe
+	public void onGameObjectSpawned(GameObjectSpawned event)
+	{
+		markDirty(event.getGameObject());
+	}
+
+	@Subscribe
+	public void onGameObjectDespawned(GameObjectDespawned event)
+	{
+		markDirty(event.getGameObject());
+	}
+
+	@Subscribe
+	public void onGameObjectChanged(GameObjectChanged event)
+	{
+		markDirty(event.getGameObject());
+	}
+
+	@Subscribe
+	public void onWallObjectSpawned(WallObjectSpawned event)
+	{
+		markDirty(event.getTile());
+	}
+
+	@Subscribe
+	public void onWallObjectDespawned(WallObjectDespawned event)
+	{
+		markDirty(event.getTile());
+	}
+
+	@Subscribe
+	public void onWallObjectChanged(WallObjectChanged event)
+	{
+		markDirty(event.getTile());
+	}
+
+	@Subscribe
+	public void onGroundObjectSpawned(GroundObjectSpawned event)
+	{
+		markDirty(event.getTile());
+	}
+
+	@Subscribe
+	public void onGroundObjectDespawned(GroundObjectDespawned event)
+	{
+		markDirty(event.getTile());
+	}
+
+	@Subscribe
+	public void onGroundObjectChanged(GroundObjectChanged event)
+	{
+		markDirty(event.getTile());
+	}
+}
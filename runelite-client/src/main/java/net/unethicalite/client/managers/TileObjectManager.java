@@ -0,0 +1,483 @@
+package net.unethicalite.client.managers;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.DecorativeObject;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.GroundObject;
+import net.runelite.api.ObjectComposition;
+import net.runelite.api.Point;
+import net.runelite.api.Tile;
+import net.runelite.api.TileObject;
+import net.runelite.api.WallObject;
+import net.runelite.api.events.DecorativeObjectChanged;
+import net.runelite.api.events.DecorativeObjectDespawned;
+import net.runelite.api.events.DecorativeObjectSpawned;
+import net.runelite.api.events.GameObjectChanged;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GroundObjectChanged;
+import net.runelite.api.events.GroundObjectDespawned;
+import net.runelite.api.events.GroundObjectSpawned;
+import net.runelite.api.events.WallObjectChanged;
+import net.runelite.api.events.WallObjectDespawned;
+import net.runelite.api.events.WallObjectSpawned;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the tile objects of the scene by id, by name and by packed scene coordinate, so lookups only touch
+ * the objects they return instead of every tile of the scene.
+ * <p>
+ * The index is maintained from spawn, despawn and change events, and rebuilt from the scene on the first
+ * lookup after a scene load. Objects which can transform are never indexed by name, as their name follows a var.
+ * Lookups return the objects in the order a scan over the scene's tiles finds them.
+ */
+@Singleton
+@Slf4j
+public class TileObjectManager
+{
+	private static final int SIZE = Constants.SCENE_SIZE;
+
+	private final Client client;
+	// packed scene coordinate << 8 | the object's rank on its tile
+	private final Map<TileObject, Integer> positions = new IdentityHashMap<>();
+	// the order of a scan over the scene: by x, then y, then the object's rank on its tile
+	private final Comparator<TileObject> sceneOrder = Comparator.comparingInt(positions::get);
+	private final Multimap<Integer, TileObject> byId = HashMultimap.create();
+	private final Multimap<String, TileObject> byName = HashMultimap.create();
+	private final Multimap<Integer, TileObject> byCoordinate = LinkedHashMultimap.create();
+	private final Set<TileObject> transforming = new HashSet<>();
+	private boolean stale = true;
+	/**
+	 * Incremented on every change to the index.
+	 */
+	@Getter
+	private volatile int version;
+
+	@Inject
+	TileObjectManager(EventBus eventBus, Client client)
+	{
+		this.client = client;
+		eventBus.register(this);
+	}
+
+	/**
+	 * @return the packed scene coordinate used as the key of {@link #getAt(int, int, int)}
+	 */
+	public static int pack(int plane, int sceneX, int sceneY)
+	{
+		return plane << 14 | sceneX << 7 | sceneY;
+	}
+
+	public synchronized List<TileObject> getAll(int plane)
+	{
+		update();
+
+		List<TileObject> out = new ArrayList<>();
+		for (Map.Entry<TileObject, Integer> entry : positions.entrySet())
+		{
+			if (coordinate(entry.getValue()) >>> 14 == plane)
+			{
+				out.add(entry.getKey());
+			}
+		}
+
+		return sorted(out);
+	}
+
+	public synchronized List<TileObject> getByIds(int plane, int... ids)
+	{
+		update();
+
+		List<TileObject> out = new ArrayList<>();
+		for (int id : ids)
+		{
+			addOnPlane(out, byId.get(id), plane);
+		}
+
+		return sorted(out);
+	}
+
+	public synchronized List<TileObject> getByNames(int plane, String... names)
+	{
+		update();
+
+		List<TileObject> out = new ArrayList<>();
+		for (String name : names)
+		{
+			addOnPlane(out, byName.get(name), plane);
+		}
+
+		for (TileObject object : transforming)
+		{
+			if (isOnPlane(object, plane) && contains(names, object.getName()))
+			{
+				out.add(object);
+			}
+		}
+
+		return sorted(out);
+	}
+
+	public synchronized List<TileObject> getAt(int plane, int sceneX, int sceneY)
+	{
+		update();
+
+		return sorted(new ArrayList<>(byCoordinate.get(pack(plane, sceneX, sceneY))));
+	}
+
+	/**
+	 * @return the objects whose origin is within the inclusive scene area, scanning either the area or all objects,
+	 * whichever is smaller
+	 */
+	public synchronized List<TileObject> getWithin(int plane, int minX, int minY, int maxX, int maxY)
+	{
+		update();
+
+		minX = Math.max(0, minX);
+		minY = Math.max(0, minY);
+		maxX = Math.min(SIZE - 1, maxX);
+		maxY = Math.min(SIZE - 1, maxY);
+
+		List<TileObject> out = new ArrayList<>();
+		if (minX > maxX || minY > maxY)
+		{
+			return out;
+		}
+
+		if ((maxX - minX + 1) * (maxY - minY + 1) > positions.size())
+		{
+			for (Map.Entry<TileObject, Integer> entry : positions.entrySet())
+			{
+				int coordinate = coordinate(entry.getValue());
+				int x = coordinate >>> 7 & 0x7f;
+				int y = coordinate & 0x7f;
+				if (coordinate >>> 14 == plane && x >= minX && x <= maxX && y >= minY && y <= maxY)
+				{
+					out.add(entry.getKey());
+				}
+			}
+
+			return sorted(out);
+		}
+
+		for (int x = minX; x <= maxX; x++)
+		{
+			for (int y = minY; y <= maxY; y++)
+			{
+				out.addAll(byCoordinate.get(pack(plane, x, y)));
+			}
+		}
+
+		return sorted(out);
+	}
+
+	private void addOnPlane(List<TileObject> out, Iterable<TileObject> objects, int plane)
+	{
+		for (TileObject object : objects)
+		{
+			if (isOnPlane(object, plane))
+			{
+				out.add(object);
+			}
+		}
+	}
+
+	private boolean isOnPlane(TileObject object, int plane)
+	{
+		return coordinate(positions.get(object)) >>> 14 == plane;
+	}
+
+	private static boolean contains(String[] names, String name)
+	{
+		for (String n : names)
+		{
+			if (n.equals(name))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Sorts the objects in the order a scan over the scene finds them, as lookups before the index did.
+	 */
+	private List<TileObject> sorted(List<TileObject> objects)
+	{
+		objects.sort(sceneOrder);
+		return objects;
+	}
+
+	private static int coordinate(int position)
+	{
+		return position >>> 8;
+	}
+
+	/**
+	 * Objects on a tile are ranked decorative, wall, ground and then game objects in the tile's order.
+	 */
+	private static int rank(Tile tile, TileObject object)
+	{
+		if (object instanceof DecorativeObject)
+		{
+			return 0;
+		}
+
+		if (object instanceof WallObject)
+		{
+			return 1;
+		}
+
+		if (object instanceof GroundObject)
+		{
+			return 2;
+		}
+
+		GameObject[] gameObjects = tile.getGameObjects();
+		if (gameObjects != null)
+		{
+			for (int i = 0; i < gameObjects.length; i++)
+			{
+				if (gameObjects[i] == object)
+				{
+					return 3 + i;
+				}
+			}
+		}
+
+		return 0xff;
+	}
+
+	/**
+	 * Rebuilds the index from the scene if it was loaded since the last lookup.
+	 */
+	private void update()
+	{
+		if (!stale || client.getGameState() != GameState.LOGGED_IN)
+		{
+			return;
+		}
+
+		long start = System.nanoTime();
+		clear();
+
+		for (Tile[][] plane : client.getScene().getTiles())
+		{
+			for (Tile[] column : plane)
+			{
+				for (Tile tile : column)
+				{
+					if (tile == null)
+					{
+						continue;
+					}
+
+					add(tile, tile.getDecorativeObject());
+					add(tile, tile.getWallObject());
+					add(tile, tile.getGroundObject());
+
+					GameObject[] gameObjects = tile.getGameObjects();
+					if (gameObjects != null)
+					{
+						for (GameObject gameObject : gameObjects)
+						{
+							add(tile, gameObject);
+						}
+					}
+				}
+			}
+		}
+
+		stale = false;
+		log.debug("Indexed {} tile objects in {}us", positions.size(), (System.nanoTime() - start) / 1000);
+	}
+
+	private void clear()
+	{
+		version++;
+		positions.clear();
+		byId.clear();
+		byName.clear();
+		byCoordinate.clear();
+		transforming.clear();
+	}
+
+	private void add(Tile tile, TileObject object)
+	{
+		if (object == null || object.getId() == -1 || !client.isTileObjectValid(tile, object))
+		{
+			return;
+		}
+
+		Point location = tile.getSceneLocation();
+		int coordinate = pack(tile.getPlane(), location.getX(), location.getY());
+		if (positions.put(object, coordinate << 8 | rank(tile, object)) != null)
+		{
+			return;
+		}
+
+		byId.put(object.getId(), object);
+		byCoordinate.put(coordinate, object);
+		version++;
+
+		// transforming objects carry their impostor's composition, which DefinitionManager resolved on spawn
+		ObjectComposition composition = object.getTransformedComposition();
+		if (composition == null || composition.getId() != object.getId())
+		{
+			transforming.add(object);
+		}
+		else
+		{
+			byName.put(object.getName(), object);
+		}
+	}
+
+	private void remove(TileObject object)
+	{
+		Integer position = object == null ? null : positions.remove(object);
+		if (position == null)
+		{
+			return;
+		}
+
+		byId.remove(object.getId(), object);
+		byCoordinate.remove(coordinate(position), object);
+		version++;
+		if (!transforming.remove(object))
+		{
+			byName.remove(object.getName(), object);
+		}
+	}
+
+	private synchronized void spawned(Tile tile, TileObject object)
+	{
+		if (!stale)
+		{
+			add(tile, object);
+		}
+	}
+
+	private synchronized void despawned(TileObject object)
+	{
+		if (!stale)
+		{
+			remove(object);
+		}
+	}
+
+	private synchronized void changed(Tile tile, TileObject previous, TileObject current)
+	{
+		if (!stale)
+		{
+			remove(previous);
+			add(tile, current);
+		}
+	}
+
+	@Subscribe
+	public synchronized void onGameStateChanged(GameStateChanged event)
+	{
+		switch (event.getGameState())
+		{
+			case LOADING:
+			case LOGIN_SCREEN:
+			case HOPPING:
+				clear();
+				stale = true;
+				break;
+		}
+	}
+
+	// runs after DefinitionManager has resolved the composition
+	@Subscribe(priority = -1)
+	public void onGameObjectSpawned(GameObjectSpawned event)
+	{
+		spawned(event.getTile(), event.getGameObject());
+	}
+
+	@Subscribe(priority = -1)
+	public void onGameObjectChanged(GameObjectChanged event)
+	{
+		changed(event.getTile(), event.getPrevious(), event.getGameObject());
+	}
+
+	@Subscribe
+	public void onGameObjectDespawned(GameObjectDespawned event)
+	{
+		despawned(event.getGameObject());
+	}
+
+	@Subscribe(priority = -1)
+	public void onWallObjectSpawned(WallObjectSpawned event)
+	{
+		spawned(event.getTile(), event.getWallObject());
+	}
+
+	@Subscribe(priority = -1)
+	public void onWallObjectChanged(WallObjectChanged event)
+	{
+		changed(event.getTile(), event.getPrevious(), event.getWallObject());
+	}
+
+	@Subscribe
+	public void onWallObjectDespawned(WallObjectDespawned event)
+	{
+		despawned(event.getWallObject());
+	}
+
+	@Subscribe(priority = -1)
+	public void onDecorativeObjectSpawned(DecorativeObjectSpawned event)
+	{
+		spawned(event.getTile(), event.getDecorativeObject());
+	}
+
+	@Subscribe(priority = -1)
+	public void onDecorativeObjectChanged(DecorativeObjectChanged event)
+	{
+		changed(event.getTile(), event.getPrevious(), event.getDecorativeObject());
+	}
+
+	@Subscribe
+	public void onDecorativeObjectDespawned(DecorativeObjectDespawned event)
+	{
+		despawned(event.getDecorativeObject());
+	}
+
+	@Subscribe(priority = -1)
+	public void onGroundObjectSpawned(GroundObjectSpawned event)
+	{
+		spawned(event.getTile(), event.getGroundObject());
+	}
+
+	@Subscribe(priority = -1)
+	public void onGroundObjectChanged(GroundObjectChanged event)
+	{
+		changed(event.getTile(), event.getPrevious(), event.getGroundObject());
+	}
+
+	@Subscribe
+	public void onGroundObjectDespawned(GroundObjectDespawned event)
+	{
+		despawned(event.getGroundObject());
+	}
+}
@@ -0,0 +1,130 @@
+package net.unethicalite.client.managers;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.eventbus.EventBus;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates the conditions script threads are waiting on when the event they depend on is posted, on the client thread,
+ * instead of having every script poll them.
+ * <p>
+ * A subscriber is registered the first time an event class is waited on and stays registered, it costs an empty queue
+ * check per event when nobody is waiting.
+ */
+@Singleton
+@Slf4j
+public class WaitManager
+{
+	// after the plugins, so conditions see the state the event handlers left behind
+	private static final float PRIORITY = -100;
+
+	private final EventBus eventBus;
+	private final Map<Class<?>, Queue<Waiter<?, ?>>> waiters = new ConcurrentHashMap<>();
+
+	@Inject
+	WaitManager(EventBus eventBus)
+	{
+		this.eventBus = eventBus;
+	}
+
+	/**
+	 * @return a future completed with the first event of the given type that matches the predicate, it must be
+	 * cancelled when the caller stops waiting on it, which also drops the waiter
+	 */
+	public <T> CompletableFuture<T> await(Class<T> type, Predicate<? super T> predicate)
+	{
+		return await(type, predicate, Function.identity());
+	}
+
+	/**
+	 * @param mapper converts the matching event on the client thread, before the future is completed with the result
+	 */
+	public <T, R> CompletableFuture<R> await(Class<T> type, Predicate<? super T> predicate, Function<? super T, ? extends R> mapper)
+	{
+		Waiter<T, R> waiter = new Waiter<>(predicate, mapper);
+		Queue<Waiter<?, ?>> queue = waiters(type);
+		queue.add(waiter);
+		// otherwise a cancelled waiter would only be dropped by the next event of its type, which may never come
+		waiter.future.whenComplete((result, error) ->
+		{
+			if (error instanceof CancellationException)
+			{
+				queue.remove(waiter);
+			}
+		});
+		return waiter.future;
+	}
+
+	private Queue<Waiter<?, ?>> waiters(Class<?> type)
+	{
+		return waiters.computeIfAbsent(type, t ->
+		{
+			Queue<Waiter<?, ?>> queue = new ConcurrentLinkedQueue<>();
+			eventBus.register(t, event -> dispatch(queue, event), PRIORITY);
+			return queue;
+		});
+	}
+
+	private static void dispatch(Queue<Waiter<?, ?>> queue, Object event)
+	{
+		if (queue.isEmpty())
+		{
+			return;
+		}
+
+		for (Iterator<Waiter<?, ?>> it = queue.iterator(); it.hasNext(); )
+		{
+			Waiter<?, ?> waiter = it.next();
+			if (waiter.future.isDone() || waiter.test(event))
+			{
+				it.remove();
+			}
+		}
+	}
+
+	private static class Waiter<T, R>
+	{
+		private final Predicate<? super T> predicate;
+		private final Function<? super T, ? extends R> mapper;
+		private final CompletableFuture<R> future = new CompletableFuture<>();
+
+		private Waiter(Predicate<? super T> predicate, Function<? super T, ? extends R> mapper)
+		{
+			this.predicate = predicate;
+			this.mapper = mapper;
+		}
+
+		@SuppressWarnings("unchecked")
+		private boolean test(Object event)
+		{
+			T t = (T) event;
+			try
+			{
+				if (!predicate.test(t))
+				{
+					return false;
+				}
+
+				future.complete(mapper.apply(t));
+			}
+			catch (Exception e)
+			{
+				log.warn("Error evaluating wait condition", e);
+				future.completeExceptionally(e);
+			}
+
+			return true;
+		}
+	}
+}
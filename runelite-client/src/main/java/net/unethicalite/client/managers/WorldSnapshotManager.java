@@ -0,0 +1,281 @@
+package net.unethicalite.client.managers;
+
+import lombok.Getter;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.Tile;
+import net.runelite.api.TileItem;
+import net.runelite.api.TileObject;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.ItemDespawned;
+import net.runelite.api.events.ItemSpawned;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+import net.unethicalite.api.game.WorldSnapshot;
+import net.unethicalite.api.items.Equipment;
+import net.unethicalite.api.items.Inventory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds a {@link WorldSnapshot} on the client thread at every game tick and publishes it through a volatile field.
+ * <p>
+ * A published snapshot is never modified. Parts of the world that did not change since the previous tick are shared
+ * with the previous snapshot instead of being copied again, everything else is copied into new immutable lists and
+ * arrays. The varbit bit ranges are captured with the snapshot, so script threads can read varbits without
+ * looking up their definitions on the client thread.
+ */
+@Singleton
+public class WorldSnapshotManager
+{
+	private final Client client;
+	private final TileObjectManager tileObjectManager;
+	private final DefinitionManager definitionManager;
+
+	@Getter
+	private volatile WorldSnapshot snapshot;
+
+	private final List<NPC> npcBuffer = new ArrayList<>();
+	private final List<Player> playerBuffer = new ArrayList<>();
+	private final List<TileItem> tileItemBuffer = new ArrayList<>();
+	private boolean varpsChanged = true;
+	private boolean inventoryChanged = true;
+	private boolean equipmentChanged = true;
+	private boolean tileItemsChanged = true;
+	private int tileObjectVersion = -1;
+	private int[] varps;
+	private int[] realLevels;
+	private int[] boostedLevels;
+	private int[] experience;
+
+	@Inject
+	WorldSnapshotManager(EventBus eventBus, Client client, TileObjectManager tileObjectManager,
+			DefinitionManager definitionManager)
+	{
+		this.client = client;
+		this.tileObjectManager = tileObjectManager;
+		this.definitionManager = definitionManager;
+		eventBus.register(this);
+	}
+
+	// runs after the plugins have handled the tick, so the snapshot includes their changes
+	@Subscribe(priority = -100)
+	public void onGameTick(GameTick event)
+	{
+		Player local = client.getLocalPlayer();
+		if (local == null)
+		{
+			return;
+		}
+
+		WorldSnapshot previous = snapshot;
+		int plane = client.getPlane();
+		int baseX = client.getBaseX();
+		int baseY = client.getBaseY();
+		boolean sceneChanged = previous == null
+				|| previous.getPlane() != plane
+				|| previous.getBaseX() != baseX
+				|| previous.getBaseY() != baseY;
+
+		snapshot = WorldSnapshot.builder()
+				.tick(client.getTickCount())
+				.plane(plane)
+				.baseX(baseX)
+				.baseY(baseY)
+				.localPlayer(local)
+				.localPosition(local.getWorldLocation())
+				.npcs(npcs(previous))
+				.players(players(previous))
+				.tileItems(tileItems(previous, sceneChanged))
+				.tileObjects(tileObjects(previous, sceneChanged))
+				.inventory(inventory(previous))
+				.equipment(equipment(previous))
+				.varps(varps())
+				.varbits(definitionManager.getVarbitBits())
+				.realLevels(realLevels = share(realLevels, client.getRealSkillLevels()))
+				.boostedLevels(boostedLevels = share(boostedLevels, client.getBoostedSkillLevels()))
+				.experience(experience = share(experience, client.getSkillExperiences()))
+				.build();
+	}
+
+	private List<NPC> npcs(WorldSnapshot previous)
+	{
+		npcBuffer.clear();
+		client.forEachNpc(npcBuffer::add);
+		return share(previous == null ? null : previous.getNpcs(), npcBuffer);
+	}
+
+	private List<Player> players(WorldSnapshot previous)
+	{
+		playerBuffer.clear();
+		client.forEachPlayer(playerBuffer::add);
+		return share(previous == null ? null : previous.getPlayers(), playerBuffer);
+	}
+
+	private List<TileItem> tileItems(WorldSnapshot previous, boolean sceneChanged)
+	{
+		if (previous != null && !sceneChanged && !tileItemsChanged)
+		{
+			return previous.getTileItems();
+		}
+
+		tileItemsChanged = false;
+		tileItemBuffer.clear();
+		Tile[][] tiles = client.getScene().getTiles()[client.getPlane()];
+		for (int x = 0; x < Constants.SCENE_SIZE; x++)
+		{
+			for (int y = 0; y < Constants.SCENE_SIZE; y++)
+			{
+				Tile tile = tiles[x][y];
+				List<TileItem> items = tile == null ? null : tile.getGroundItems();
+				if (items == null)
+				{
+					continue;
+				}
+
+				for (TileItem item : items)
+				{
+					if (item != null && item.getId() != -1)
+					{
+						tileItemBuffer.add(item);
+					}
+				}
+			}
+		}
+
+		return List.copyOf(tileItemBuffer);
+	}
+
+	private List<TileObject> tileObjects(WorldSnapshot previous, boolean sceneChanged)
+	{
+		int version = tileObjectManager.getVersion();
+		if (previous != null && !sceneChanged && version == tileObjectVersion)
+		{
+			return previous.getTileObjects();
+		}
+
+		List<TileObject> tileObjects = List.copyOf(tileObjectManager.getAll(client.getPlane()));
+		// the lookup may have rebuilt the index
+		tileObjectVersion = tileObjectManager.getVersion();
+		return tileObjects;
+	}
+
+	private List<Item> inventory(WorldSnapshot previous)
+	{
+		if (previous != null && !inventoryChanged)
+		{
+			return previous.getInventory();
+		}
+
+		inventoryChanged = false;
+		return List.copyOf(Inventory.getAll());
+	}
+
+	private List<Item> equipment(WorldSnapshot previous)
+	{
+		if (previous != null && !equipmentChanged)
+		{
+			return previous.getEquipment();
+		}
+
+		equipmentChanged = false;
+		return List.copyOf(Equipment.getAll());
+	}
+
+	private int[] varps()
+	{
+		if (varps == null || varpsChanged)
+		{
+			varpsChanged = false;
+			varps = client.getVarps().clone();
+		}
+
+		return varps;
+	}
+
+	/**
+	 * @return the previous list if it holds the same entities in the same order, otherwise a copy of the buffer
+	 */
+	private static <T> List<T> share(List<T> previous, List<T> buffer)
+	{
+		if (previous != null && previous.size() == buffer.size())
+		{
+			boolean same = true;
+			for (int i = 0; i < buffer.size(); i++)
+			{
+				if (previous.get(i) != buffer.get(i))
+				{
+					same = false;
+					break;
+				}
+			}
+
+			if (same)
+			{
+				return previous;
+			}
+		}
+
+		return List.copyOf(buffer);
+	}
+
+	private static int[] share(int[] previous, int[] current)
+	{
+		return previous != null && Arrays.equals(previous, current) ? previous : current.clone();
+	}
+
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event)
+	{
+		if (event.getGameState() == GameState.LOGIN_SCREEN || event.getGameState() == GameState.HOPPING)
+		{
+			snapshot = null;
+			varps = realLevels = boostedLevels = experience = null;
+		}
+
+		varpsChanged = inventoryChanged = equipmentChanged = tileItemsChanged = true;
+	}
+
+	@Subscribe
+	public void onVarbitChanged(VarbitChanged event)
+	{
+		varpsChanged = true;
+	}
+
+	@Subscribe
+	public void onItemContainerChanged(ItemContainerChanged event)
+	{
+		if (event.getContainerId() == InventoryID.INVENTORY.getId())
+		{
+			inventoryChanged = true;
+		}
+		else if (event.getContainerId() == InventoryID.EQUIPMENT.getId())
+		{
+			equipmentChanged = true;
+		}
+	}
+
+	@Subscribe
+	public void onItemSpawned(ItemSpawned event)
+	{
+		tileItemsChanged = true;
+	}
+
+	@Subscribe
+	public void onItemDespawned(ItemDespawned event)
+	{
+		tileItemsChanged = true;
+	}
+}
@@ -168,6 +168,12 @@ public class MinimalHooks implements Callbacks
 		eventBus.post(event);
 	}
 
+	@Override
+	public boolean isSubscribed(Class<?> eventClass)
+	{
+		return eventBus.isSubscribed(eventClass);
+	}
+
 	@Override
 	public void postDeferred(Object event)
 	{
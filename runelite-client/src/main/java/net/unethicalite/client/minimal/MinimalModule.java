@@ -16,6 +16,7 @@ import net.runelite.api.Client;
 import net.runelite.api.hooks.Callbacks;
 import net.runelite.api.packets.ClientPacket;
 import net.runelite.client.NonScheduledExecutorServiceExceptionLogger;
+import net.runelite.client.RuneLite;
 import net.runelite.client.RuneLiteProperties;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.config.ChatColorConfig;
@@ -178,9 +179,9 @@ public class MinimalModule extends AbstractModule
 
 	@Provides
 	@Singleton
-	GlobalCollisionMap provideGlobalCollisionMap(@Named("unethicalite.api.url") String apiUrl) throws IOException
+	GlobalCollisionMap provideGlobalCollisionMap() throws IOException
 	{
-		return GlobalCollisionMap.fetchFromUrl(apiUrl + "/regions");
+		return GlobalCollisionMap.load(new File(RuneLite.CACHE_DIR, "collision-map"));
 	}
 
 	@Provides
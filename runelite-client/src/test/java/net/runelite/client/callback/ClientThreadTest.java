@@ -0,0 +1,143 @@
+package net.runelite.client.callback;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.api.Client;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClientThreadTest
+{
+	@Mock
+	@Bind
+	private Client client;
+
+	@Inject
+	private ClientThread clientThread;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		when(client.isClientThread()).thenReturn(true);
+	}
+
+	@Test
+	public void testPriorityOrder()
+	{
+		List<String> order = new ArrayList<>();
+		clientThread.invokeLater(() -> order.add("low"), ClientThread.Priority.LOW);
+		clientThread.invokeLater(() -> order.add("normal 1"));
+		clientThread.invokeLater(() -> order.add("high"), ClientThread.Priority.HIGH);
+		clientThread.invokeLater(() -> order.add("normal 2"), ClientThread.Priority.NORMAL);
+		assertEquals(4, clientThread.getQueueSize());
+
+		clientThread.invoke();
+
+		assertEquals(List.of("high", "normal 1", "normal 2", "low"), order);
+		assertEquals(0, clientThread.getQueueSize());
+	}
+
+	@Test
+	public void testLowPriorityDeferral()
+	{
+		List<String> order = new ArrayList<>();
+		clientThread.invokeLater(() -> busy(5), ClientThread.Priority.HIGH);
+		clientThread.invokeLater(() -> order.add("low 1"), ClientThread.Priority.LOW);
+		clientThread.invokeLater(() -> order.add("low 2"), ClientThread.Priority.LOW);
+
+		// the budget is spent, but one low priority task still runs
+		clientThread.invoke();
+		assertEquals(List.of("low 1"), order);
+		assertEquals(1, clientThread.getBudgetDeferrals());
+
+		clientThread.invoke();
+		assertEquals(List.of("low 1", "low 2"), order);
+		assertEquals(0, clientThread.getQueueSize());
+	}
+
+	@Test
+	public void testStarvedTaskIsPromoted()
+	{
+		clientThread.invokeLater(() ->
+		{
+			busy(3);
+			return false;
+		}, ClientThread.Priority.HIGH);
+
+		List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < 20; i++)
+		{
+			int task = i;
+			clientThread.invokeLater(() -> order.add(task), ClientThread.Priority.LOW);
+		}
+
+		// one low priority task per cycle, until the last ones were deferred 16 times
+		for (int cycle = 1; cycle <= 16; cycle++)
+		{
+			clientThread.invoke();
+			assertEquals(cycle, order.size());
+		}
+
+		clientThread.invoke();
+		assertEquals(20, order.size());
+		assertEquals(1, clientThread.getQueueSize());
+	}
+
+	@Test
+	public void testBackoff()
+	{
+		AtomicInteger normal = new AtomicInteger();
+		AtomicInteger low = new AtomicInteger();
+		clientThread.invokeLater(() -> normal.incrementAndGet() < 0);
+		clientThread.invokeLater(() -> low.incrementAndGet() < 0, ClientThread.Priority.LOW);
+
+		for (int cycle = 0; cycle < 40; cycle++)
+		{
+			clientThread.invoke();
+		}
+
+		// normal priority tasks are retried every cycle
+		assertEquals(40, normal.get());
+		// every cycle for 8 deferrals, then after 1, 2, 4, 8 and 16 cycles
+		assertEquals(13, low.get());
+	}
+
+	@Test
+	public void testTaskStats()
+	{
+		clientThread.invokeLater(() -> false);
+		clientThread.invoke();
+		clientThread.invoke();
+
+		ClientThread.TaskStats stats = clientThread.getTaskStats().stream()
+			.filter(s -> s.getName().equals(ClientThreadTest.class.getName()))
+			.findAny()
+			.orElseThrow();
+		assertEquals(2, stats.getRuns());
+		assertEquals(2, stats.getDeferrals());
+		assertTrue(stats.getTotalNanos() >= stats.getMaxNanos());
+	}
+
+	private static void busy(long millis)
+	{
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		while (System.nanoTime() < end)
+		{
+			// spin, sleeping could oversleep by far more than the budget
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package net.runelite.client.eventbus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncChannelTest
+{
+	private static final int CAPACITY = 3;
+
+	// runs the scheduled drains only when the test says so
+	private final Queue<Runnable> executor = new ArrayDeque<>();
+	private final List<Object> handled = new ArrayList<>();
+	private final List<Throwable> exceptions = new ArrayList<>();
+
+	private AsyncChannel channel;
+	private EventBus.Subscriber first;
+	private EventBus.Subscriber second;
+
+	@Before
+	public void before()
+	{
+		channel = new AsyncChannel("test", CAPACITY, executor::add, EventBus.Subscriber::invoke, exceptions::add);
+		first = new EventBus.Subscriber(this, null, 0, handled::add);
+		second = new EventBus.Subscriber(this, null, 0, event -> handled.add("second " + event));
+	}
+
+	@Test
+	public void testOrder()
+	{
+		channel.offer(first, 1, AsyncPolicy.DROP_OLDEST);
+		channel.offer(second, 2, AsyncPolicy.DROP_OLDEST);
+		channel.offer(first, 3, AsyncPolicy.DROP_OLDEST);
+
+		// one drain handles everything that was queued
+		assertEquals(1, executor.size());
+		drain();
+		assertEquals(List.of(1, "second 2", 3), handled);
+
+		channel.offer(first, 4, AsyncPolicy.DROP_OLDEST);
+		assertEquals(1, executor.size());
+		drain();
+		assertEquals(List.of(1, "second 2", 3, 4), handled);
+	}
+
+	@Test
+	public void testDropNewest()
+	{
+		for (int i = 1; i <= 5; i++)
+		{
+			channel.offer(first, i, AsyncPolicy.DROP_NEWEST);
+		}
+
+		drain();
+		assertEquals(List.of(1, 2, 3), handled);
+	}
+
+	@Test
+	public void testDropOldest()
+	{
+		for (int i = 1; i <= 5; i++)
+		{
+			channel.offer(first, i, AsyncPolicy.DROP_OLDEST);
+		}
+
+		drain();
+		assertEquals(List.of(3, 4, 5), handled);
+	}
+
+	@Test
+	public void testCoalesce()
+	{
+		channel.offer(first, 1, AsyncPolicy.COALESCE);
+		channel.offer(second, 2, AsyncPolicy.COALESCE);
+		channel.offer(first, 3, AsyncPolicy.COALESCE);
+		channel.offer(first, 4, AsyncPolicy.COALESCE);
+
+		// the latest event takes the place of the one still queued
+		drain();
+		assertEquals(List.of(4, "second 2"), handled);
+	}
+
+	@Test
+	public void testDiscard()
+	{
+		channel.offer(first, 1, AsyncPolicy.DROP_OLDEST);
+		channel.offer(second, 2, AsyncPolicy.DROP_OLDEST);
+		channel.discard(first);
+
+		drain();
+		assertEquals(List.of("second 2"), handled);
+	}
+
+	@Test
+	public void testClose()
+	{
+		channel.offer(first, 1, AsyncPolicy.DROP_OLDEST);
+		channel.close();
+		channel.offer(first, 2, AsyncPolicy.DROP_OLDEST);
+
+		drain();
+		assertEquals(List.of(), handled);
+	}
+
+	@Test
+	public void testException()
+	{
+		RuntimeException exception = new RuntimeException();
+		EventBus.Subscriber failing = new EventBus.Subscriber(this, null, 0, event ->
+		{
+			throw exception;
+		});
+		channel.offer(failing, 1, AsyncPolicy.DROP_OLDEST);
+		channel.offer(first, 2, AsyncPolicy.DROP_OLDEST);
+
+		drain();
+		assertEquals(List.of(exception), exceptions);
+		assertEquals(List.of(2), handled);
+	}
+
+	private void drain()
+	{
+		Runnable drain;
+		while ((drain = executor.poll()) != null)
+		{
+			drain.run();
+		}
+	}
+}
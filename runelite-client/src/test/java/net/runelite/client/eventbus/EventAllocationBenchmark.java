@@ -0,0 +1,112 @@
+package net.runelite.client.eventbus;
+
+import java.lang.management.ManagementFactory;
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.ScriptCallbackEvent;
+import net.runelite.api.events.VarbitChanged;
+
+/**
+ * Measures the bytes allocated per frame when the client posts a fresh event object for every high frequency event,
+ * against reusing one instance per event class and skipping events without subscribers, as the mixins do.
+ * <p>
+ * The frame mirrors a busy scene: {@link #ANIMATIONS} animation changes, {@link #VARPS} varp writes from a combat
+ * HUD and {@link #CALLBACKS} script callbacks per frame. Script callbacks have no subscriber, like in a client
+ * without chat plugins.
+ */
+public class EventAllocationBenchmark
+{
+	private static final int ANIMATIONS = 20;
+	private static final int VARPS = 40;
+	private static final int CALLBACKS = 60;
+	private static final int WARMUP_FRAMES = 50_000;
+	private static final int FRAMES = 200_000;
+
+	private static int sink;
+
+	public static void main(String[] args)
+	{
+		EventBus eventBus = new EventBus();
+		eventBus.register(AnimationChanged.class, e -> sink++, 0);
+		eventBus.register(VarbitChanged.class, e -> sink += e.getValue(), 0);
+
+		run("allocating", () ->
+		{
+			for (int i = 0; i < ANIMATIONS; i++)
+			{
+				AnimationChanged event = new AnimationChanged();
+				event.setActor(null);
+				eventBus.post(event);
+			}
+
+			for (int i = 0; i < VARPS; i++)
+			{
+				VarbitChanged event = new VarbitChanged();
+				event.setIndex(i);
+				event.setValue(i);
+				eventBus.post(event);
+			}
+
+			for (int i = 0; i < CALLBACKS; i++)
+			{
+				ScriptCallbackEvent event = new ScriptCallbackEvent();
+				event.setEventName("callback");
+				eventBus.post(event);
+			}
+		});
+
+		AnimationChanged animationChanged = new AnimationChanged();
+		VarbitChanged varbitChanged = new VarbitChanged();
+		ScriptCallbackEvent scriptCallbackEvent = new ScriptCallbackEvent();
+		run("reusing", () ->
+		{
+			for (int i = 0; i < ANIMATIONS; i++)
+			{
+				if (eventBus.isSubscribed(AnimationChanged.class))
+				{
+					animationChanged.setActor(null);
+					eventBus.post(animationChanged);
+				}
+			}
+
+			for (int i = 0; i < VARPS; i++)
+			{
+				if (eventBus.isSubscribed(VarbitChanged.class))
+				{
+					varbitChanged.setIndex(i);
+					varbitChanged.setValue(i);
+					eventBus.post(varbitChanged);
+				}
+			}
+
+			for (int i = 0; i < CALLBACKS; i++)
+			{
+				if (eventBus.isSubscribed(ScriptCallbackEvent.class))
+				{
+					scriptCallbackEvent.setEventName("callback");
+					eventBus.post(scriptCallbackEvent);
+				}
+			}
+		});
+	}
+
+	private static void run(String name, Runnable frame)
+	{
+		for (int i = 0; i < WARMUP_FRAMES; i++)
+		{
+			frame.run();
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long startBytes = threads.getThreadAllocatedBytes(threadId);
+		long startTime = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++)
+		{
+			frame.run();
+		}
+
+		long nanos = System.nanoTime() - startTime;
+		long bytes = threads.getThreadAllocatedBytes(threadId) - startBytes;
+		System.out.printf("%-12s %8.1f bytes/frame %8.1f ns/frame%n", name, bytes / (double) FRAMES, nanos / (double) FRAMES);
+	}
+}
@@ -0,0 +1,229 @@
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how long registering plugins, and toggling a single plugin off and on again, takes with
+ * {@link #PLUGINS} plugins registered on the event bus.
+ */
+public class EventBusRegistrationBenchmark
+{
+	private static final int PLUGINS = 300;
+	private static final int TOGGLES = 2_000;
+
+	private static int sink;
+
+	public static void main(String[] args)
+	{
+		for (int round = 0; round < 3; round++)
+		{
+			EventBus eventBus = new EventBus();
+			List<Object> plugins = new ArrayList<>();
+			for (int i = 0; i < PLUGINS; i++)
+			{
+				plugins.add(plugin(i));
+			}
+
+			long start = System.nanoTime();
+			for (Object plugin : plugins)
+			{
+				eventBus.register(plugin);
+			}
+
+			long register = System.nanoTime() - start;
+
+			Object toggled = plugins.get(PLUGINS / 2);
+			start = System.nanoTime();
+			for (int i = 0; i < TOGGLES; i++)
+			{
+				eventBus.unregister(toggled);
+				eventBus.register(toggled);
+			}
+
+			long toggle = System.nanoTime() - start;
+
+			Tick tick = new Tick();
+			start = System.nanoTime();
+			for (int i = 0; i < TOGGLES; i++)
+			{
+				eventBus.post(tick);
+			}
+
+			long post = System.nanoTime() - start;
+
+			System.out.printf("register %d plugins %8.2f ms, toggle one %8.2f us, post %8.2f us%n",
+				PLUGINS, register / 1e6, toggle / 1e3 / TOGGLES, post / 1e3 / TOGGLES);
+		}
+	}
+
+	private static Object plugin(int i)
+	{
+		switch (i % 5)
+		{
+			case 0:
+				return new CombatPlugin();
+			case 1:
+				return new SkillingPlugin();
+			case 2:
+				return new MenuPlugin();
+			case 3:
+				return new ChatPlugin();
+			default:
+				return new OverlayPlugin();
+		}
+	}
+
+	static class Tick
+	{
+	}
+
+	static class MenuOpened
+	{
+	}
+
+	static class MenuClicked
+	{
+	}
+
+	static class Chat
+	{
+	}
+
+	static class StatChanged
+	{
+	}
+
+	static class NpcSpawned
+	{
+	}
+
+	static class NpcDespawned
+	{
+	}
+
+	static class Animation
+	{
+	}
+
+	static class Varbit
+	{
+	}
+
+	static class ConfigChanged
+	{
+	}
+
+	static class CombatPlugin
+	{
+		@Subscribe
+		private void onTick(Tick e)
+		{
+			sink++;
+		}
+
+		@Subscribe
+		private void onNpcSpawned(NpcSpawned e)
+		{
+		}
+
+		@Subscribe
+		private void onNpcDespawned(NpcDespawned e)
+		{
+		}
+
+		@Subscribe(priority = 1)
+		private void onAnimation(Animation e)
+		{
+		}
+
+		@Subscribe
+		private void onConfigChanged(ConfigChanged e)
+		{
+		}
+	}
+
+	static class SkillingPlugin
+	{
+		@Subscribe
+		private void onTick(Tick e)
+		{
+			sink++;
+		}
+
+		@Subscribe
+		private void onStatChanged(StatChanged e)
+		{
+		}
+
+		@Subscribe
+		private void onVarbit(Varbit e)
+		{
+		}
+
+		@Subscribe
+		private void onConfigChanged(ConfigChanged e)
+		{
+		}
+	}
+
+	static class MenuPlugin
+	{
+		@Subscribe(priority = -1)
+		private void onMenuOpened(MenuOpened e)
+		{
+		}
+
+		@Subscribe
+		private void onMenuClicked(MenuClicked e)
+		{
+		}
+
+		@Subscribe
+		private void onConfigChanged(ConfigChanged e)
+		{
+		}
+	}
+
+	static class ChatPlugin
+	{
+		@Subscribe
+		private void onChat(Chat e)
+		{
+		}
+
+		@Subscribe
+		private void onVarbit(Varbit e)
+		{
+		}
+
+		@Subscribe
+		private void onConfigChanged(ConfigChanged e)
+		{
+		}
+	}
+
+	static class OverlayPlugin
+	{
+		@Subscribe
+		private void onTick(Tick e)
+		{
+			sink++;
+		}
+
+		@Subscribe
+		private void onNpcSpawned(NpcSpawned e)
+		{
+		}
+
+		@Subscribe
+		private void onMenuOpened(MenuOpened e)
+		{
+		}
+
+		@Subscribe
+		private void onConfigChanged(ConfigChanged e)
+		{
+		}
+	}
+}
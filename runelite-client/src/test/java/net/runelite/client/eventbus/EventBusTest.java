@@ -0,0 +1,316 @@
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.events.AnimationChanged;
+import net.runelite.api.events.VarbitChanged;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventBusTest
+{
+	private static final int VARBIT = 1234;
+
+	private EventBus eventBus;
+
+	@Before
+	public void before()
+	{
+		eventBus = new EventBus();
+	}
+
+	@Test
+	public void testOrder()
+	{
+		List<String> calls = new ArrayList<>();
+		eventBus.register(new Beta(calls, "beta 1"));
+		eventBus.register(new Alpha(calls, "alpha 1"));
+		eventBus.register(new Urgent(calls, "urgent"));
+		eventBus.register(new Alpha(calls, "alpha 2"));
+		eventBus.register(new Beta(calls, "beta 2"));
+
+		eventBus.post(new TestEvent());
+
+		// by priority, then by class name, then in the order they were registered
+		assertEquals(List.of("urgent", "alpha 1", "alpha 2", "beta 1", "beta 2"), calls);
+	}
+
+	@Test
+	public void testUnregisterSubscriber()
+	{
+		List<String> calls = new ArrayList<>();
+		Alpha alpha = new Alpha(calls, "alpha");
+		eventBus.register(alpha);
+		EventBus.Subscriber subscriber = eventBus.register(TestEvent.class, e -> calls.add("lambda"), 0);
+
+		eventBus.unregister(subscriber);
+		eventBus.post(new TestEvent());
+		assertEquals(List.of("alpha"), calls);
+
+		// unregistering a subscriber which is gone, or an object which never registered, does nothing
+		eventBus.unregister(subscriber);
+		eventBus.unregister(new Object());
+		eventBus.post(new TestEvent());
+		assertEquals(List.of("alpha", "alpha"), calls);
+	}
+
+	@Test
+	public void testUnregisterObject()
+	{
+		List<String> calls = new ArrayList<>();
+		Alpha alpha = new Alpha(calls, "alpha");
+		eventBus.register(alpha);
+		eventBus.register(TestEvent.class, e -> calls.add("lambda"), 0);
+
+		eventBus.unregister(alpha);
+		eventBus.post(new TestEvent());
+		assertEquals(List.of("lambda"), calls);
+	}
+
+	@Test
+	public void testRegisterTwice()
+	{
+		List<String> calls = new ArrayList<>();
+		Alpha alpha = new Alpha(calls, "alpha");
+		eventBus.register(alpha);
+		eventBus.register(alpha);
+
+		eventBus.post(new TestEvent());
+		assertEquals(List.of("alpha", "alpha"), calls);
+
+		// a single unregister removes both
+		eventBus.unregister(alpha);
+		eventBus.post(new TestEvent());
+		assertEquals(List.of("alpha", "alpha"), calls);
+		assertFalse(eventBus.isSubscribed(TestEvent.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSubclassOfSubscribedEvent()
+	{
+		eventBus.register(new Alpha(new ArrayList<>(), "alpha"));
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			public void onSubclassEvent(SubclassEvent event)
+			{
+			}
+		});
+	}
+
+	@Test
+	public void testPostAfterUnregister()
+	{
+		List<String> calls = new ArrayList<>();
+		Alpha alpha = new Alpha(calls, "alpha");
+		eventBus.register(alpha);
+		EventBus.Subscriber subscriber = eventBus.register(TestEvent.class, e -> calls.add("lambda"), 0);
+		assertTrue(eventBus.isSubscribed(TestEvent.class));
+
+		eventBus.unregister(alpha);
+		eventBus.unregister(subscriber);
+		assertFalse(eventBus.isSubscribed(TestEvent.class));
+
+		eventBus.post(new TestEvent());
+		assertEquals(List.of(), calls);
+
+		// the event class can be subscribed again
+		eventBus.register(alpha);
+		eventBus.post(new TestEvent());
+		assertEquals(List.of("alpha"), calls);
+	}
+
+	@Test
+	public void testUnregisterDropsProfilerStats()
+	{
+		EventBusProfiler profiler = new EventBusProfiler();
+		eventBus.setProfiler(profiler);
+		List<String> calls = new ArrayList<>();
+		Alpha alpha = new Alpha(calls, "alpha");
+		eventBus.register(alpha);
+		EventBus.Subscriber subscriber = eventBus.register(TestEvent.class, e -> calls.add("lambda"), 0);
+
+		eventBus.post(new TestEvent());
+		assertEquals(2, profiler.getStats().size());
+
+		eventBus.unregister(alpha);
+		assertEquals(1, profiler.getStats().size());
+		eventBus.unregister(subscriber);
+		assertTrue(profiler.getStats().isEmpty());
+	}
+
+	@Test
+	public void testVarbitSubscriber()
+	{
+		VarbitSubscriber subscriber = new VarbitSubscriber();
+		eventBus.register(subscriber);
+
+		VarbitChanged event = new VarbitChanged();
+		eventBus.post(event);
+		eventBus.postVarbit(VARBIT + 1, event);
+		assertEquals(List.of(), subscriber.events);
+
+		eventBus.postVarbit(VARBIT, event);
+		assertEquals(List.of(event), subscriber.events);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testVarbitSubscriberMustTakeVarbitChanged()
+	{
+		eventBus.register(new Object()
+		{
+			@Subscribe(varbit = VARBIT)
+			public void onTestEvent(TestEvent event)
+			{
+			}
+		});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAsyncReusedEvent()
+	{
+		eventBus.register(new Object()
+		{
+			@Subscribe(async = true)
+			public void onAnimationChanged(AnimationChanged event)
+			{
+			}
+		});
+	}
+
+	@Test
+	public void testAsyncVarbitSubscriber()
+	{
+		// varbit subscribers get an event allocated for every post
+		eventBus.register(new Object()
+		{
+			@Subscribe(varbit = VARBIT, async = true)
+			public void onVarbitChanged(VarbitChanged event)
+			{
+			}
+		});
+		assertTrue(eventBus.isVarbitSubscribed(VARBIT));
+	}
+
+	@Test
+	public void testAsyncSubscriberIsProfiledOnWorker() throws InterruptedException
+	{
+		EventBusProfiler profiler = new EventBusProfiler();
+		eventBus.setProfiler(profiler);
+		CountDownLatch handled = new CountDownLatch(1);
+		eventBus.register(new Object()
+		{
+			@Subscribe(async = true)
+			public void onTestEvent(TestEvent event) throws InterruptedException
+			{
+				Thread.sleep(20);
+				handled.countDown();
+			}
+		});
+
+		eventBus.post(new TestEvent());
+		assertTrue(handled.await(10, TimeUnit.SECONDS));
+
+		// the call is recorded on the worker after the handler returns
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (maxNanos(profiler) == 0 && System.nanoTime() < deadline)
+		{
+			Thread.sleep(1);
+		}
+
+		assertEquals(1, profiler.getStats().size());
+		assertEquals(1, profiler.getStats().iterator().next().getCalls());
+		assertTrue(maxNanos(profiler) >= TimeUnit.MILLISECONDS.toNanos(20));
+	}
+
+	private static long maxNanos(EventBusProfiler profiler)
+	{
+		return profiler.getStats().stream()
+			.mapToLong(EventBusProfiler.HandlerStats::getMaxNanos)
+			.max()
+			.orElse(0);
+	}
+
+	private static class TestEvent
+	{
+	}
+
+	private static class SubclassEvent extends TestEvent
+	{
+	}
+
+	private abstract static class Recorder
+	{
+		private final List<String> calls;
+		private final String name;
+
+		Recorder(List<String> calls, String name)
+		{
+			this.calls = calls;
+			this.name = name;
+		}
+
+		void record()
+		{
+			calls.add(name);
+		}
+	}
+
+	private static class Alpha extends Recorder
+	{
+		Alpha(List<String> calls, String name)
+		{
+			super(calls, name);
+		}
+
+		@Subscribe
+		public void onTestEvent(TestEvent event)
+		{
+			record();
+		}
+	}
+
+	private static class Beta extends Recorder
+	{
+		Beta(List<String> calls, String name)
+		{
+			super(calls, name);
+		}
+
+		@Subscribe
+		public void onTestEvent(TestEvent event)
+		{
+			record();
+		}
+	}
+
+	private static class Urgent extends Recorder
+	{
+		Urgent(List<String> calls, String name)
+		{
+			super(calls, name);
+		}
+
+		@Subscribe(priority = 10)
+		public void onTestEvent(TestEvent event)
+		{
+			record();
+		}
+	}
+
+	private static class VarbitSubscriber
+	{
+		private final List<Object> events = new ArrayList<>();
+
+		@Subscribe(varbit = VARBIT)
+		public void onVarbitChanged(VarbitChanged event)
+		{
+			events.add(event);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package net.unethicalite.api.entities;
+
+import net.runelite.api.NPC;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the bytes allocated and wall time per call of copying the NPCs into a list, as {@code Client.getNpcs()}
+ * does, against iterating the index array, as {@code Client.forEachNpc} does. Both loops mirror the client mixin,
+ * which can't run outside the injected client.
+ */
+public class NpcIterationBenchmark
+{
+	private static final int NPC_COUNT = 250; // a crowded scene, e.g. a world boss
+	private static final int MATCHES = 10;
+	private static final int WARMUP_ROUNDS = 100_000;
+	private static final int ROUNDS = 1_000_000;
+
+	private static final NPC[] CACHED_NPCS = new NPC[32768];
+	private static final int[] NPC_INDICES = new int[32768];
+
+	private static int sink;
+
+	public static void main(String[] args)
+	{
+		for (int i = 0; i < NPC_COUNT; i++)
+		{
+			int index = i * 37;
+			CACHED_NPCS[index] = mock(NPC.class);
+			NPC_INDICES[i] = index;
+		}
+
+		// the filter compares references, calling into the mocks would record invocations and allocate
+		NPC[] matching = new NPC[MATCHES];
+		for (int i = 0; i < MATCHES; i++)
+		{
+			matching[i] = CACHED_NPCS[NPC_INDICES[i]];
+		}
+
+		Predicate<NPC> filter = npc ->
+		{
+			for (NPC match : matching)
+			{
+				if (match == npc)
+				{
+					return true;
+				}
+			}
+
+			return false;
+		};
+
+		run("getNpcs + filter", () -> sink += filter(copy(), filter).size());
+		run("forEachNpc + filter", () ->
+		{
+			List<NPC> out = new ArrayList<>();
+			forEach(npc ->
+			{
+				if (filter.test(npc))
+				{
+					out.add(npc);
+				}
+			});
+			sink += out.size();
+		});
+		run("forEachNpc", () -> forEach(npc -> sink++));
+	}
+
+	private static void run(String name, Runnable runnable)
+	{
+		for (int i = 0; i < WARMUP_ROUNDS; i++)
+		{
+			runnable.run();
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long startBytes = threads.getThreadAllocatedBytes(threadId);
+		long startTime = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++)
+		{
+			runnable.run();
+		}
+
+		long nanos = System.nanoTime() - startTime;
+		long bytes = threads.getThreadAllocatedBytes(threadId) - startBytes;
+		System.out.printf("%-20s %8.1f bytes/call %8.1f ns/call%n", name, bytes / (double) ROUNDS, nanos / (double) ROUNDS);
+	}
+
+	private static List<NPC> copy()
+	{
+		List<NPC> npcs = new ArrayList<>(NPC_COUNT);
+		for (int i = 0; i < NPC_COUNT; ++i)
+		{
+			npcs.add(CACHED_NPCS[NPC_INDICES[i]]);
+		}
+
+		return npcs;
+	}
+
+	private static List<NPC> filter(List<NPC> npcs, Predicate<NPC> filter)
+	{
+		List<NPC> out = new ArrayList<>();
+		for (NPC npc : npcs)
+		{
+			if (filter.test(npc))
+			{
+				out.add(npc);
+			}
+		}
+
+		return out;
+	}
+
+	private static void forEach(Consumer<? super NPC> consumer)
+	{
+		for (int i = 0; i < NPC_COUNT; ++i)
+		{
+			NPC npc = CACHED_NPCS[NPC_INDICES[i]];
+			if (npc != null)
+			{
+				consumer.accept(npc);
+			}
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares nodes expanded and wall time of each {@link PathfinderAlgorithm} on fixed routes.
+ * Transports are left out since they need a logged in client to evaluate their requirements.
+ */
+public class PathfinderBenchmark
+{
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int ROUNDS = 10;
+
+	private static final WorldPoint[][] ROUTES = {
+		{new WorldPoint(3222, 3218, 0), new WorldPoint(3213, 3428, 0)}, // Lumbridge -> Varrock square
+		{new WorldPoint(3222, 3218, 0), new WorldPoint(3092, 3245, 0)}, // Lumbridge -> Draynor bank
+		{new WorldPoint(2964, 3378, 0), new WorldPoint(3094, 3491, 0)}, // Falador -> Edgeville
+		{new WorldPoint(2726, 3485, 0), new WorldPoint(2809, 3440, 0)}, // Seers' Village -> Catherby
+		{new WorldPoint(3164, 3486, 0), new WorldPoint(2757, 3479, 0)}, // Grand Exchange -> Camelot
+	};
+
+	public static void main(String[] args) throws Exception
+	{
+		GlobalCollisionMap map = GlobalCollisionMap.fetchFromUrl(null);
+
+		for (WorldPoint[] route : ROUTES)
+		{
+			System.out.printf("%s -> %s%n", route[0], route[1]);
+			for (PathfinderAlgorithm algorithm : PathfinderAlgorithm.values())
+			{
+				run(map, algorithm, route[0], route[1]);
+			}
+		}
+	}
+
+	private static void run(CollisionMap map, PathfinderAlgorithm algorithm, WorldPoint start, WorldPoint target)
+	{
+		for (int i = 0; i < WARMUP_ROUNDS; i++)
+		{
+			new Pathfinder(map, Map.of(), List.of(start), target, algorithm).find();
+		}
+
+		long totalNanos = 0;
+		int expanded = 0;
+		int length = 0;
+		for (int i = 0; i < ROUNDS; i++)
+		{
+			Pathfinder pathfinder = new Pathfinder(map, Map.of(), List.of(start), target, algorithm);
+			long startTime = System.nanoTime();
+			List<WorldPoint> path = pathfinder.find();
+			totalNanos += System.nanoTime() - startTime;
+			expanded = pathfinder.getExpanded();
+			length = path.size();
+		}
+
+		System.out.printf("  %-13s %9d nodes %8.2f ms  path length %d%n",
+			algorithm, expanded, totalNanos / (ROUNDS * 1_000_000.0), length);
+	}
+}
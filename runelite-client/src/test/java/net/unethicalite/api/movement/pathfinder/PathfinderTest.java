@@ -0,0 +1,268 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PathfinderTest
+{
+	private static final int BASE_X = 3200;
+	private static final int BASE_Y = 3200;
+
+	// '#' is a blocked tile, the first row is the northernmost
+	private static final String[] MAZE = {
+		"............",
+		".##########.",
+		".#........#.",
+		".#.######.#.",
+		".#.#....#.#.",
+		".#.#.##.#...",
+		".#.#..#.###.",
+		".#.##.#.....",
+		"...#..#####.",
+		"...#........",
+	};
+
+	private static final String[] OPEN = {
+		"..........",
+		"..........",
+		"....##....",
+		"....##....",
+		"..........",
+		"..........",
+	};
+
+	// the center tile is free but walled in
+	private static final String[] ENCLOSED = {
+		"........",
+		"........",
+		"..###...",
+		"..#.#...",
+		"..###...",
+		"........",
+	};
+
+	@Test
+	public void testEqualLengthInMaze()
+	{
+		CollisionMap map = new GridCollisionMap(MAZE);
+		assertEqualLength(map, point(0, 0), point(4, 4));
+		assertEqualLength(map, point(5, 2), point(11, 9));
+		assertEqualLength(map, point(2, 4), point(9, 6));
+	}
+
+	@Test
+	public void testEqualLengthInOpenArea()
+	{
+		CollisionMap map = new GridCollisionMap(OPEN);
+		assertEqualLength(map, point(0, 0), point(9, 5));
+		assertEqualLength(map, point(2, 2), point(7, 3));
+		assertEqualLength(map, point(4, 0), point(5, 5));
+	}
+
+	@Test
+	public void testStartIsTarget()
+	{
+		CollisionMap map = new GridCollisionMap(OPEN);
+		for (PathfinderAlgorithm algorithm : PathfinderAlgorithm.values())
+		{
+			List<WorldPoint> path = new Pathfinder(map, Map.of(), List.of(point(3, 3)), point(3, 3), algorithm).find();
+			assertEquals(algorithm.name(), List.of(point(3, 3)), path);
+		}
+	}
+
+	@Test
+	public void testFindNearest()
+	{
+		CollisionMap map = new GridCollisionMap(OPEN);
+		Pathfinder pathfinder = new Pathfinder(map, Map.of(), List.of(point(0, 0)), point(0, 0));
+
+		List<WorldPoint> path = pathfinder.findNearest(List.of(point(9, 5), point(3, 3), point(0, 5)));
+		assertEquals(List.of(point(0, 0), point(1, 1), point(2, 2), point(3, 3)), path);
+		assertValid(map, path);
+	}
+
+	@Test
+	public void testFindNearestSkipsUnreachable()
+	{
+		CollisionMap map = new GridCollisionMap(ENCLOSED);
+		Pathfinder pathfinder = new Pathfinder(map, Map.of(), List.of(point(0, 0)), point(0, 0));
+
+		assertEquals(List.of(), pathfinder.findNearest(List.of(point(3, 2))));
+
+		List<WorldPoint> path = pathfinder.findNearest(List.of(point(3, 2), point(7, 2)));
+		assertEquals(point(7, 2), path.get(path.size() - 1));
+		assertValid(map, path);
+	}
+
+	@Test
+	public void testDistances()
+	{
+		CollisionMap map = new GridCollisionMap(ENCLOSED);
+		Pathfinder pathfinder = new Pathfinder(map, Map.of(), List.of(point(0, 0)), point(0, 0));
+
+		// (5, 4) is reached around the walls, (3, 2) not at all
+		Map<WorldPoint, Integer> distances = pathfinder.distances(
+			List.of(point(0, 0), point(3, 0), point(0, 5), point(5, 4), point(3, 2)), 5_000_000);
+		assertEquals(Map.of(point(0, 0), 0, point(3, 0), 3, point(0, 5), 5, point(5, 4), 8), distances);
+		assertFalse(distances.containsKey(point(3, 2)));
+	}
+
+	@Test
+	public void testPooledDistances()
+	{
+		CollisionMap map = new GridCollisionMap(MAZE);
+		List<WorldPoint> targets = new ArrayList<>();
+		for (int x = 0; x < MAZE[0].length(); x++)
+		{
+			for (int y = 0; y < MAZE.length; y++)
+			{
+				targets.add(point(x, y));
+			}
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			Map<WorldPoint, Integer> expected = new Pathfinder(map, Map.of(), List.of(point(5, 2)), point(5, 2))
+				.distances(targets, 5_000_000);
+			Map<WorldPoint, Integer> pooled = new Pathfinder(map, Map.of(), List.of(point(5, 2)), point(5, 2))
+				.distances(targets, 5_000_000, pool, 4);
+
+			assertTrue(expected.size() > 1);
+			assertEquals(expected, pooled);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPooledDistancesFailure()
+	{
+		CollisionMap map = new GridCollisionMap(OPEN)
+		{
+			@Override
+			public boolean e(int x, int y, int z)
+			{
+				throw new IllegalStateException();
+			}
+		};
+
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try
+		{
+			new Pathfinder(map, Map.of(), List.of(point(0, 0)), point(0, 0))
+				.distances(List.of(point(9, 5), point(0, 5)), 5_000_000, pool, 2);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	private static void assertEqualLength(CollisionMap map, WorldPoint start, WorldPoint target)
+	{
+		int expected = new Pathfinder(map, Map.of(), List.of(start), target, PathfinderAlgorithm.BFS).find().size();
+		assertTrue(expected > 1);
+
+		for (PathfinderAlgorithm algorithm : PathfinderAlgorithm.values())
+		{
+			List<WorldPoint> path = new Pathfinder(map, Map.of(), List.of(start), target, algorithm).find();
+			assertEquals(algorithm.name(), expected, path.size());
+			assertEquals(algorithm.name(), start, path.get(0));
+			assertEquals(algorithm.name(), target, path.get(path.size() - 1));
+			assertValid(map, path);
+		}
+	}
+
+	private static void assertValid(CollisionMap map, List<WorldPoint> path)
+	{
+		for (int i = 1; i < path.size(); i++)
+		{
+			WorldPoint from = path.get(i - 1);
+			WorldPoint to = path.get(i);
+			int dx = to.getX() - from.getX();
+			int dy = to.getY() - from.getY();
+			boolean legal;
+			if (dx == 0 && dy == 1)
+			{
+				legal = map.n(from);
+			}
+			else if (dx == 0 && dy == -1)
+			{
+				legal = map.s(from);
+			}
+			else if (dx == 1 && dy == 0)
+			{
+				legal = map.e(from);
+			}
+			else if (dx == -1 && dy == 0)
+			{
+				legal = map.w(from);
+			}
+			else if (dx == 1 && dy == 1)
+			{
+				legal = map.ne(from);
+			}
+			else if (dx == -1 && dy == 1)
+			{
+				legal = map.nw(from);
+			}
+			else if (dx == 1 && dy == -1)
+			{
+				legal = map.se(from);
+			}
+			else
+			{
+				legal = dx == -1 && dy == -1 && map.sw(from);
+			}
+
+			assertTrue(from + " -> " + to, legal);
+		}
+	}
+
+	private static WorldPoint point(int x, int y)
+	{
+		return new WorldPoint(BASE_X + x, BASE_Y + y, 0);
+	}
+
+	private static class GridCollisionMap implements CollisionMap
+	{
+		private final String[] rows;
+
+		private GridCollisionMap(String[] rows)
+		{
+			this.rows = rows;
+		}
+
+		private boolean free(int x, int y, int z)
+		{
+			int column = x - BASE_X;
+			int row = rows.length - 1 - (y - BASE_Y);
+			return z == 0 && row >= 0 && row < rows.length && column >= 0 && column < rows[row].length()
+				&& rows[row].charAt(column) == '.';
+		}
+
+		@Override
+		public boolean n(int x, int y, int z)
+		{
+			return free(x, y, z) && free(x, y + 1, z);
+		}
+
+		@Override
+		public boolean e(int x, int y, int z)
+		{
+			return free(x, y, z) && free(x + 1, y, z);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package net.unethicalite.api.movement.pathfinder;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class RegionGraphTest
+{
+	private static final int BASE_X = 3200;
+	private static final int BASE_Y = 3200;
+	private static final int SIZE = 128;
+
+	private GlobalCollisionMap map;
+
+	@Before
+	public void before()
+	{
+		map = new GlobalCollisionMap();
+		for (int x = BASE_X; x < BASE_X + SIZE; x += 64)
+		{
+			for (int y = BASE_Y; y < BASE_Y + SIZE; y += 64)
+			{
+				map.createRegion(x / 64 * 256 + y / 64);
+			}
+		}
+	}
+
+	@Test
+	public void testUpdateMatchesBuild()
+	{
+		RegionGraph initial = map.getRegionGraph();
+		int components = initial.getComponentCount();
+
+		// splits the south west region in two
+		for (int y = BASE_Y; y < BASE_Y + 64; y++)
+		{
+			map.set(BASE_X + 30, y, 0, 1, false);
+		}
+
+		RegionGraph updated = map.getRegionGraph();
+		assertNotSame(initial, updated);
+		assertEquals(components + 1, updated.getComponentCount());
+		assertNotEquals(updated.component(new WorldPoint(BASE_X + 10, BASE_Y + 10, 0)),
+			updated.component(new WorldPoint(BASE_X + 50, BASE_Y + 10, 0)));
+		assertComponentsEqual(RegionGraph.build(map, List.of()), updated);
+	}
+
+	@Test
+	public void testOldGraphKeepsItsLabels()
+	{
+		int[] expected = components(RegionGraph.build(map, List.of()));
+		RegionGraph initial = map.getRegionGraph();
+
+		// splits the south west region in two before the initial graph was asked about any of its tiles
+		for (int y = BASE_Y; y < BASE_Y + 64; y++)
+		{
+			map.set(BASE_X + 30, y, 0, 1, false);
+		}
+
+		map.getRegionGraph();
+		assertArrayEquals(expected, components(initial));
+	}
+
+	@Test
+	public void testUnchangedGraphIsReused()
+	{
+		assertEquals(map.getRegionGraph(), map.getRegionGraph());
+	}
+
+	@Test
+	public void testHierarchicalSearchAfterUpdate()
+	{
+		map.getRegionGraph();
+
+		// a wall along the border of the western regions, open only at one tile in the north
+		for (int y = BASE_Y; y < BASE_Y + SIZE; y++)
+		{
+			if (y != BASE_Y + 100)
+			{
+				map.set(BASE_X + 63, y, 0, 1, false);
+			}
+		}
+
+		WorldPoint start = new WorldPoint(BASE_X + 10, BASE_Y + 10, 0);
+		WorldPoint target = new WorldPoint(BASE_X + 100, BASE_Y + 10, 0);
+		List<WorldPoint> expected = new Pathfinder(map, Map.of(), List.of(start), target, PathfinderAlgorithm.BFS).find();
+		List<WorldPoint> path = new Pathfinder(map, Map.of(), List.of(start), target, PathfinderAlgorithm.HIERARCHICAL).find();
+
+		assertEquals(target, path.get(path.size() - 1));
+		assertEquals(expected.size(), path.size());
+	}
+
+	private static int[] components(RegionGraph graph)
+	{
+		int[] components = new int[SIZE * SIZE];
+		for (int x = BASE_X; x < BASE_X + SIZE; x++)
+		{
+			for (int y = BASE_Y; y < BASE_Y + SIZE; y++)
+			{
+				components[(y - BASE_Y) * SIZE + x - BASE_X] = graph.component(new WorldPoint(x, y, 0));
+			}
+		}
+
+		return components;
+	}
+
+	private static void assertComponentsEqual(RegionGraph expected, RegionGraph actual)
+	{
+		assertEquals(expected.getComponentCount(), actual.getComponentCount());
+		for (int plane = 0; plane < 4; plane++)
+		{
+			for (int x = BASE_X; x < BASE_X + SIZE; x++)
+			{
+				for (int y = BASE_Y; y < BASE_Y + SIZE; y++)
+				{
+					WorldPoint point = new WorldPoint(x, y, plane);
+					assertEquals(point.toString(), expected.component(point), actual.component(point));
+				}
+			}
+		}
+	}
+}
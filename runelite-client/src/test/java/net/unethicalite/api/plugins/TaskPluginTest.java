@@ -0,0 +1,156 @@
+package net.unethicalite.api.plugins;
+
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.eventbus.EventBus;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskPluginTest
+{
+	private EventBus eventBus;
+
+	@Before
+	public void before()
+	{
+		eventBus = new EventBus();
+	}
+
+	@Test
+	public void testValidationIsReusedUntilInputChanges()
+	{
+		CountingTask varbits = new CountingTask(Set.of(TaskInput.VARBITS));
+		CountingTask inventory = new CountingTask(Set.of(TaskInput.INVENTORY));
+		CountingTask undeclared = new CountingTask(Set.of());
+		TestPlugin plugin = new TestPlugin(varbits, inventory, undeclared);
+		eventBus.register(plugin);
+
+		plugin.loop();
+		plugin.loop();
+		assertEquals(1, varbits.validations);
+		assertEquals(1, inventory.validations);
+		assertEquals(2, undeclared.validations);
+
+		eventBus.post(new VarbitChanged());
+		plugin.loop();
+		assertEquals(2, varbits.validations);
+		assertEquals(1, inventory.validations);
+		assertEquals(3, undeclared.validations);
+
+		plugin.loop();
+		assertEquals(2, varbits.validations);
+	}
+
+	@Test
+	public void testExecutedTaskIsValidatedAgain()
+	{
+		CountingTask task = new CountingTask(Set.of(TaskInput.VARBITS));
+		task.valid = true;
+		TestPlugin plugin = new TestPlugin(task);
+
+		plugin.loop();
+		plugin.loop();
+		assertEquals(2, task.validations);
+		assertEquals(2, task.executions);
+	}
+
+	@Test
+	public void testStopCancelsParallelTasks() throws InterruptedException
+	{
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		CountingTask task = new CountingTask(Set.of())
+		{
+			@Override
+			public int execute()
+			{
+				started.countDown();
+				try
+				{
+					Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+				}
+				catch (InterruptedException e)
+				{
+					interrupted.countDown();
+				}
+
+				return 0;
+			}
+
+			@Override
+			public boolean isBlocking()
+			{
+				return false;
+			}
+
+			@Override
+			public boolean isParallel()
+			{
+				return true;
+			}
+		};
+		task.valid = true;
+		TestPlugin plugin = new TestPlugin(task);
+
+		plugin.loop();
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		plugin.stop();
+		assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+	}
+
+	private static class TestPlugin extends TaskPlugin
+	{
+		private final Task[] tasks;
+
+		private TestPlugin(Task... tasks)
+		{
+			this.tasks = tasks;
+		}
+
+		@Override
+		public Task[] getTasks()
+		{
+			return tasks;
+		}
+	}
+
+	private static class CountingTask implements Task
+	{
+		private final Set<TaskInput> inputs;
+		private boolean valid;
+		private int validations;
+		private int executions;
+
+		private CountingTask(Set<TaskInput> inputs)
+		{
+			this.inputs = inputs;
+		}
+
+		@Override
+		public boolean validate()
+		{
+			validations++;
+			return valid;
+		}
+
+		@Override
+		public int execute()
+		{
+			executions++;
+			return 0;
+		}
+
+		@Override
+		public Set<TaskInput> getInputs()
+		{
+			return inputs;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package net.unethicalite.api.query.entities;
+
+import net.runelite.api.coords.WorldPoint;
+import net.unethicalite.api.SceneEntity;
+import net.unethicalite.api.query.results.SceneEntityQueryResults;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SceneEntityQueryTest
+{
+	private static final WorldPoint SOURCE = new WorldPoint(3200, 3200, 0);
+
+	@Test
+	public void testNearest()
+	{
+		SceneEntity far = entity(3205, 3200, 0);
+		SceneEntity near = entity(3198, 3202, 0);
+		SceneEntity tie = entity(3202, 3201, 0);
+		TestQuery query = new TestQuery(List.of(far, near, tie));
+
+		assertSame(near, query.nearest(SOURCE));
+		assertSame(near, query.results().nearest(SOURCE));
+
+		query.filter(entity -> entity != near);
+		assertSame(tie, query.nearest(SOURCE));
+		assertSame(tie, query.results().nearest(SOURCE));
+	}
+
+	@Test
+	public void testNearestOnAnotherPlane()
+	{
+		SceneEntity upstairs = entity(3200, 3200, 1);
+		TestQuery query = new TestQuery(List.of(upstairs));
+
+		assertSame(upstairs, query.nearest(SOURCE));
+		assertSame(upstairs, query.results().nearest(SOURCE));
+	}
+
+	@Test
+	public void testNearestWithoutMatch()
+	{
+		TestQuery query = new TestQuery(List.of(entity(3201, 3200, 0)));
+		query.filter(entity -> false);
+
+		assertNull(query.nearest(SOURCE));
+		assertNull(query.results().nearest(SOURCE));
+	}
+
+	private static SceneEntity entity(int x, int y, int plane)
+	{
+		SceneEntity entity = mock(SceneEntity.class);
+		when(entity.getWorldLocation()).thenReturn(new WorldPoint(x, y, plane));
+		when(entity.distanceTo(any(WorldPoint.class))).thenCallRealMethod();
+		return entity;
+	}
+
+	private static class TestQuery extends SceneEntityQuery<SceneEntity, TestQuery>
+	{
+		private TestQuery(List<SceneEntity> entities)
+		{
+			super(() -> entities);
+		}
+
+		@Override
+		protected SceneEntityQueryResults<SceneEntity> results(List<SceneEntity> list)
+		{
+			return new SceneEntityQueryResults<>(list);
+		}
+	}
+}
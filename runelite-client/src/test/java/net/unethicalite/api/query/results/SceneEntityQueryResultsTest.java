@@ -0,0 +1,115 @@
+package net.unethicalite.api.query.results;
+
+import net.runelite.api.coords.WorldPoint;
+import net.unethicalite.api.SceneEntity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SceneEntityQueryResultsTest
+{
+	private static final WorldPoint SOURCE = new WorldPoint(3200, 3200, 0);
+
+	private final SceneEntity far = entity(3206, 3203, 0);
+	private final SceneEntity near = entity(3201, 3199, 0);
+	private final SceneEntity middle = entity(3197, 3203, 0);
+	private final SceneEntity tie = entity(3203, 3201, 0);
+	private final SceneEntity source = entity(3200, 3200, 0);
+	private final SceneEntity upstairs = entity(3200, 3200, 1);
+
+	@Test
+	public void testNearestK()
+	{
+		assertEquals(List.of(source, near, middle), results(far, middle, upstairs, near, tie, source).nearest(SOURCE, 3).list());
+	}
+
+	@Test
+	public void testNearestKTies()
+	{
+		// middle and tie are both 3 tiles away and keep their order
+		assertEquals(List.of(near, middle, tie), results(far, middle, tie, near).nearest(SOURCE, 3).list());
+		assertEquals(List.of(near, tie, middle), results(far, tie, middle, near).nearest(SOURCE, 3).list());
+	}
+
+	@Test
+	public void testNearestKMoreThanResults()
+	{
+		assertEquals(List.of(near, tie, far, upstairs), results(upstairs, far, tie, near).nearest(SOURCE, 10).list());
+		assertEquals(List.of(), results(far, near).nearest(SOURCE, 0).list());
+		assertEquals(List.of(), results().nearest(SOURCE, 3).list());
+	}
+
+	@Test
+	public void testNearestKMatchesSort()
+	{
+		List<SceneEntity> entities = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+		{
+			entities.add(entity(3200 + i * 7 % 13 - 6, 3200 + i * 11 % 17 - 8, i % 10 == 0 ? 1 : 0));
+		}
+
+		for (int k = 1; k <= entities.size(); k += 7)
+		{
+			List<SceneEntity> sorted = new SceneEntityQueryResults<>(new ArrayList<>(entities)).sortedByDistance(SOURCE).list();
+			assertEquals(sorted.subList(0, k), new SceneEntityQueryResults<>(new ArrayList<>(entities)).nearest(SOURCE, k).list());
+		}
+	}
+
+	@Test
+	public void testWithin()
+	{
+		assertEquals(List.of(near, middle, tie), results(far, middle, upstairs, tie, near).within(SOURCE, 3).list());
+	}
+
+	@Test
+	public void testWithinRadiusZero()
+	{
+		assertEquals(List.of(source), results(near, upstairs, source).within(SOURCE, 0).list());
+		assertEquals(List.of(), results(near, upstairs).within(SOURCE, 0).list());
+	}
+
+	@Test
+	public void testWithinSkipsOtherPlanes()
+	{
+		assertEquals(List.of(), results(upstairs).within(SOURCE, Integer.MAX_VALUE - 1).list());
+	}
+
+	@Test
+	public void testNearest()
+	{
+		assertSame(middle, results(far, middle, tie).nearest(SOURCE));
+		assertSame(upstairs, results(upstairs).nearest(SOURCE));
+		assertNull(results().nearest(SOURCE));
+	}
+
+	@Test
+	public void testFarthest()
+	{
+		assertSame(far, results(near, far, middle).farthest(SOURCE));
+		// the last of the farthest, as sortedByDistance would put it last
+		assertSame(tie, results(near, middle, tie).farthest(SOURCE));
+		assertSame(upstairs, results(far, upstairs, near).farthest(SOURCE));
+		assertNull(results().farthest(SOURCE));
+	}
+
+	private static SceneEntityQueryResults<SceneEntity> results(SceneEntity... entities)
+	{
+		return new SceneEntityQueryResults<>(new ArrayList<>(List.of(entities)));
+	}
+
+	private static SceneEntity entity(int x, int y, int plane)
+	{
+		SceneEntity entity = mock(SceneEntity.class);
+		when(entity.getWorldLocation()).thenReturn(new WorldPoint(x, y, plane));
+		when(entity.distanceTo(any(WorldPoint.class))).thenCallRealMethod();
+		return entity;
+	}
+}
@@ -0,0 +1,153 @@
+package net.unethicalite.client.managers;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import net.runelite.api.Client;
+import net.runelite.api.IndexDataBase;
+import net.runelite.api.VarbitComposition;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DefinitionManagerTest
+{
+	private static final int VARP = 100;
+	private static final int WIDE_VARP = 101;
+	// bits 2 to 4 and 5 to 7 of VARP
+	private static final int LOW_VARBIT = 1000;
+	private static final int HIGH_VARBIT = 1001;
+	// all 32 bits of WIDE_VARP
+	private static final int WIDE_VARBIT = 1002;
+
+	@Mock
+	@Bind
+	private Client client;
+
+	@Mock
+	@Bind
+	private ClientThread clientThread;
+
+	@Bind
+	private EventBus eventBus = new EventBus();
+
+	@Inject
+	private DefinitionManager definitionManager;
+
+	private final List<VarbitChanged> lowChanges = new ArrayList<>();
+	private final List<VarbitChanged> wideChanges = new ArrayList<>();
+
+	@Before
+	public void before()
+	{
+		IndexDataBase config = mock(IndexDataBase.class);
+		when(client.getIndexConfig()).thenReturn(config);
+		when(config.getFileIds(14)).thenReturn(new int[]{LOW_VARBIT, HIGH_VARBIT, WIDE_VARBIT});
+		varbit(LOW_VARBIT, VARP, 2, 4);
+		varbit(HIGH_VARBIT, VARP, 5, 7);
+		varbit(WIDE_VARBIT, WIDE_VARP, 0, 31);
+		doAnswer(invocation ->
+		{
+			((Runnable) invocation.getArgument(0)).run();
+			return null;
+		}).when(clientThread).invoke(any(Runnable.class));
+
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		definitionManager.init();
+		eventBus.register(this);
+	}
+
+	@Subscribe(varbit = LOW_VARBIT)
+	public void onLowVarbitChanged(VarbitChanged event)
+	{
+		lowChanges.add(event);
+	}
+
+	@Subscribe(varbit = WIDE_VARBIT)
+	public void onWideVarbitChanged(VarbitChanged event)
+	{
+		wideChanges.add(event);
+	}
+
+	@Test
+	public void testOnlyChangedVarbitIsPosted()
+	{
+		// bits outside of the varbit
+		varpChanged(VARP, 0b0000_0000, 0b1110_0011);
+		// the other varbit of the varp
+		varpChanged(VARP, 0b1110_0011, 0b0000_0011);
+		// the same value again
+		varpChanged(VARP, 0b0000_0011, 0b0000_0011);
+		assertTrue(lowChanges.isEmpty());
+
+		varpChanged(VARP, 0b0000_0011, 0b0001_0111);
+		assertEquals(1, lowChanges.size());
+		VarbitChanged event = lowChanges.get(0);
+		assertEquals(LOW_VARBIT, event.getVarbitId());
+		assertEquals(VARP, event.getIndex());
+		assertEquals(0b000, event.getPreviousValue());
+		assertEquals(0b101, event.getValue());
+		assertTrue(wideChanges.isEmpty());
+	}
+
+	@Test
+	public void testFullWidthVarbit()
+	{
+		varpChanged(WIDE_VARP, 0, Integer.MIN_VALUE);
+		varpChanged(WIDE_VARP, Integer.MIN_VALUE, -1);
+		assertEquals(2, wideChanges.size());
+		assertEquals(0, wideChanges.get(0).getPreviousValue());
+		assertEquals(Integer.MIN_VALUE, wideChanges.get(0).getValue());
+		assertEquals(Integer.MIN_VALUE, wideChanges.get(1).getPreviousValue());
+		assertEquals(-1, wideChanges.get(1).getValue());
+		assertTrue(lowChanges.isEmpty());
+
+		int bits = definitionManager.getVarbitBits()[WIDE_VARBIT];
+		assertEquals(WIDE_VARP, DefinitionManager.getVarbitVarp(bits));
+		assertEquals(-1, DefinitionManager.getVarbitValue(bits, -1));
+	}
+
+	@Test
+	public void testVarbitValue()
+	{
+		int bits = definitionManager.getVarbitBits()[HIGH_VARBIT];
+		assertEquals(VARP, DefinitionManager.getVarbitVarp(bits));
+		assertEquals(0b101, DefinitionManager.getVarbitValue(bits, 0b1011_0110));
+	}
+
+	private void varbit(int id, int varp, int lsb, int msb)
+	{
+		VarbitComposition varbit = mock(VarbitComposition.class);
+		when(varbit.getIndex()).thenReturn(varp);
+		when(varbit.getLeastSignificantBit()).thenReturn(lsb);
+		when(varbit.getMostSignificantBit()).thenReturn(msb);
+		when(client.getVarbit(id)).thenReturn(varbit);
+	}
+
+	private void varpChanged(int varp, int previous, int value)
+	{
+		VarbitChanged event = new VarbitChanged();
+		event.setIndex(varp);
+		event.setPreviousValue(previous);
+		event.setValue(value);
+		eventBus.post(event);
+	}
+}
@@ -64,6 +64,10 @@ public abstract class RSActorMixin implements RSActor
 	@Shadow("client")
 	private static RSClient client;
 
+	// reused between posts, a nested post finds it taken and allocates its own
+	@Inject
+	private static AnimationChanged rl$animationChanged = new AnimationChanged();
+
 	@Inject
 	private boolean dead;
 
@@ -189,9 +193,28 @@ public abstract class RSActorMixin implements RSActor
 	@Inject
 	public void animationChanged(int idx)
 	{
-		AnimationChanged animationChange = new AnimationChanged();
+		if (!client.getCallbacks().isSubscribed(AnimationChanged.class))
+		{
+			return;
+		}
+
+		AnimationChanged animationChange = rl$animationChanged;
+		rl$animationChanged = null;
+		if (animationChange == null)
+		{
+			animationChange = new AnimationChanged();
+		}
+
 		animationChange.setActor(this);
-		client.getCallbacks().post(animationChange);
+		try
+		{
+			client.getCallbacks().post(animationChange);
+		}
+		finally
+		{
+			animationChange.setActor(null);
+			rl$animationChanged = animationChange;
+		}
 	}
 
 	@FieldHook("spotAnimation")
@@ -207,6 +230,11 @@ public abstract class RSActorMixin implements RSActor
 	@Inject
 	public void interactingChanged(int idx)
 	{
+		if (!client.getCallbacks().isSubscribed(InteractingChanged.class))
+		{
+			return;
+		}
+
 		InteractingChanged interactingChanged = new InteractingChanged(this, getInteracting());
 		client.getCallbacks().post(interactingChanged);
 	}
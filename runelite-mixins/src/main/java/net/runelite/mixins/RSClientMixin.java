@@ -38,6 +38,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import net.runelite.api.Actor;
@@ -240,6 +241,16 @@ public abstract class RSClientMixin implements RSClient
 	@Inject
 	private static boolean oldIsResized;
 
+	@Inject
+	private static int[] previousVarps;
+
+	// the events below are reused between posts, a nested post finds them taken and allocates its own
+	@Inject
+	private static VarbitChanged rl$varbitChanged = new VarbitChanged();
+
+	@Inject
+	private static MenuEntryAdded rl$menuEntryAdded;
+
 	@Inject
 	static int skyboxColor;
 
@@ -565,6 +576,42 @@ public abstract class RSClientMixin implements RSClient
 		return npcs;
 	}
 
+	@Inject
+	@Override
+	public void forEachPlayer(Consumer<? super Player> consumer)
+	{
+		int validPlayerIndexes = getPlayerIndexesCount();
+		int[] playerIndexes = getPlayerIndices();
+		Player[] cachedPlayers = getCachedPlayers();
+
+		for (int i = 0; i < validPlayerIndexes; ++i)
+		{
+			Player player = cachedPlayers[playerIndexes[i]];
+			if (player != null)
+			{
+				consumer.accept(player);
+			}
+		}
+	}
+
+	@Inject
+	@Override
+	public void forEachNpc(Consumer<? super NPC> consumer)
+	{
+		int validNpcIndexes = getNpcIndexesCount();
+		int[] npcIndexes = getNpcIndices();
+		NPC[] cachedNpcs = getCachedNPCs();
+
+		for (int i = 0; i < validNpcIndexes; ++i)
+		{
+			NPC npc = cachedNpcs[npcIndexes[i]];
+			if (npc != null)
+			{
+				consumer.accept(npc);
+			}
+		}
+	}
+
 	@Inject
 	@Override
 	public int getBoostedSkillLevel(Skill skill)
@@ -1091,11 +1138,30 @@ public abstract class RSClientMixin implements RSClient
 				rl$menuEntries[tmpOptionsCount].setConsumer(null);
 			}
 
-			MenuEntryAdded menuEntryAdded = new MenuEntryAdded(
-				rl$menuEntries[tmpOptionsCount]
-			);
+			if (!client.getCallbacks().isSubscribed(MenuEntryAdded.class))
+			{
+				return;
+			}
 
-			client.getCallbacks().post(menuEntryAdded);
+			MenuEntryAdded menuEntryAdded = rl$menuEntryAdded;
+			rl$menuEntryAdded = null;
+			if (menuEntryAdded == null)
+			{
+				menuEntryAdded = new MenuEntryAdded(rl$menuEntries[tmpOptionsCount]);
+			}
+			else
+			{
+				menuEntryAdded.reset(rl$menuEntries[tmpOptionsCount]);
+			}
+
+			try
+			{
+				client.getCallbacks().post(menuEntryAdded);
+			}
+			finally
+			{
+				rl$menuEntryAdded = menuEntryAdded;
+			}
 
 			if (menuEntryAdded.isModified() && client.getMenuOptionCount() == optionCount)
 			{
@@ -1494,9 +1560,44 @@ public abstract class RSClientMixin implements RSClient
 	@Inject
 	public static void settingsChanged(int idx)
 	{
-		VarbitChanged varbitChanged = new VarbitChanged();
+		int[] varps = client.getVarps();
+		if (previousVarps == null || previousVarps.length != varps.length)
+		{
+			previousVarps = new int[varps.length];
+		}
+
+		int previousValue = 0;
+		int value = 0;
+		if (idx >= 0 && idx < varps.length)
+		{
+			previousValue = previousVarps[idx];
+			value = varps[idx];
+			previousVarps[idx] = value;
+		}
+
+		if (!client.getCallbacks().isSubscribed(VarbitChanged.class))
+		{
+			return;
+		}
+
+		VarbitChanged varbitChanged = rl$varbitChanged;
+		rl$varbitChanged = null;
+		if (varbitChanged == null)
+		{
+			varbitChanged = new VarbitChanged();
+		}
+
 		varbitChanged.setIndex(idx);
-		client.getCallbacks().post(varbitChanged);
+		varbitChanged.setPreviousValue(previousValue);
+		varbitChanged.setValue(value);
+		try
+		{
+			client.getCallbacks().post(varbitChanged);
+		}
+		finally
+		{
+			rl$varbitChanged = varbitChanged;
+		}
 	}
 
 	@FieldHook("isResizable")
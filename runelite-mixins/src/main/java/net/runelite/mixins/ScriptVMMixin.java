@@ -50,6 +50,9 @@ public abstract class ScriptVMMixin implements RSClient
 	@Shadow("client")
 	private static RSClient client;
 
+	@Inject
+	private static ScriptCallbackEvent rl$scriptCallbackEvent = new ScriptCallbackEvent();
+
 	@Inject
 	private static RSScript currentScript;
 
@@ -124,10 +127,30 @@ public abstract class ScriptVMMixin implements RSClient
 					return true;
 				}
 
-				ScriptCallbackEvent event = new ScriptCallbackEvent();
+				if (!client.getCallbacks().isSubscribed(ScriptCallbackEvent.class))
+				{
+					return true;
+				}
+
+				// reused between posts, callbacks fired by scripts a subscriber runs allocate their own
+				ScriptCallbackEvent event = rl$scriptCallbackEvent;
+				rl$scriptCallbackEvent = null;
+				if (event == null)
+				{
+					event = new ScriptCallbackEvent();
+				}
+
 				event.setScript(currentScript);
 				event.setEventName(stringOp);
-				client.getCallbacks().post(event);
+				try
+				{
+					client.getCallbacks().post(event);
+				}
+				finally
+				{
+					event.setScript(null);
+					rl$scriptCallbackEvent = event;
+				}
 				return true;
 			case INVOKE:
 				int scriptId = currentScript.getIntOperands()[currentScriptPC];